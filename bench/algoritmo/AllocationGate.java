@@ -0,0 +1,298 @@
+package algoritmo;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import simulacao.Maze;
+import simulacao.RandomSaver;
+import simulacao.Simulation;
+
+/**
+ * Mede os bytes alocados por rodada do Ladrão, no total e por fase de
+ * "acao()", e falha (código de saída 1) caso a média ou o percentil 99
+ * de alguma fonte passe do orçamento, para que regressões de alocação
+ * sejam pegas automaticamente.
+ * 
+ * As rodadas vêm de partidas simuladas nos Labirintos fornecidos (por
+ * padrão, os de "Labirintos/") ou de gravações de "SensorRecorder". Antes
+ * da medição, cada fonte é executada algumas vezes, com um medidor
+ * descartado, para que o JIT compile o Ladrão já observado e elimine as
+ * alocações que a análise de escape consegue eliminar.
+ * 
+ * As alocações são medidas pelo "ThreadMXBean" da própria JVM, nos
+ * limites de cada rodada e de cada fase (ver "PhaseObserver").
+ * 
+ * Compilação e uso, a partir da raiz do projeto:
+ * 
+ * <pre>
+ * javac -encoding UTF-8 -d /tmp/bench -cp lib/poupador.jar $(find src bench -name '*.java')
+ * java -cp lib/poupador.jar:/tmp/bench algoritmo.AllocationGate [-media bytes] [-p99 bytes]
+ *         [-aquecimento N] [-gravacao arquivo.ltrc]... [labirinto...]
+ * </pre>
+ */
+public class AllocationGate {
+    // Os orçamentos padrão, em bytes por rodada.
+    private static final long DEFAULT_MEAN_BUDGET = 64;
+    private static final long DEFAULT_P99_BUDGET = 1024;
+
+    // A semente das partidas medidas.
+    private static final long SEED = 1;
+
+    public static void main(String[] args) throws IOException {
+        long meanBudget = DEFAULT_MEAN_BUDGET;
+        long p99Budget = DEFAULT_P99_BUDGET;
+        int warmup = 3;
+        List<Path> recordings = new ArrayList<>();
+        List<String> mazes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-media")) {
+                meanBudget = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-p99")) {
+                p99Budget = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-aquecimento")) {
+                warmup = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-gravacao")) {
+                recordings.add(Paths.get(args[++i]));
+            } else {
+                mazes.add(args[i]);
+            }
+        }
+        if (mazes.isEmpty() && recordings.isEmpty()) {
+            File[] files = new File("Labirintos").listFiles((dir, name) -> name.endsWith(".txt"));
+            if (files == null) {
+                throw new IOException("Pasta \"Labirintos\" não encontrada");
+            }
+            Arrays.sort(files);
+            for (File file : files) {
+                mazes.add(file.getPath());
+            }
+        }
+
+        System.out.printf("orçamento: média %d B/rodada, p99 %d B/rodada%n%n", meanBudget, p99Budget);
+        List<String> failures = new ArrayList<>();
+        for (String path : mazes) {
+            Maze maze = Maze.load(path);
+            int ticks = 4 * simulate(maze, SEED, null);
+            for (int match = 0; match < warmup; match++) {
+                simulate(maze, SEED + 1 + match, new AllocationProbe(ticks));
+            }
+            AllocationProbe probe = new AllocationProbe(ticks);
+            simulate(maze, SEED, probe);
+            check(path, probe, meanBudget, p99Budget, failures);
+        }
+        for (Path path : recordings) {
+            SensorReplay replay = SensorReplay.open(path);
+            long[] tickNanos = new long[replay.getTickCount()];
+            AllocationProbe probe = null;
+            for (int pass = 0; pass <= warmup; pass++) {
+                probe = new AllocationProbe(replay.getTickCount());
+                Ladrao thief = replay.createThief();
+                thief.phaseObserver = probe;
+                replay.replay(thief, tickNanos);
+            }
+            check(path.toString(), probe, meanBudget, p99Budget, failures);
+        }
+
+        if (!failures.isEmpty()) {
+            System.out.println("FALHA: alocações acima do orçamento");
+            for (String failure : failures) {
+                System.out.println("  " + failure);
+            }
+            System.exit(1);
+        }
+        System.out.println("OK: alocações dentro do orçamento");
+    }
+
+    /**
+     * Executa uma partida completa, observando os quatro Ladrões.
+     * 
+     * @param maze  O Labirinto da partida.
+     * @param seed  A semente da partida.
+     * @param probe O medidor das rodadas, ou nulo para não medir.
+     * @return A quantia de rodadas da partida.
+     */
+    private static int simulate(Maze maze, long seed, AllocationProbe probe) {
+        ThiefOptions options = new ThiefOptions();
+        options.setMazeSize(maze.getWidth(), maze.getHeight());
+        Ladrao[] thieves = new Ladrao[4];
+        for (int thief = 0; thief < thieves.length; thief++) {
+            thieves[thief] = new Ladrao(seed * 31 + thief, options);
+            thieves[thief].phaseObserver = probe;
+        }
+        ProgramaPoupador[] savers = { new RandomSaver(seed * 37), new RandomSaver(seed * 37 + 1) };
+        Simulation simulation = new Simulation(maze, thieves, savers);
+        simulation.run();
+        return simulation.getElapsedTicks();
+    }
+
+    /**
+     * Mostra as alocações de uma fonte e confere os orçamentos.
+     * 
+     * @param name       O nome da fonte.
+     * @param probe      O medidor, com as rodadas da fonte.
+     * @param meanBudget O orçamento da média, em bytes por rodada.
+     * @param p99Budget  O orçamento do percentil 99, em bytes por rodada.
+     * @param failures   Recebe as fontes acima do orçamento.
+     */
+    private static void check(String name, AllocationProbe probe, long meanBudget, long p99Budget,
+            List<String> failures) {
+        long[] ticks = Arrays.copyOf(probe.tickBytes, probe.tickCount);
+        double mean = mean(ticks);
+        long p99 = percentile99(ticks);
+        System.out.printf("%-40s %8s %12s %12s %12s%n", name, "rodadas", "média (B)", "p99 (B)", "máximo (B)");
+        System.out.printf("  %-38s %8d %12.1f %12d %12d%n", "acao", ticks.length, mean, p99, max(ticks));
+        for (int phase = 0; phase < probe.phaseCount; phase++) {
+            long[] phaseBytes = Arrays.copyOf(probe.phaseBytes[phase], probe.phaseSamples[phase]);
+            System.out.printf("  %-38s %8d %12.1f %12d %12d%n", probe.phaseNames[phase], phaseBytes.length,
+                    mean(phaseBytes), percentile99(phaseBytes), max(phaseBytes));
+        }
+        System.out.println();
+
+        if (mean > meanBudget) {
+            failures.add(String.format("%s: média de %.1f B/rodada (orçamento %d)", name, mean, meanBudget));
+        }
+        if (p99 > p99Budget) {
+            failures.add(String.format("%s: p99 de %d B/rodada (orçamento %d)", name, p99, p99Budget));
+        }
+    }
+
+    private static double mean(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total += value;
+        }
+        return values.length == 0 ? 0 : (double) total / values.length;
+    }
+
+    private static long percentile99(long[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (0.99 * (sorted.length - 1))];
+    }
+
+    private static long max(long[] values) {
+        long max = 0;
+        for (long value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Mede os bytes alocados em cada rodada e em cada fase. Os vetores são
+     * alocados antes da medição, para que o próprio medidor não aloque
+     * durante as rodadas.
+     */
+    private static final class AllocationProbe implements PhaseObserver {
+        // O medidor de alocações da JVM.
+        private static final com.sun.management.ThreadMXBean THREADS =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // A maior quantia de fases distintas e de fases aninhadas.
+        private static final int MAX_PHASES = 16;
+
+        // A thread medida e os bytes alocados por cada consulta ao medidor.
+        private final long thread = Thread.currentThread().getId();
+        private final long readCost;
+
+        // As consultas ao medidor feitas até agora.
+        private long reads;
+
+        // Os bytes de cada rodada.
+        final long[] tickBytes;
+        int tickCount;
+        private long tickStartBytes;
+        private long tickStartReads;
+
+        // Os nomes das fases, na ordem em que aparecem, e os bytes de cada
+        // ocorrência de cada fase.
+        final String[] phaseNames = new String[MAX_PHASES];
+        final long[][] phaseBytes;
+        final int[] phaseSamples = new int[MAX_PHASES];
+        int phaseCount;
+
+        // As fases abertas, com os seus índices e os bytes e as consultas
+        // no seu início.
+        private final int[] openPhases = new int[MAX_PHASES];
+        private final long[] openBytes = new long[MAX_PHASES];
+        private final long[] openReads = new long[MAX_PHASES];
+        private int openCount;
+
+        /**
+         * @param capacity A maior quantia de rodadas medidas.
+         */
+        AllocationProbe(int capacity) {
+            this.tickBytes = new long[capacity];
+            this.phaseBytes = new long[MAX_PHASES][capacity];
+            // Desconta o custo do próprio medidor, caso a JVM aloque nele.
+            long before = this.read();
+            long after = this.read();
+            this.readCost = after - before;
+            this.reads = 0;
+        }
+
+        @Override
+        public void tickStarted() {
+            this.tickStartReads = this.reads;
+            this.tickStartBytes = this.read();
+        }
+
+        @Override
+        public void phaseStarted(String phase) {
+            this.openPhases[this.openCount] = this.indexOf(phase);
+            this.openReads[this.openCount] = this.reads;
+            this.openBytes[this.openCount] = this.read();
+            this.openCount++;
+        }
+
+        @Override
+        public void phaseEnded() {
+            long bytes = this.read();
+            this.openCount--;
+            long allocated = bytes - this.openBytes[this.openCount]
+                    - (this.reads - this.openReads[this.openCount] - 1) * this.readCost;
+            int index = this.openPhases[this.openCount];
+            this.phaseBytes[index][this.phaseSamples[index]++] = allocated;
+        }
+
+        @Override
+        public void tickEnded() {
+            long bytes = this.read();
+            this.tickBytes[this.tickCount++] = bytes - this.tickStartBytes
+                    - (this.reads - this.tickStartReads - 1) * this.readCost;
+        }
+
+        /**
+         * @return Os bytes alocados pela thread medida até agora.
+         */
+        private long read() {
+            this.reads++;
+            return THREADS.getThreadAllocatedBytes(this.thread);
+        }
+
+        /**
+         * Procura uma fase pelo nome, registrando-a na primeira ocorrência.
+         * 
+         * @param phase O nome da fase.
+         * @return O índice da fase.
+         */
+        private int indexOf(String phase) {
+            for (int index = 0; index < this.phaseCount; index++) {
+                if (this.phaseNames[index].equals(phase)) {
+                    return index;
+                }
+            }
+            this.phaseNames[this.phaseCount] = phase;
+            return this.phaseCount++;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package algoritmo;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Um executor mínimo de benchmarks, no estilo do JMH: aquece cada
+ * operação, mede várias iterações de tempo fixo e informa a vazão
+ * (operações por segundo) e as alocações por operação.
+ * 
+ * As alocações são medidas pelo "ThreadMXBean" da própria JVM, que
+ * conta os bytes alocados pela thread que executa o benchmark.
+ * 
+ * Uma operação que muda o estado que ela mesma lê (como uma rodada do
+ * Ladrão, que avança a partida) é medida em sequências de tamanho fixo,
+ * com o estado reiniciado entre elas, fora da medição.
+ */
+class BenchmarkRunner {
+    /**
+     * O resultado de um benchmark.
+     */
+    static class Result {
+        // O nome do benchmark.
+        final String name;
+
+        // A vazão média e o seu desvio padrão, em operações por segundo.
+        final double opsPerSecond;
+        final double opsPerSecondError;
+
+        // Os bytes alocados por operação.
+        final double bytesPerOp;
+
+        Result(String name, double opsPerSecond, double opsPerSecondError, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.opsPerSecondError = opsPerSecondError;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    // O medidor de alocações da JVM.
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Impede que a JVM descarte o resultado das operações.
+    static volatile int sink;
+
+    // As iterações de aquecimento e de medição, e a duração de cada uma.
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+
+    /**
+     * Construtor do executor.
+     * 
+     * @param warmupIterations      As iterações de aquecimento.
+     * @param measurementIterations As iterações de medição.
+     * @param iterationMillis       A duração de cada iteração.
+     */
+    BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /**
+     * Executa um benchmark.
+     * 
+     * @param name      O nome do benchmark.
+     * @param operation A operação medida; o seu retorno é consumido.
+     * @return O resultado do benchmark.
+     */
+    Result run(String name, IntSupplier operation) {
+        return this.run(name, operation, 0, null);
+    }
+
+    /**
+     * Executa um benchmark em sequências de operações, reiniciando o
+     * estado da operação entre elas, sem medir o tempo nem as alocações
+     * do reinício.
+     * 
+     * @param name           O nome do benchmark.
+     * @param operation      A operação medida; o seu retorno é consumido.
+     * @param sequenceLength As operações de cada sequência (0 para não
+     *                       reiniciar o estado).
+     * @param reset          Reinicia o estado antes da próxima sequência
+     *                       (nulo para não reiniciar o estado).
+     * @return O resultado do benchmark.
+     */
+    Result run(String name, IntSupplier operation, int sequenceLength, Runnable reset) {
+        for (int i = 0; i < this.warmupIterations; i++) {
+            this.iterate(operation, sequenceLength, reset, null);
+        }
+
+        List<Double> throughputs = new ArrayList<>();
+        long totalOps = 0;
+        long totalBytes = 0;
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < this.measurementIterations; i++) {
+            long[] measured = new long[3];
+            long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+            this.iterate(operation, sequenceLength, reset, measured);
+            totalBytes += THREADS.getThreadAllocatedBytes(thread) - bytesBefore - measured[2];
+            totalOps += measured[0];
+            throughputs.add(measured[0] * 1e9 / measured[1]);
+        }
+
+        double mean = 0;
+        for (double throughput : throughputs) {
+            mean += throughput;
+        }
+        mean /= throughputs.size();
+        double variance = 0;
+        for (double throughput : throughputs) {
+            variance += (throughput - mean) * (throughput - mean);
+        }
+        double error = throughputs.size() > 1 ? Math.sqrt(variance / (throughputs.size() - 1)) : 0;
+        return new Result(name, mean, error, (double) totalBytes / totalOps);
+    }
+
+    /**
+     * Executa a operação durante uma iteração, conferindo o relógio
+     * a cada lote de chamadas ou a cada sequência.
+     * 
+     * @param operation      A operação medida.
+     * @param sequenceLength As operações de cada sequência (0 para não
+     *                       reiniciar o estado).
+     * @param reset          Reinicia o estado entre as sequências (pode
+     *                       ser nulo).
+     * @param measured       Recebe as operações, os nanossegundos gastos
+     *                       e os bytes alocados pelos reinícios (pode ser
+     *                       nulo no aquecimento).
+     */
+    private void iterate(IntSupplier operation, int sequenceLength, Runnable reset, long[] measured) {
+        long thread = Thread.currentThread().getId();
+        int accumulator = 0;
+        long ops = 0;
+        long elapsed = 0;
+        long resetBytes = 0;
+        int batch = reset != null ? sequenceLength : 1;
+        do {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                accumulator += operation.getAsInt();
+            }
+            elapsed += System.nanoTime() - start;
+            ops += batch;
+            if (reset != null) {
+                long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+                reset.run();
+                resetBytes += THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+            } else if (batch < 1024) {
+                // Aumenta o lote até que a consulta ao relógio seja desprezível.
+                batch <<= 1;
+            }
+        } while (elapsed < this.iterationNanos);
+        sink = accumulator;
+        if (measured != null) {
+            measured[0] = ops;
+            measured[1] = elapsed;
+            measured[2] = resetBytes;
+        }
+    }
+}
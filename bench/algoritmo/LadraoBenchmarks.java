@@ -0,0 +1,344 @@
+package algoritmo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import simulacao.Maze;
+import simulacao.RandomSaver;
+import simulacao.Simulation;
+
+/**
+ * Os benchmarks dos caminhos críticos do Ladrão, sobre os Labirintos
+ * de "Labirintos/".
+ * 
+ * Para cada Labirinto, uma partida sem interface gráfica é executada
+ * até o início, o meio e o fim da exploração; o primeiro Ladrão é
+ * congelado nesse ponto (memória, grafos e sensores) e cada operação é
+ * medida repetidamente sobre ele.
+ * 
+ * A rodada inteira ("acao") não é medida sobre o Ladrão congelado: com
+ * os sensores parados, nenhum terreno muda e a rodada se reduz ao
+ * caminho já calculado. Ela é medida sobre as rodadas gravadas do
+ * primeiro Ladrão (ver "SensorReplay"), da rodada da fase até a da fase
+ * seguinte (ou o fim da partida), e um novo Ladrão é levado de volta ao
+ * início desse trecho, fora da medição, sempre que o trecho acaba.
+ * 
+ * Compilação e uso, a partir da raiz do projeto:
+ * 
+ * <pre>
+ * javac -encoding UTF-8 -d /tmp/bench -cp lib/poupador.jar $(find src bench -name '*.java')
+ * java -cp lib/poupador.jar:/tmp/bench algoritmo.LadraoBenchmarks [-filtro texto]
+ *         [-salvar bench/baseline.txt] [-comparar bench/baseline.txt]
+ * </pre>
+ */
+public class LadraoBenchmarks {
+    // As rodadas em que o Ladrão é congelado, por fase da exploração.
+    private static final String[] PHASES = { "inicio", "meio", "fim" };
+    private static final int[] PHASE_TICKS = { 10, 100, 500 };
+
+    // A semente das partidas usadas para congelar os Ladrões.
+    private static final long SEED = 1;
+
+    public static void main(String[] args) throws IOException {
+        String filter = "";
+        String savePath = null;
+        String comparePath = null;
+        int warmup = 3;
+        int iterations = 5;
+        long iterationMillis = 200;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-filtro")) {
+                filter = args[++i];
+            } else if (args[i].equals("-salvar")) {
+                savePath = args[++i];
+            } else if (args[i].equals("-comparar")) {
+                comparePath = args[++i];
+            } else if (args[i].equals("-iteracoes")) {
+                iterations = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-milis")) {
+                iterationMillis = Long.parseLong(args[++i]);
+            }
+        }
+
+        Map<String, double[]> baseline = comparePath != null
+                ? readBaseline(comparePath)
+                : new LinkedHashMap<>();
+
+        File[] files = new File("Labirintos").listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files == null) {
+            throw new IOException("Pasta \"Labirintos\" não encontrada");
+        }
+        Arrays.sort(files);
+
+        BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations, iterationMillis);
+        List<BenchmarkRunner.Result> results = new ArrayList<>();
+        System.out.printf("%-52s %14s %10s %10s%s%n", "benchmark", "ops/s", "erro", "B/op",
+                comparePath != null ? "   vs. base" : "");
+        for (File file : files) {
+            Maze maze = Maze.load(file.getPath());
+            SensorReplay replay = recordThief(maze);
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                String prefix = file.getName().replace(".txt", "") + "/" + PHASES[phase] + "/";
+                int lastTick = phase + 1 < PHASES.length ? PHASE_TICKS[phase + 1] : replay.getTickCount();
+                lastTick = Math.min(lastTick, replay.getTickCount());
+                if ((prefix + "acao").contains(filter) && PHASE_TICKS[phase] < lastTick) {
+                    RecordedTicks ticks = new RecordedTicks(replay, PHASE_TICKS[phase], lastTick);
+                    BenchmarkRunner.Result result = runner.run(prefix + "acao", ticks, ticks.getLength(),
+                            ticks::reset);
+                    results.add(result);
+                    print(result, baseline.get(result.name));
+                }
+                for (Map.Entry<String, Operation> benchmark : operations().entrySet()) {
+                    String name = prefix + benchmark.getKey();
+                    if (!name.contains(filter)) {
+                        continue;
+                    }
+                    // Cada benchmark recebe o seu próprio Ladrão congelado.
+                    Ladrao thief = freezeThief(maze, PHASE_TICKS[phase]);
+                    BenchmarkRunner.Result result = runner.run(name, benchmark.getValue().bind(thief));
+                    results.add(result);
+                    print(result, baseline.get(name));
+                }
+            }
+        }
+
+        if (savePath != null) {
+            try (PrintStream out = new PrintStream(savePath, StandardCharsets.UTF_8.name())) {
+                out.println("# benchmark\tops/s\terro\tB/op");
+                for (BenchmarkRunner.Result result : results) {
+                    out.printf(Locale.ROOT, "%s\t%.1f\t%.1f\t%.1f%n", result.name, result.opsPerSecond,
+                            result.opsPerSecondError, result.bytesPerOp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Uma operação medida sobre um Ladrão congelado.
+     */
+    private interface Operation {
+        IntSupplier bind(Ladrao thief);
+    }
+
+    /**
+     * @return As operações medidas, pelo nome.
+     */
+    private static Map<String, Operation> operations() {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("AStar", thief -> {
+            int origin = thief.graph.coordinatesToId(thief.thiefX, thief.thiefY);
+            int destiny = thief.getLongestUnknownVertex();
+            return () -> thief.graph.AStar(origin, destiny, thief.searchBuffers, thief.random);
+        });
+        operations.put("JumpPointSearch", thief -> {
+            // O mesmo tipo de caminho do "AStar", para comparar as duas buscas.
+            int origin = thief.graph.coordinatesToId(thief.thiefX, thief.thiefY);
+            int destiny = thief.getLongestUnknownVertex();
+            return () -> thief.jumpPointSearch.search(origin, destiny, thief.searchBuffers, thief.random,
+                    Deadline.NONE);
+        });
+        operations.put("DistanceField", thief -> {
+            int origin = thief.graph.coordinatesToId(thief.thiefX, thief.thiefY);
+            return () -> {
+                // Refaz a busca inteira, como no início de cada rodada.
+                thief.distanceField.invalidate();
+                thief.distanceField.compute(origin, thief.random);
+                return thief.distanceField.getReachedSize();
+            };
+        });
+        operations.put("updateSaverBeliefs", thief -> {
+            // A crença é desligada por padrão.
+            if (thief.saverBeliefs == null) {
+                thief.saverBeliefs = new SaverBeliefs(thief.graph);
+            }
+            return () -> {
+                thief.saverBeliefs.update(thief.thiefX, thief.thiefY, thief.getThiefCurrentVision(),
+                        thief.getSaverSmell());
+                return thief.saverBeliefs.getMostLikely(0);
+            };
+        });
+        operations.put("updateGraphBasedOnMemory", thief -> () -> {
+            // Esquece a janela da visão, para que toda ela seja
+            // memorizada e corrigida no grafo novamente.
+            forgetVision(thief);
+            thief.memorizeVisitedLands();
+            thief.updateGraphBasedOnMemory();
+            return thief.graph.vertexes[thief.graph.coordinatesToId(thief.thiefX, thief.thiefY)];
+        });
+        operations.put("updateGraphBasedOnVision", thief -> () -> {
+            thief.updateGraphBasedOnVision();
+            return thief.visionGraph.vertexes[thief.visionGraph.coordinatesToId(thief.thiefX, thief.thiefY)];
+        });
+        operations.put("memorizeVisitedLands", thief -> () -> {
+            thief.memorizeVisitedLands();
+            return thief.knownField[thief.thiefY][thief.thiefX];
+        });
+        operations.put("getLongestUnknownVertex", thief -> thief::getLongestUnknownVertex);
+        return operations;
+    }
+
+    /**
+     * Executa uma partida até uma rodada e devolve o primeiro Ladrão,
+     * pronto para perceber o ambiente daquela rodada.
+     * 
+     * @param maze  O Labirinto da partida.
+     * @param ticks As rodadas executadas antes de congelar o Ladrão.
+     * @return O Ladrão congelado.
+     */
+    private static Ladrao freezeThief(Maze maze, int ticks) {
+        ThiefOptions options = new ThiefOptions();
+        options.setMazeSize(maze.getWidth(), maze.getHeight());
+        Ladrao[] thieves = new Ladrao[4];
+        for (int thief = 0; thief < thieves.length; thief++) {
+            thieves[thief] = new Ladrao(SEED * 31 + thief, options);
+        }
+        ProgramaPoupador[] savers = { new RandomSaver(SEED * 37), new RandomSaver(SEED * 37 + 1) };
+        Simulation simulation = new Simulation(maze, thieves, savers);
+        for (int tick = 0; tick < ticks && simulation.step(); tick++) {
+            // Nada a fazer, a rodada já foi executada.
+        }
+        // O sensor continua com a percepção da última rodada do Ladrão.
+        Ladrao thief = thieves[0];
+        thief.updateThiefCurrentPosition();
+        return thief;
+    }
+
+    /**
+     * Executa uma partida inteira gravando as rodadas do primeiro Ladrão,
+     * com a mesma semente de "freezeThief".
+     * 
+     * @param maze O Labirinto da partida.
+     * @return A gravação das rodadas.
+     * @throws IOException Caso a gravação não possa ser escrita ou lida.
+     */
+    private static SensorReplay recordThief(Maze maze) throws IOException {
+        ThiefOptions options = new ThiefOptions();
+        options.setMazeSize(maze.getWidth(), maze.getHeight());
+        Ladrao[] thieves = new Ladrao[4];
+        for (int thief = 0; thief < thieves.length; thief++) {
+            thieves[thief] = new Ladrao(SEED * 31 + thief, options);
+        }
+        Path path = Files.createTempFile("ladrao-bench", ".ltrc");
+        path.toFile().deleteOnExit();
+        thieves[0].startRecording(path);
+        ProgramaPoupador[] savers = { new RandomSaver(SEED * 37), new RandomSaver(SEED * 37 + 1) };
+        new Simulation(maze, thieves, savers).run();
+        thieves[0].stopRecording();
+        return SensorReplay.open(path);
+    }
+
+    /**
+     * As rodadas gravadas de um trecho da partida, entregues uma por
+     * operação a um Ladrão que percorre o trecho.
+     */
+    private static final class RecordedTicks implements IntSupplier {
+        // A gravação e o trecho medido, da primeira rodada até a última
+        // (exclusive).
+        private final SensorReplay replay;
+        private final int firstTick;
+        private final int lastTick;
+
+        // O Ladrão que percorre o trecho e a sua próxima rodada.
+        private Ladrao thief;
+        private int tick;
+
+        /**
+         * @param replay    A gravação.
+         * @param firstTick A primeira rodada do trecho.
+         * @param lastTick  A rodada seguinte à última do trecho.
+         */
+        RecordedTicks(SensorReplay replay, int firstTick, int lastTick) {
+            this.replay = replay;
+            this.firstTick = firstTick;
+            this.lastTick = lastTick;
+            this.reset();
+        }
+
+        /**
+         * @return A quantia de rodadas do trecho.
+         */
+        int getLength() {
+            return this.lastTick - this.firstTick;
+        }
+
+        /**
+         * Leva um novo Ladrão até o início do trecho, entregando-lhe as
+         * rodadas anteriores.
+         */
+        void reset() {
+            this.thief = this.replay.createThief();
+            this.replay.attach(this.thief);
+            for (this.tick = 0; this.tick < this.firstTick; this.tick++) {
+                this.replay.load(this.thief, this.tick);
+                this.thief.acao();
+            }
+        }
+
+        @Override
+        public int getAsInt() {
+            this.replay.load(this.thief, this.tick++);
+            return this.thief.acao();
+        }
+    }
+
+    /**
+     * Apaga da memória do Ladrão os terrenos da sua janela de visão.
+     * 
+     * @param thief O Ladrão.
+     */
+    private static void forgetVision(Ladrao thief) {
+        for (int y = Math.max(0, thief.thiefY - 2); y <= Math.min(thief.knownField.length - 1, thief.thiefY + 2); y++) {
+            for (int x = Math.max(0, thief.thiefX - 2); x <= Math.min(thief.knownField[0].length - 1,
+                    thief.thiefX + 2); x++) {
+                thief.knownField[y][x] = -2;
+                thief.landBitboard.set(x, y, -2);
+            }
+        }
+    }
+
+    /**
+     * Mostra o resultado de um benchmark, comparado à base quando houver.
+     * 
+     * @param result   O resultado.
+     * @param baseline A vazão e as alocações da base, ou nulo.
+     */
+    private static void print(BenchmarkRunner.Result result, double[] baseline) {
+        String comparison = "";
+        if (baseline != null) {
+            comparison = String.format("   %+6.1f%%", 100 * (result.opsPerSecond / baseline[0] - 1));
+        }
+        System.out.printf("%-52s %14.1f %10.1f %10.1f%s%n", result.name, result.opsPerSecond,
+                result.opsPerSecondError, result.bytesPerOp, comparison);
+    }
+
+    /**
+     * Lê um arquivo de base salvo com "-salvar".
+     * 
+     * @param path O caminho do arquivo.
+     * @return A vazão e as alocações de cada benchmark, pelo nome.
+     * @throws IOException Caso o arquivo não possa ser lido.
+     */
+    private static Map<String, double[]> readBaseline(String path) throws IOException {
+        Map<String, double[]> baseline = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            if (line.startsWith("#") || line.trim().isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            baseline.put(fields[0], new double[] { Double.parseDouble(fields[1]), Double.parseDouble(fields[3]) });
+        }
+        return baseline;
+    }
+}
@@ -0,0 +1,55 @@
+package algoritmo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do Java Flight Recorder que cobre uma busca "Graph.AStar" ou
+ * "JumpPointSearch.search".
+ */
+@Name("algoritmo.AStar")
+@Label("Busca A*")
+@Category("Ladrão")
+@Description("Uma chamada de Graph.AStar ou de JumpPointSearch.search")
+class AStarEvent extends Event {
+    // O tipo do evento, consultado a cada rodada sem criar o evento.
+    private static final EventType TYPE = EventType.getEventType(AStarEvent.class);
+
+    @Label("Vértices expandidos")
+    int expandedVertexes;
+
+    @Label("Tamanho do caminho")
+    @Description("A quantia de vértices do caminho, incluindo a origem")
+    int pathLength;
+
+    @Label("Sem caminho")
+    @Description("Se a busca terminou sem caminho (o antigo retorno nulo)")
+    boolean pathNotFound;
+
+    @Label("Caminho parcial")
+    @Description("Se o prazo da rodada expirou e a busca devolveu um caminho parcial")
+    boolean isPathPartial;
+
+    @Label("Jump Point Search")
+    @Description("Se a busca expandiu somente os pontos de salto (JumpPointSearch)")
+    boolean isJumpPointSearch;
+
+    /**
+     * Cria e inicia o evento de uma busca, como "AcaoPhaseEvent.start".
+     * 
+     * @return O evento, a ser confirmado com "commit()" ao fim da busca,
+     *         ou nulo caso nenhuma gravação o esteja registrando.
+     */
+    static AStarEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        AStarEvent event = new AStarEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,54 @@
+package algoritmo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do Java Flight Recorder que cobre uma rodada inteira do
+ * Ladrão, isto é, uma chamada de "acao()".
+ * 
+ * As fases da rodada são eventos "AcaoPhaseEvent" registrados dentro
+ * deste, na mesma thread, então uma gravação mostra quais fases
+ * consumiram o tempo das rodadas mais lentas.
+ */
+@Name("algoritmo.Acao")
+@Label("Rodada do Ladrão")
+@Category("Ladrão")
+@Description("Uma chamada de Ladrao.acao()")
+class AcaoEvent extends Event {
+    // O tipo do evento, consultado a cada rodada sem criar o evento.
+    private static final EventType TYPE = EventType.getEventType(AcaoEvent.class);
+
+    @Label("x")
+    int thiefX;
+
+    @Label("y")
+    int thiefY;
+
+    @Label("Direção")
+    @Description("A direção escolhida (0 para ficar parado)")
+    int direction;
+
+    @Label("Prazo expirado")
+    @Description("Se as buscas foram interrompidas pelo prazo da rodada")
+    boolean deadlineExpired;
+
+    /**
+     * Cria e inicia o evento de uma rodada, como "AcaoPhaseEvent.start".
+     * 
+     * @return O evento, a ser confirmado com "commit()" ao fim da rodada,
+     *         ou nulo caso nenhuma gravação o esteja registrando.
+     */
+    static AcaoEvent start() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        AcaoEvent event = new AcaoEvent();
+        event.begin();
+        return event;
+    }
+}
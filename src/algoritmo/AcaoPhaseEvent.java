@@ -0,0 +1,46 @@
+package algoritmo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do Java Flight Recorder que cobre uma fase de "acao()", como a
+ * memorização da visão, a atualização do grafo ou a escolha do objetivo.
+ * 
+ * Enquanto nenhuma gravação registra o evento, ele nem é criado: dentro
+ * de "acao()", grande demais para o JIT eliminar a alocação, cada evento
+ * custaria um objeto por fase e por rodada. O tipo do evento é consultado
+ * a cada vez, já que as gravações começam e param durante a execução.
+ */
+@Name("algoritmo.AcaoPhase")
+@Label("Fase da rodada do Ladrão")
+@Category("Ladrão")
+@Description("Uma fase de Ladrao.acao()")
+class AcaoPhaseEvent extends Event {
+    // O tipo do evento, consultado a cada rodada sem criar o evento.
+    private static final EventType TYPE = EventType.getEventType(AcaoPhaseEvent.class);
+
+    @Label("Fase")
+    String phase;
+
+    /**
+     * Cria e inicia o evento de uma fase.
+     * 
+     * @param phase O nome da fase (o método medido).
+     * @return O evento, a ser confirmado com "commit()" ao fim da fase, ou
+     *         nulo caso nenhuma gravação o esteja registrando.
+     */
+    static AcaoPhaseEvent start(String phase) {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        AcaoPhaseEvent event = new AcaoPhaseEvent();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+}
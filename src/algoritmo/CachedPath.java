@@ -0,0 +1,132 @@
+package algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * O último caminho seguido pelo Ladrão até um destino, reaproveitado nas
+ * rodadas seguintes enquanto nenhum terreno dele mudar.
+ * 
+ * Como os terrenos desconhecidos já são considerados visitáveis, as
+ * descobertas da memória só podem fechar caminhos, nunca abrir caminhos
+ * menores que o guardado, então o caminho continua o menor conhecido até
+ * que algum terreno dele mude. Nos Labirintos grandes, isso evita refazer
+ * a busca até um destino distante a cada passo: a rodada custa somente
+ * os terrenos que mudaram.
+ */
+class CachedPath {
+    // O grafo da memória do Ladrão.
+    private final Graph graph;
+
+    // Os terrenos do caminho, da origem até o destino, e a posição do
+    // terreno atual do Ladrão nele.
+    private final int[] path;
+    private int length;
+    private int index;
+
+    // O destino do caminho, ou -1 caso não haja caminho válido.
+    private int goal = -1;
+
+    // Marca os terrenos do caminho atual, somente na geração atual.
+    private final int[] stamp;
+    private int generation;
+
+    /**
+     * Construtor base, aloca a memória do caminho para o grafo fornecido.
+     * 
+     * @param graph O grafo da memória do Ladrão.
+     */
+    CachedPath(Graph graph) {
+        this.graph = graph;
+        int size = graph.width * graph.height;
+        this.path = new int[size];
+        this.stamp = new int[size];
+    }
+
+    /**
+     * Guarda o menor caminho de uma busca, da origem até o destino.
+     * 
+     * @param field  As distâncias da rodada, já calculadas a partir da origem.
+     * @param origin O identificador do terreno do Ladrão.
+     * @param goal   O identificador do destino, já alcançado pela busca.
+     */
+    public void store(DistanceField field, int origin, int goal) {
+        int distance = field.getDistance(goal);
+        if (distance <= 0) {
+            this.goal = -1;
+            return;
+        }
+        // Reinicia as marcações caso a geração chegue ao limite.
+        if (++this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamp, 0);
+            this.generation = 1;
+        }
+        // Percorre os antecessores, do destino até a origem.
+        int vertex = goal;
+        for (int i = distance; i >= 0; i--) {
+            this.path[i] = vertex;
+            this.stamp[vertex] = this.generation;
+            vertex = field.getParent(vertex);
+        }
+        this.length = distance + 1;
+        this.index = 0;
+        this.goal = goal;
+    }
+
+    /**
+     * Pega o próximo terreno do caminho guardado, avançando no caminho
+     * caso o Ladrão tenha dado o passo anterior.
+     * 
+     * @param origin O identificador do terreno do Ladrão.
+     * @param goal   O identificador do destino.
+     * @return O identificador do próximo terreno, ou -1 caso o caminho
+     *         guardado não leve do Ladrão até o destino.
+     */
+    public int getNextVertex(int origin, int goal) {
+        if (this.goal == -1 || this.goal != goal) {
+            return -1;
+        }
+        if (this.index + 1 < this.length && this.path[this.index + 1] == origin) {
+            this.index++;
+        } else if (this.path[this.index] != origin) {
+            // O Ladrão saiu do caminho (ficou parado ou foi desviado).
+            this.goal = -1;
+            return -1;
+        }
+        if (this.index + 1 == this.length) {
+            // O Ladrão chegou ao destino.
+            this.goal = -1;
+            return -1;
+        }
+        return this.path[this.index + 1];
+    }
+
+    /**
+     * Copia os próximos terrenos do caminho guardado, a partir do terreno
+     * seguinte ao do Ladrão, sem avançar no caminho.
+     * 
+     * @param origin O identificador do terreno do Ladrão.
+     * @param ahead  O vetor que recebe os terrenos.
+     * @param max    A quantia máxima de terrenos copiados.
+     * @return A quantia de terrenos copiados (0 caso o caminho guardado não
+     *         passe pelo Ladrão).
+     */
+    public int copyAhead(int origin, int[] ahead, int max) {
+        if (this.goal == -1 || this.path[this.index] != origin) {
+            return 0;
+        }
+        int size = Math.min(max, this.length - this.index - 1);
+        System.arraycopy(this.path, this.index + 1, ahead, 0, size);
+        return size;
+    }
+
+    /**
+     * Invalida o caminho caso um terreno dele tenha mudado.
+     * 
+     * @param land O identificador do terreno.
+     */
+    public void onLandChanged(int land) {
+        if (this.goal != -1 && this.stamp[land] == this.generation) {
+            this.goal = -1;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package algoritmo;
+
+import java.util.Random;
+
+/**
+ * Planejador incremental D* Lite, usado para chegar no objetivo
+ * de exploração do Ladrão.
+ * 
+ * A busca é feita do objetivo para o Ladrão, e o seu estado é mantido
+ * entre as rodadas: quando o Ladrão anda ou algum terreno da memória muda,
+ * somente a parte afetada da busca é reparada. Uma nova busca só é feita
+ * quando o objetivo muda.
+ */
+class DStarLite {
+    // Representa uma distância infinita (sem caminho).
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+
+    // Representa a chave de uma "heap" vazia.
+    private static final long EMPTY_KEY = Long.MAX_VALUE;
+
+    // O grafo da memória do Ladrão.
+    private final Graph graph;
+
+    // O prazo da rodada, que interrompe a reparação da busca.
+    private final Deadline deadline;
+
+    // O custo ("g") e a estimativa de um passo ("rhs") de cada vértice
+    // até o objetivo.
+    private final int[] gScore;
+    private final int[] rhsScore;
+    // A geração em que os custos do vértice foram inicializados.
+    private final int[] scoreStamp;
+    // A geração da busca atual.
+    private int generation;
+
+    // A "heap" binária dos vértices inconsistentes, a chave de cada vértice
+    // e a posição de cada vértice dentro da "heap" (-1 fora dela).
+    private final int[] heap;
+    private final long[] heapKey;
+    private final int[] heapIndex;
+    private int heapSize;
+
+    // O objetivo da busca atual, ou -1 caso não exista.
+    private int goal = -1;
+    // A última posição do Ladrão e o acúmulo da heurística ("km").
+    private int lastStart;
+    private int keyModifier;
+
+    // A quantia de vértices expandidos desde a criação do planejador.
+    protected long expandedVertexes;
+
+    /**
+     * Construtor base, aloca a memória do planejador
+     * para o grafo fornecido.
+     * 
+     * @param graph    O grafo da memória do Ladrão.
+     * @param deadline O prazo das rodadas do Ladrão.
+     */
+    DStarLite(Graph graph, Deadline deadline) {
+        this.graph = graph;
+        this.deadline = deadline;
+
+        int size = graph.width * graph.height;
+        this.gScore = new int[size];
+        this.rhsScore = new int[size];
+        this.scoreStamp = new int[size];
+        this.heap = new int[size];
+        this.heapKey = new long[size];
+        this.heapIndex = new int[size];
+    }
+
+    /**
+     * Pega o objetivo da busca atual.
+     * 
+     * @return O identificador do vértice objetivo, ou -1 caso não exista.
+     */
+    public int getGoal() {
+        return this.goal;
+    }
+
+    /**
+     * Descarta a busca atual e inicia uma nova, para
+     * um novo objetivo.
+     * 
+     * @param start O identificador do vértice em que o Ladrão está.
+     * @param goal  O identificador do vértice objetivo.
+     */
+    public void reset(int start, int goal) {
+        // Invalida os custos da busca anterior.
+        if (++this.generation == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(this.scoreStamp, 0);
+            this.generation = 1;
+        }
+        // Esvazia a "heap"; as posições antigas são invalidadas junto
+        // com os custos.
+        this.heapSize = 0;
+
+        this.goal = goal;
+        this.lastStart = start;
+        this.keyModifier = 0;
+
+        // O objetivo é o único vértice inconsistente no início.
+        this.initScore(goal);
+        this.rhsScore[goal] = 0;
+        this.insert(goal, this.calculateKey(goal, start));
+    }
+
+    /**
+     * Avisa o planejador que um vértice do grafo mudou,
+     * isto é, que as suas arestas foram alteradas.
+     * 
+     * @param vertex O identificador do vértice.
+     */
+    public void updateLand(int vertex) {
+        if (this.goal == -1) {
+            return;
+        }
+        this.initScore(vertex);
+        if (vertex != this.goal) {
+            this.rhsScore[vertex] = this.getBestNeighborScore(vertex);
+        }
+        this.updateVertex(vertex, this.lastStart);
+    }
+
+    /**
+     * Pega a direção do primeiro passo do menor caminho entre
+     * o Ladrão e o objetivo, reparando a busca se necessário.
+     * 
+     * Caso o prazo da rodada expire durante a reparação, a busca é
+     * mantida como está e continua na próxima chamada.
+     * 
+     * @param start      O identificador do vértice em que o Ladrão está.
+     * @param tieBreaker Responsável pelo desempate aleatório entre os caminhos.
+     * @return A direção (1, 2, 3 ou 4) do primeiro passo, ou 0 caso não exista
+     *         caminho ou o prazo tenha expirado antes de encontrá-lo.
+     */
+    public int getNextDirection(int start, Random tieBreaker) {
+        // Caso o objetivo seja impossível de visitar.
+        if (this.goal == -1 || start == this.goal || !this.graph.hasVertex(this.goal)) {
+            return 0;
+        }
+
+        // Corrige as chaves, caso o Ladrão tenha andado.
+        if (start != this.lastStart) {
+            this.keyModifier += this.graph.hScore(this.lastStart, start);
+            this.lastStart = start;
+        }
+
+        this.initScore(start);
+        if (!this.computeShortestPath(start)) {
+            return 0;
+        }
+
+        // Sem solução.
+        if (this.rhsScore[start] >= INFINITY) {
+            return 0;
+        }
+
+        // Escolhe o vizinho com o menor custo, desfazendo os empates
+        // de forma aleatória.
+        int bestDirection = 0;
+        int bestScore = INFINITY;
+        int ties = 0;
+        int neighbors = this.graph.getVertexNeighbor(start);
+        for (int direction = 1; direction <= 4; direction++) {
+            if ((neighbors & (1 << (direction - 1))) != 0) {
+                int score = this.getGScore(this.graph.getNeighbor(start, direction));
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestDirection = direction;
+                    ties = 1;
+                } else if (score == bestScore && score < INFINITY && tieBreaker.nextInt(++ties) == 0) {
+                    bestDirection = direction;
+                }
+            }
+        }
+        return bestDirection;
+    }
+
+    /**
+     * Expande os vértices inconsistentes até que o vértice do Ladrão
+     * esteja consistente ou o prazo da rodada expire.
+     * 
+     * @param start O identificador do vértice em que o Ladrão está.
+     * @return Um valor lógico referente ao fim da reparação.
+     */
+    private boolean computeShortestPath(int start) {
+        while (this.getTopKey() < this.calculateKey(start, start)
+                || this.rhsScore[start] > this.gScore[start]) {
+            if (this.deadline.isExpired()) {
+                return false;
+            }
+            int vertex = this.heap[0];
+            long oldKey = this.heapKey[vertex];
+            long newKey = this.calculateKey(vertex, start);
+            this.expandedVertexes++;
+
+            if (oldKey < newKey) {
+                // A chave está desatualizada.
+                this.update(vertex, newKey);
+            } else if (this.gScore[vertex] > this.rhsScore[vertex]) {
+                // O vértice melhorou: propaga para os vizinhos.
+                this.gScore[vertex] = this.rhsScore[vertex];
+                this.remove(vertex);
+                this.updateNeighbors(vertex, start);
+            } else {
+                // O vértice piorou: recalcula ele e os vizinhos.
+                this.gScore[vertex] = INFINITY;
+                if (vertex != this.goal) {
+                    this.rhsScore[vertex] = this.getBestNeighborScore(vertex);
+                }
+                this.updateVertex(vertex, start);
+                this.updateNeighbors(vertex, start);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recalcula o "rhs" dos vizinhos de um vértice.
+     * 
+     * @param vertex O identificador do vértice.
+     * @param start  O identificador do vértice em que o Ladrão está.
+     */
+    private void updateNeighbors(int vertex, int start) {
+        int neighbors = this.graph.getVertexNeighbor(vertex);
+        for (int direction = 1; direction <= 4; direction++) {
+            if ((neighbors & (1 << (direction - 1))) != 0) {
+                int neighbor = this.graph.getNeighbor(vertex, direction);
+                this.initScore(neighbor);
+                if (neighbor != this.goal) {
+                    this.rhsScore[neighbor] = this.getBestNeighborScore(neighbor);
+                }
+                this.updateVertex(neighbor, start);
+            }
+        }
+    }
+
+    /**
+     * Coloca ou retira um vértice da "heap", de acordo
+     * com a sua consistência.
+     * 
+     * @param vertex O identificador do vértice.
+     * @param start  O identificador do vértice em que o Ladrão está.
+     */
+    private void updateVertex(int vertex, int start) {
+        boolean isInconsistent = this.gScore[vertex] != this.rhsScore[vertex];
+        boolean isOnHeap = this.heapIndex[vertex] != -1;
+        if (isInconsistent && isOnHeap) {
+            this.update(vertex, this.calculateKey(vertex, start));
+        } else if (isInconsistent) {
+            this.insert(vertex, this.calculateKey(vertex, start));
+        } else if (isOnHeap) {
+            this.remove(vertex);
+        }
+    }
+
+    /**
+     * Pega o menor custo de um passo até o objetivo, passando
+     * por algum vizinho do vértice.
+     * 
+     * @param vertex O identificador do vértice.
+     * @return O menor custo encontrado.
+     */
+    private int getBestNeighborScore(int vertex) {
+        int best = INFINITY;
+        int neighbors = this.graph.getVertexNeighbor(vertex);
+        for (int direction = 1; direction <= 4; direction++) {
+            if ((neighbors & (1 << (direction - 1))) != 0) {
+                best = Math.min(best, this.getGScore(this.graph.getNeighbor(vertex, direction)) + 1);
+            }
+        }
+        return Math.min(best, INFINITY);
+    }
+
+    /**
+     * Calcula a chave de um vértice: primeiro a estimativa total
+     * do caminho e, depois, o custo até o objetivo.
+     * 
+     * @param vertex O identificador do vértice.
+     * @param start  O identificador do vértice em que o Ladrão está.
+     * @return A chave do vértice.
+     */
+    private long calculateKey(int vertex, int start) {
+        int score = Math.min(this.gScore[vertex], this.rhsScore[vertex]);
+        long primary = (long) score + this.graph.hScore(start, vertex) + this.keyModifier;
+        return (primary << 32) | score;
+    }
+
+    /**
+     * Pega o custo ("g") de um vértice, considerando infinito
+     * os vértices que ainda não foram visitados.
+     * 
+     * @param vertex O identificador do vértice.
+     * @return O custo do vértice.
+     */
+    private int getGScore(int vertex) {
+        return this.scoreStamp[vertex] == this.generation ? this.gScore[vertex] : INFINITY;
+    }
+
+    /**
+     * Inicializa os custos de um vértice, caso ainda não
+     * tenha sido visitado na busca atual.
+     * 
+     * @param vertex O identificador do vértice.
+     */
+    private void initScore(int vertex) {
+        if (this.scoreStamp[vertex] != this.generation) {
+            this.scoreStamp[vertex] = this.generation;
+            this.gScore[vertex] = INFINITY;
+            this.rhsScore[vertex] = INFINITY;
+            this.heapIndex[vertex] = -1;
+        }
+    }
+
+    /**
+     * Pega a menor chave da "heap".
+     * 
+     * @return A menor chave, ou uma chave infinita caso a "heap" esteja vazia.
+     */
+    private long getTopKey() {
+        return this.heapSize == 0 ? EMPTY_KEY : this.heapKey[this.heap[0]];
+    }
+
+    /**
+     * Adiciona um vértice à "heap".
+     * 
+     * @param vertex O identificador do vértice.
+     * @param key    A chave do vértice.
+     */
+    private void insert(int vertex, long key) {
+        this.heapKey[vertex] = key;
+        this.heapIndex[vertex] = this.heapSize;
+        this.heap[this.heapSize++] = vertex;
+        this.siftUp(this.heapIndex[vertex]);
+    }
+
+    /**
+     * Altera a chave de um vértice que já está na "heap".
+     * 
+     * @param vertex O identificador do vértice.
+     * @param key    A nova chave do vértice.
+     */
+    private void update(int vertex, long key) {
+        long oldKey = this.heapKey[vertex];
+        this.heapKey[vertex] = key;
+        if (key < oldKey) {
+            this.siftUp(this.heapIndex[vertex]);
+        } else {
+            this.siftDown(this.heapIndex[vertex]);
+        }
+    }
+
+    /**
+     * Remove um vértice da "heap".
+     * 
+     * @param vertex O identificador do vértice.
+     */
+    private void remove(int vertex) {
+        int index = this.heapIndex[vertex];
+        int last = this.heap[--this.heapSize];
+        this.heapIndex[vertex] = -1;
+        if (index < this.heapSize) {
+            this.heap[index] = last;
+            this.heapIndex[last] = index;
+            this.siftUp(index);
+            this.siftDown(this.heapIndex[last]);
+        }
+    }
+
+    /**
+     * Sobe um elemento da "heap" até a sua posição.
+     * 
+     * @param index A posição do elemento na "heap".
+     */
+    private void siftUp(int index) {
+        int vertex = this.heap[index];
+        long key = this.heapKey[vertex];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = this.heap[parentIndex];
+            if (this.heapKey[parent] <= key) {
+                break;
+            }
+            this.heap[index] = parent;
+            this.heapIndex[parent] = index;
+            index = parentIndex;
+        }
+        this.heap[index] = vertex;
+        this.heapIndex[vertex] = index;
+    }
+
+    /**
+     * Desce um elemento da "heap" até a sua posição.
+     * 
+     * @param index A posição do elemento na "heap".
+     */
+    private void siftDown(int index) {
+        int vertex = this.heap[index];
+        long key = this.heapKey[vertex];
+        int half = this.heapSize >>> 1;
+        while (index < half) {
+            int childIndex = 2 * index + 1;
+            int child = this.heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < this.heapSize && this.heapKey[this.heap[rightIndex]] < this.heapKey[child]) {
+                childIndex = rightIndex;
+                child = this.heap[childIndex];
+            }
+            if (key <= this.heapKey[child]) {
+                break;
+            }
+            this.heap[index] = child;
+            this.heapIndex[child] = index;
+            index = childIndex;
+        }
+        this.heap[index] = vertex;
+        this.heapIndex[vertex] = index;
+    }
+}
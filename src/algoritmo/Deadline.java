@@ -0,0 +1,67 @@
+package algoritmo;
+
+/**
+ * O prazo de uma rodada do Ladrão, consultado pelas buscas para que
+ * "acao()" termine dentro do orçamento configurado.
+ * 
+ * O relógio só é consultado a cada "CHECK_INTERVAL" chamadas de
+ * "isExpired()", então a verificação dentro dos laços das buscas custa
+ * praticamente o mesmo que um contador.
+ */
+class Deadline {
+    // A quantia de expansões entre duas consultas ao relógio.
+    static final int CHECK_INTERVAL = 64;
+
+    // Um prazo que nunca expira, para as buscas sem orçamento.
+    static final Deadline NONE = new Deadline();
+
+    // Se há um prazo na rodada atual.
+    private boolean isBounded;
+
+    // O instante, em "System.nanoTime()", em que o prazo expira.
+    private long deadlineNanos;
+
+    // As chamadas restantes até a próxima consulta ao relógio.
+    private int countdown;
+
+    // Se o prazo já expirou na rodada atual.
+    private boolean isExpired;
+
+    /**
+     * Inicia o prazo de uma nova rodada.
+     * 
+     * @param budgetNanos O orçamento da rodada, em nanossegundos, ou um
+     *                    valor menor ou igual a 0 para uma rodada sem prazo.
+     */
+    void start(long budgetNanos) {
+        this.isBounded = budgetNanos > 0;
+        this.deadlineNanos = System.nanoTime() + budgetNanos;
+        this.countdown = CHECK_INTERVAL;
+        this.isExpired = false;
+    }
+
+    /**
+     * Verifica se o prazo da rodada expirou, consultando o relógio
+     * somente a cada "CHECK_INTERVAL" chamadas.
+     * 
+     * @return Um valor lógico referente ao fim do prazo.
+     */
+    boolean isExpired() {
+        if (!this.isBounded || this.isExpired) {
+            return this.isExpired;
+        }
+        if (--this.countdown > 0) {
+            return false;
+        }
+        this.countdown = CHECK_INTERVAL;
+        this.isExpired = System.nanoTime() - this.deadlineNanos >= 0;
+        return this.isExpired;
+    }
+
+    /**
+     * @return Se o prazo já foi visto expirado, sem consultar o relógio.
+     */
+    boolean hasExpired() {
+        return this.isExpired;
+    }
+}
@@ -0,0 +1,221 @@
+package algoritmo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * As distâncias (em passos) do Ladrão até cada terreno do grafo da
+ * memória, calculadas por uma única busca em largura.
+ * 
+ * Assim como o A* e o D* Lite, a busca considera os terrenos desconhecidos
+ * visitáveis, então os caminhos podem atravessá-los. Além da distância, a
+ * busca guarda o antecessor de cada terreno e a direção do primeiro passo
+ * até ele, de modo que todas as decisões da rodada (perseguir, explorar)
+ * leem o mesmo resultado. O resultado vale para a rodada atual e é
+ * refeito, também sob demanda, na rodada seguinte.
+ */
+class DistanceField {
+    // O grafo da memória do Ladrão.
+    private final Graph graph;
+
+    // O prazo da rodada, que interrompe a expansão da busca.
+    private final Deadline deadline;
+
+    // A distância de cada terreno, válida somente na geração atual.
+    private final int[] distance;
+    private final int[] stamp;
+    private int generation;
+
+    // A primeira direção testada em cada terreno, sorteada a cada busca
+    // para que os empates entre caminhos não favoreçam sempre a mesma.
+    private int firstTestedDirection;
+
+    // O antecessor de cada terreno no caminho a partir da origem, e a
+    // direção do primeiro passo da origem até ele (0 para a origem).
+    private final int[] parent;
+    private final byte[] firstDirection;
+
+    // Os terrenos alcançados, na ordem da busca (a própria fila), e o
+    // início da fila, isto é, o próximo terreno a ser expandido.
+    private final int[] reached;
+    private int reachedSize;
+    private int head;
+
+    // A origem da última busca, ou -1 caso ela não seja mais válida.
+    private int origin = -1;
+
+    /**
+     * Construtor base, aloca a memória da busca para o grafo fornecido.
+     * 
+     * @param graph    O grafo da memória do Ladrão.
+     * @param deadline O prazo das rodadas do Ladrão.
+     */
+    DistanceField(Graph graph, Deadline deadline) {
+        this.graph = graph;
+        this.deadline = deadline;
+
+        int size = graph.width * graph.height;
+        this.distance = new int[size];
+        this.stamp = new int[size];
+        this.parent = new int[size];
+        this.firstDirection = new byte[size];
+        this.reached = new int[size];
+    }
+
+    /**
+     * Invalida a última busca, por exemplo no início de uma nova rodada.
+     */
+    public void invalidate() {
+        this.origin = -1;
+    }
+
+    /**
+     * Inicia a busca a partir de uma origem, caso a última busca não
+     * tenha partido dela.
+     * 
+     * A busca é expandida sob demanda: cada consulta avança somente até
+     * alcançar o terreno consultado, então perseguir um alvo próximo não
+     * paga pela busca no Labirinto inteiro.
+     * 
+     * @param origin O identificador do terreno do Ladrão.
+     * @param random O gerador usado para desempatar os caminhos.
+     */
+    public void compute(int origin, Random random) {
+        if (this.origin == origin) {
+            return;
+        }
+        this.origin = origin;
+
+        // Reinicia as marcações caso a geração chegue ao limite.
+        if (++this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamp, 0);
+            this.generation = 1;
+        }
+
+        this.firstTestedDirection = random.nextInt(4);
+        this.reachedSize = 0;
+        this.head = 0;
+        this.visit(origin, 0, -1, 0);
+    }
+
+    /**
+     * Expande a busca até alcançar um terreno, esgotar a fila ou
+     * expirar o prazo da rodada.
+     * 
+     * @param target O identificador do terreno, ou -1 para expandir
+     *               a busca inteira.
+     */
+    private void expandUntil(int target) {
+        while (this.head < this.reachedSize && (target == -1 || this.stamp[target] != this.generation)
+                && !this.deadline.isExpired()) {
+            int vertex = this.reached[this.head++];
+            int nextDistance = this.distance[vertex] + 1;
+            int vertexFirstDirection = this.firstDirection[vertex];
+            int neighbors = this.graph.getVertexNeighbor(vertex);
+            for (int i = 0; i < 4; i++) {
+                int direction = 1 + (this.firstTestedDirection + i) % 4;
+                if ((neighbors & (1 << (direction - 1))) != 0) {
+                    int neighbor = this.graph.getNeighbor(vertex, direction);
+                    if (this.stamp[neighbor] != this.generation) {
+                        // Os vizinhos da origem herdam a própria direção.
+                        this.visit(neighbor, nextDistance, vertex,
+                                vertex == this.origin ? direction : vertexFirstDirection);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Marca um terreno como alcançado e o coloca na fila.
+     * 
+     * @param vertex         O identificador do terreno.
+     * @param distance       A distância até o terreno.
+     * @param parent         O antecessor do terreno (-1 para a origem).
+     * @param firstDirection A direção do primeiro passo até o terreno.
+     */
+    private void visit(int vertex, int distance, int parent, int firstDirection) {
+        this.stamp[vertex] = this.generation;
+        this.distance[vertex] = distance;
+        this.parent[vertex] = parent;
+        this.firstDirection[vertex] = (byte) firstDirection;
+        this.reached[this.reachedSize++] = vertex;
+    }
+
+    /**
+     * Pega a distância até um terreno.
+     * 
+     * @param vertex O identificador do terreno.
+     * @return A distância em passos, ou -1 caso o terreno não tenha
+     *         sido alcançado.
+     */
+    public int getDistance(int vertex) {
+        this.expandUntil(vertex);
+        return this.stamp[vertex] == this.generation ? this.distance[vertex] : -1;
+    }
+
+    /**
+     * Pega o antecessor de um terreno no caminho a partir da origem.
+     * 
+     * @param vertex O identificador do terreno.
+     * @return O identificador do antecessor, ou -1 caso o terreno seja
+     *         a origem ou não tenha sido alcançado.
+     */
+    public int getParent(int vertex) {
+        this.expandUntil(vertex);
+        return this.stamp[vertex] == this.generation ? this.parent[vertex] : -1;
+    }
+
+    /**
+     * Pega a direção do primeiro passo do menor caminho até um terreno.
+     * 
+     * @param vertex O identificador do terreno.
+     * @return A direção (1, 2, 3 ou 4), ou 0 caso o terreno seja a
+     *         origem ou não tenha sido alcançado.
+     */
+    public int getFirstDirection(int vertex) {
+        this.expandUntil(vertex);
+        return this.stamp[vertex] == this.generation ? this.firstDirection[vertex] : 0;
+    }
+
+    /**
+     * Pega o terreno alcançado mais próximo de um destino, em linha reta,
+     * para seguir um caminho parcial quando o prazo expira antes de a
+     * busca alcançar o destino.
+     * 
+     * @param target O identificador do destino.
+     * @return O identificador do terreno alcançado mais próximo.
+     */
+    public int getClosestReached(int target) {
+        int closest = this.origin;
+        int closestHScore = this.graph.hScore(this.origin, target);
+        for (int i = 1; i < this.reachedSize; i++) {
+            int hScore = this.graph.hScore(this.reached[i], target);
+            if (hScore < closestHScore) {
+                closest = this.reached[i];
+                closestHScore = hScore;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * @return A quantia de terrenos alcançados, incluindo a origem (somente
+     *         os alcançados dentro do prazo, caso ele tenha expirado).
+     */
+    public int getReachedSize() {
+        this.expandUntil(-1);
+        return this.reachedSize;
+    }
+
+    /**
+     * Pega um terreno alcançado, na ordem da busca, após a busca ter
+     * sido expandida por "getReachedSize()".
+     * 
+     * @param index A posição do terreno, entre 0 e "getReachedSize() - 1".
+     * @return O identificador do terreno.
+     */
+    public int getReached(int index) {
+        return this.reached[index];
+    }
+}
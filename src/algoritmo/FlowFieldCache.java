@@ -0,0 +1,171 @@
+package algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Um cache de campos de direção ("flow fields") por objetivo.
+ * 
+ * Cada campo é uma busca em largura reversa, a partir do objetivo, que
+ * guarda em um "byte" por terreno a direção do próximo passo até ele.
+ * Enquanto o grafo não mudar, o próximo passo até um objetivo repetido
+ * (o banco, um objetivo de exploração escolhido de novo) é uma consulta
+ * direta, sem uma nova busca.
+ * 
+ * Os campos são invalidados pela versão do mapa, que o Ladrão incrementa
+ * a cada mudança nas arestas do grafo, e o menos usado recentemente é
+ * descartado quando o orçamento de memória acaba. O cálculo de um campo
+ * respeita o prazo da rodada: um campo interrompido fica inválido, e a
+ * consulta responde como se não houvesse caminho.
+ */
+class FlowFieldCache {
+    // A direção oposta a cada direção (1: cima, 2: baixo, 3: direita, 4: esquerda).
+    private static final int[] OPPOSITE_DIRECTION = { 0, 2, 1, 4, 3 };
+
+    // O grafo da memória do Ladrão.
+    private final Graph graph;
+
+    // O prazo das rodadas do Ladrão.
+    private final Deadline deadline;
+
+    // O objetivo de cada campo (-1 para uma posição vazia), a versão do
+    // mapa em que o campo foi calculado e a última consulta a ele.
+    private final int[] goals;
+    private final int[] versions;
+    private final long[] lastUses;
+    private long uses;
+
+    // A direção do próximo passo, em cada terreno, até o objetivo do campo
+    // (0 para o próprio objetivo e os terrenos sem caminho).
+    private final byte[][] directions;
+
+    // A fila da busca em largura reversa.
+    private final int[] queue;
+
+    // Os contadores de acertos e falhas.
+    private long hits;
+    private long misses;
+
+    /**
+     * Construtor base, divide o orçamento de memória em campos.
+     * 
+     * @param graph       O grafo da memória do Ladrão.
+     * @param budgetBytes O orçamento de memória dos campos, em bytes
+     *                    (um "byte" por terreno em cada campo).
+     * @param deadline    O prazo das rodadas do Ladrão.
+     */
+    FlowFieldCache(Graph graph, int budgetBytes, Deadline deadline) {
+        this.graph = graph;
+        this.deadline = deadline;
+
+        int size = graph.width * graph.height;
+        int capacity = Math.max(1, budgetBytes / size);
+        this.goals = new int[capacity];
+        Arrays.fill(this.goals, -1);
+        this.versions = new int[capacity];
+        this.lastUses = new long[capacity];
+        this.directions = new byte[capacity][size];
+        this.queue = new int[size];
+    }
+
+    /**
+     * Pega a direção do próximo passo até um objetivo, calculando o campo
+     * do objetivo caso ele não esteja no cache ou esteja desatualizado.
+     * 
+     * @param origin     O identificador do terreno do Ladrão.
+     * @param goal       O identificador do objetivo.
+     * @param mapVersion A versão atual do mapa.
+     * @return A direção (1, 2, 3 ou 4), ou 0 caso o Ladrão já esteja no
+     *         objetivo, não exista caminho ou o prazo da rodada tenha
+     *         expirado durante o cálculo do campo.
+     */
+    public int getDirection(int origin, int goal, int mapVersion) {
+        if (!this.graph.hasVertex(goal)) {
+            return 0;
+        }
+
+        // Procura o campo do objetivo, ou a posição a ser reaproveitada:
+        // uma vazia ou, na falta dela, a usada há mais tempo.
+        int slot = -1;
+        int victim = 0;
+        for (int i = 0; i < this.goals.length; i++) {
+            if (this.goals[i] == goal) {
+                slot = i;
+                break;
+            }
+            if (this.goals[victim] != -1 && (this.goals[i] == -1 || this.lastUses[i] < this.lastUses[victim])) {
+                victim = i;
+            }
+        }
+
+        if (slot != -1 && this.versions[slot] == mapVersion) {
+            this.hits++;
+        } else {
+            this.misses++;
+            if (slot == -1) {
+                slot = victim;
+            }
+            if (!this.build(slot, goal)) {
+                // O campo interrompido não serve para nenhum objetivo.
+                this.goals[slot] = -1;
+                return 0;
+            }
+            this.goals[slot] = goal;
+            this.versions[slot] = mapVersion;
+        }
+        this.lastUses[slot] = ++this.uses;
+        return this.directions[slot][origin];
+    }
+
+    /**
+     * Calcula o campo de um objetivo, por uma busca em largura a partir
+     * dele. As arestas entre dois terrenos visitáveis existem nos dois
+     * sentidos, então a busca reversa usa o próprio grafo.
+     * 
+     * @param slot A posição do campo.
+     * @param goal O identificador do objetivo.
+     * @return Um valor lógico referente ao fim da busca antes do prazo.
+     */
+    private boolean build(int slot, int goal) {
+        byte[] field = this.directions[slot];
+        Arrays.fill(field, (byte) 0);
+
+        // O próprio objetivo é marcado com uma direção inválida, somente
+        // para não ser visitado de novo, e limpo ao final.
+        field[goal] = -1;
+        int queueSize = 0;
+        this.queue[queueSize++] = goal;
+        for (int head = 0; head < queueSize; head++) {
+            if (this.deadline.isExpired()) {
+                return false;
+            }
+            int vertex = this.queue[head];
+            int neighbors = this.graph.getVertexNeighbor(vertex);
+            for (int direction = 1; direction <= 4; direction++) {
+                if ((neighbors & (1 << (direction - 1))) != 0) {
+                    int neighbor = this.graph.getNeighbor(vertex, direction);
+                    if (field[neighbor] == 0) {
+                        // O vizinho volta para o vértice pela direção oposta.
+                        field[neighbor] = (byte) OPPOSITE_DIRECTION[direction];
+                        this.queue[queueSize++] = neighbor;
+                    }
+                }
+            }
+        }
+        field[goal] = 0;
+        return true;
+    }
+
+    /**
+     * @return A quantia de consultas respondidas por um campo válido.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return A quantia de consultas que precisaram calcular um campo.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+}
@@ -0,0 +1,78 @@
+package algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * A fronteira de exploração do Ladrão: os terrenos conhecidos e
+ * visitáveis que possuem algum vizinho desconhecido.
+ * 
+ * É mantida incrementalmente, a partir dos terrenos que mudaram na
+ * memória, e permite inserir, remover e consultar um terreno em tempo
+ * constante.
+ */
+class Frontier {
+    // Os terrenos da fronteira, sem ordem definida.
+    private final int[] lands;
+    private int size;
+
+    // A posição de cada terreno dentro de "lands" (-1 fora da fronteira).
+    private final int[] position;
+
+    /**
+     * Construtor base, aloca a memória da fronteira para um
+     * Labirinto com uma quantia fixa de terrenos.
+     * 
+     * @param size A quantia de terrenos do Labirinto.
+     */
+    Frontier(int size) {
+        this.lands = new int[size];
+        this.position = new int[size];
+        Arrays.fill(this.position, -1);
+    }
+
+    /**
+     * Adiciona ou remove um terreno da fronteira.
+     * 
+     * @param land       O identificador do terreno.
+     * @param isFrontier Se o terreno deve pertencer à fronteira.
+     */
+    public void set(int land, boolean isFrontier) {
+        if (isFrontier && this.position[land] == -1) {
+            this.position[land] = this.size;
+            this.lands[this.size++] = land;
+        } else if (!isFrontier && this.position[land] != -1) {
+            // Move o último terreno para a posição do removido.
+            int last = this.lands[--this.size];
+            this.lands[this.position[land]] = last;
+            this.position[last] = this.position[land];
+            this.position[land] = -1;
+        }
+    }
+
+    /**
+     * Verifica se um terreno pertence à fronteira.
+     * 
+     * @param land O identificador do terreno.
+     * @return Um valor lógico referente à presença do terreno.
+     */
+    public boolean contains(int land) {
+        return this.position[land] != -1;
+    }
+
+    /**
+     * @return A quantia de terrenos da fronteira.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Pega um terreno da fronteira.
+     * 
+     * @param index A posição do terreno, entre 0 e "size() - 1".
+     * @return O identificador do terreno.
+     */
+    public int get(int index) {
+        return this.lands[index];
+    }
+}
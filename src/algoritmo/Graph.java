@@ -0,0 +1,362 @@
+package algoritmo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Representação básica de um grafo.
+ * 
+ * Cada terreno do labirinto é um vértice em potencial, identificado pelo
+ * inteiro "y * largura + x". As arestas de um vértice são guardadas como
+ * uma máscara de 4 bits (um bit por direção) em um único byte.
+ */
+class Graph {
+    // Indica, na máscara de um terreno, que ele é um vértice do grafo.
+    protected static final int VERTEX_FLAG = 1 << 4;
+
+    // Os deslocamentos ('x' e 'y') de cada direção.
+    // Ordem: 0 (parado), 1 (cima), 2 (baixo), 3 (direita), 4 (esquerda).
+    protected static final int[] DIRECTION_X = { 0, 0, 0, 1, -1 };
+    protected static final int[] DIRECTION_Y = { 0, -1, 1, 0, 0 };
+
+    // As dimensões do labirinto representado pelo grafo.
+    protected final int width;
+    protected final int height;
+
+    // Armazena os vértices do grafo: os 4 primeiros bits indicam as arestas
+    // (direções 1, 2, 3 e 4) e o quinto bit indica se o terreno é um vértice.
+    protected final byte[] vertexes;
+
+    /**
+     * Construtor base, aloca a memória do grafo
+     * para um labirinto de dimensões fixas.
+     * 
+     * @param width  A largura do labirinto.
+     * @param height A altura do labirinto.
+     */
+    Graph(int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        this.vertexes = new byte[width * height];
+    }
+
+    /**
+     * Remove todos os vértices e arestas do grafo.
+     */
+    public void clear() {
+        Arrays.fill(this.vertexes, (byte) 0);
+    }
+
+    /**
+     * Remove os vértices e as arestas de um retângulo do grafo, limitado
+     * às bordas do labirinto.
+     * 
+     * @param minX A menor coordenada "x" do retângulo.
+     * @param minY A menor coordenada "y" do retângulo.
+     * @param maxX A maior coordenada "x" do retângulo.
+     * @param maxY A maior coordenada "y" do retângulo.
+     */
+    public void clearArea(int minX, int minY, int maxX, int maxY) {
+        minX = Math.max(0, minX);
+        maxX = Math.min(this.width - 1, maxX);
+        for (int y = Math.max(0, minY); y <= Math.min(this.height - 1, maxY); y++) {
+            if (minX <= maxX) {
+                Arrays.fill(this.vertexes, y * this.width + minX, y * this.width + maxX + 1, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Adiciona um vértice ao grafo,
+     * se não existir.
+     * 
+     * @param vertex O identificador do vértice.
+     */
+    public void addVertexToGraph(int vertex) {
+        this.vertexes[vertex] |= VERTEX_FLAG;
+    }
+
+    /**
+     * Substitui um vértice do grafo e todas as suas arestas.
+     * 
+     * @param vertex O identificador do vértice.
+     * @param edges  A máscara de 4 bits das arestas do vértice.
+     */
+    public void setVertexOnGraph(int vertex, int edges) {
+        this.vertexes[vertex] = (byte) (VERTEX_FLAG | edges);
+    }
+
+    /**
+     * Remove um vértice do grafo e todas as suas arestas.
+     * 
+     * @param vertex O identificador do vértice.
+     */
+    public void removeVertexFromGraph(int vertex) {
+        this.vertexes[vertex] = 0;
+    }
+
+    /**
+     * Adiciona uma aresta entre um vértice e o seu vizinho
+     * em uma determinada direção.
+     * 
+     * @param origin    O identificador do vértice origem.
+     * @param direction A direção (1, 2, 3 ou 4) do vértice destino.
+     */
+    public void addEdgeToGraph(int origin, int direction) {
+        this.vertexes[origin] |= 1 << (direction - 1);
+    }
+
+    /**
+     * Verifica se um terreno qualquer é um vértice do grafo.
+     * 
+     * @param vertex O identificador do terreno.
+     * @return Um valor lógico referente à existência do vértice.
+     */
+    public boolean hasVertex(int vertex) {
+        return (this.vertexes[vertex] & VERTEX_FLAG) != 0;
+    }
+
+    /**
+     * Pega a máscara das direções que levam aos vértices
+     * vizinhos de um vértice fornecido qualquer.
+     * 
+     * @param vertex O identificador de um vértice qualquer do grafo.
+     * @return A máscara de 4 bits das arestas do vértice.
+     */
+    public int getVertexNeighbor(int vertex) {
+        return this.vertexes[vertex] & 0xF;
+    }
+
+    /**
+     * Pega o vértice vizinho, em uma determinada direção.
+     * 
+     * @param vertex    O identificador do vértice.
+     * @param direction A direção (1, 2, 3 ou 4) do vizinho.
+     * @return O identificador do vértice vizinho.
+     */
+    public int getNeighbor(int vertex, int direction) {
+        return vertex + DIRECTION_Y[direction] * this.width + DIRECTION_X[direction];
+    }
+
+    /**
+     * Pega a direção que leva de um vértice a um vértice adjacente.
+     * 
+     * @param origin  O identificador do vértice origem.
+     * @param destiny O identificador do vértice destino.
+     * @return A direção (1, 2, 3 ou 4) entre os vértices, ou 0 caso não sejam
+     *         adjacentes.
+     */
+    public int getDirection(int origin, int destiny) {
+        int delta = destiny - origin;
+        if (delta == -this.width) {
+            return 1;
+        } else if (delta == this.width) {
+            return 2;
+        } else if (delta == 1) {
+            return 3;
+        } else if (delta == -1) {
+            return 4;
+        }
+        return 0;
+    }
+
+    /**
+     * Transforma as coordenadas de um terreno qualquer
+     * no seu identificador para o grafo.
+     * 
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return O identificador do vértice.
+     */
+    public int coordinatesToId(int x, int y) {
+        return y * this.width + x;
+    }
+
+    /**
+     * Pega a coordenada "x" de um vértice.
+     * 
+     * @param vertex O identificador do vértice.
+     * @return A coordenada "x" do vértice.
+     */
+    public int idToX(int vertex) {
+        return vertex % this.width;
+    }
+
+    /**
+     * Pega a coordenada "y" de um vértice.
+     * 
+     * @param vertex O identificador do vértice.
+     * @return A coordenada "y" do vértice.
+     */
+    public int idToY(int vertex) {
+        return vertex / this.width;
+    }
+
+    /**
+     * Calcula a distância ("Manhattan Distance") entre dois vértices.
+     * 
+     * @param origin  O identificador do vértice origem.
+     * @param destiny O identificador do vértice destino.
+     * @return A distância entre os vértices.
+     */
+    public int hScore(int origin, int destiny) {
+        return HScore.hScore(this.idToX(origin), this.idToY(origin), this.idToX(destiny), this.idToY(destiny));
+    }
+
+    /**
+     * Reconstroi o caminho percorrido pelo A*, armazenando-o
+     * em "path".
+     * 
+     * @param buffers A memória de trabalho da busca.
+     * @param destiny O identificador do vértice destino.
+     * @return O tamanho do caminho reconstruído.
+     */
+    public int reconstructPath(SearchBuffers buffers, int destiny) {
+        // Conta os vértices do caminho, iterando sobre os vértices "raízes".
+        int length = 0;
+        for (int vertex = destiny; vertex != -1; vertex = buffers.roots[vertex]) {
+            length++;
+        }
+
+        // Preenche o caminho do destino para a origem, já na ordem correta.
+        int index = length - 1;
+        for (int vertex = destiny; vertex != -1; vertex = buffers.roots[vertex]) {
+            buffers.path[index--] = vertex;
+        }
+
+        // Retorna o tamanho do caminho reconstruído.
+        buffers.pathLength = length;
+        return length;
+    }
+
+    /**
+     * Algoritmo de Busca A*, sem prazo.
+     * 
+     * @param origin     O identificador do vértice origem.
+     * @param destiny    O identificador do vértice destino.
+     * @param buffers    A memória de trabalho da busca, reaproveitada entre
+     *                   as chamadas.
+     * @param tieBreaker Responsável pelo desempate aleatório entre os vértices.
+     * @return O tamanho do menor caminho da origem para o destino, armazenado
+     *         em "buffers.path", ou 0 caso não exista caminho.
+     */
+    public int AStar(int origin, int destiny, SearchBuffers buffers, Random tieBreaker) {
+        return this.AStar(origin, destiny, buffers, tieBreaker, Deadline.NONE);
+    }
+
+    /**
+     * Algoritmo de Busca A*.
+     * 
+     * Os vértices são ordenados pelo "f = g + h" em uma "heap" binária, e os
+     * empates são desfeitos pelo menor "h" e, por fim, de forma aleatória.
+     * 
+     * Caso o prazo expire antes do destino ser alcançado, a busca devolve o
+     * caminho até o vértice expandido mais próximo do destino (o menor "h")
+     * e marca "buffers.isPathPartial".
+     * 
+     * @param origin     O identificador do vértice origem.
+     * @param destiny    O identificador do vértice destino.
+     * @param buffers    A memória de trabalho da busca, reaproveitada entre
+     *                   as chamadas.
+     * @param tieBreaker Responsável pelo desempate aleatório entre os vértices.
+     * @param deadline   O prazo da rodada.
+     * @return O tamanho do menor caminho da origem para o destino (ou do
+     *         caminho parcial), armazenado em "buffers.path", ou 0 caso não
+     *         exista caminho.
+     */
+    public int AStar(int origin, int destiny, SearchBuffers buffers, Random tieBreaker, Deadline deadline) {
+        AStarEvent event = AStarEvent.start();
+        int pathLength = this.search(origin, destiny, buffers, tieBreaker, deadline);
+        if (event != null) {
+            event.expandedVertexes = buffers.expandedVertexes;
+            event.pathLength = pathLength;
+            event.pathNotFound = pathLength == 0;
+            event.isPathPartial = buffers.isPathPartial;
+            event.commit();
+        }
+        return pathLength;
+    }
+
+    /**
+     * O corpo do algoritmo A*, medido por "AStar".
+     * 
+     * @param origin     O identificador do vértice origem.
+     * @param destiny    O identificador do vértice destino.
+     * @param buffers    A memória de trabalho da busca.
+     * @param tieBreaker Responsável pelo desempate aleatório entre os vértices.
+     * @param deadline   O prazo da rodada.
+     * @return O tamanho do menor caminho (ou do caminho parcial), ou 0 caso
+     *         não exista caminho.
+     */
+    private int search(int origin, int destiny, SearchBuffers buffers, Random tieBreaker, Deadline deadline) {
+        // Caso o Ladrão já esteja no destino ou seja impossível de visitar.
+        buffers.pathLength = 0;
+        buffers.expandedVertexes = 0;
+        buffers.isPathPartial = false;
+        if (origin == destiny || !this.hasVertex(destiny)) {
+            return 0;
+        }
+
+        // Invalida a memória da busca anterior.
+        buffers.startSearch();
+
+        // Inclui o vértice origem já no "openSet".
+        buffers.roots[origin] = -1;
+        buffers.push(origin, 0, this.hScore(origin, destiny), tieBreaker.nextInt());
+
+        // O vértice expandido mais próximo do destino, para o caminho parcial.
+        int closest = origin;
+        int closestHScore = this.hScore(origin, destiny);
+
+        // Itera sobre os vértices descobertos.
+        while (!buffers.isOpenSetEmpty()) {
+            // Devolve o melhor caminho parcial caso o prazo tenha expirado.
+            if (deadline.isExpired()) {
+                buffers.isPathPartial = true;
+                return closest == origin ? 0 : this.reconstructPath(buffers, closest);
+            }
+
+            // O vértice com o menor "f".
+            int current = buffers.pop();
+
+            // Verifica se chegou no objetivo.
+            if (current == destiny) {
+                return this.reconstructPath(buffers, destiny);
+            }
+
+            int currentHScore = this.hScore(current, destiny);
+            if (currentHScore < closestHScore) {
+                closest = current;
+                closestHScore = currentHScore;
+            }
+
+            // Adiciona o vértice atual ao "closedSet".
+            buffers.close(current);
+
+            // O custo para chegar nos vizinhos.
+            int neighborGScore = buffers.gScore[current] + 1;
+
+            // Expande os vizinhos.
+            int neighbors = this.getVertexNeighbor(current);
+            for (int direction = 1; direction <= 4; direction++) {
+                if ((neighbors & (1 << (direction - 1))) != 0) {
+                    int neighbor = this.getNeighbor(current, direction);
+                    if (buffers.isClosed(neighbor)) {
+                        continue;
+                    }
+                    // Atualiza o vizinho caso ele seja novo ou se um caminho
+                    // melhor foi encontrado.
+                    if (!buffers.isOpen(neighbor) || neighborGScore < buffers.gScore[neighbor]) {
+                        // Altera o vértice "caminho".
+                        buffers.roots[neighbor] = current;
+                        // Adiciona o vizinho ao "openSet".
+                        buffers.push(neighbor, neighborGScore, this.hScore(neighbor, destiny), tieBreaker.nextInt());
+                    }
+                }
+            }
+        }
+        // Sem solução.
+        return 0;
+    }
+}
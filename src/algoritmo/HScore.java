@@ -0,0 +1,11 @@
+package algoritmo;
+
+/**
+ * Função responsável pelo cálculo da distância ("Manhattan Distance")
+ * entre duas coordenadas: "origem" e "destino".
+ */
+class HScore {
+    public static int hScore(int originX, int originY, int destinyX, int destinyY) {
+        return Math.abs(originX - destinyX) + Math.abs(originY - destinyY);
+    }
+}
@@ -0,0 +1,562 @@
+package algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Busca hierárquica (HPA*) no grafo da memória do Ladrão, para os
+ * Labirintos grandes, em que uma busca no grafo inteiro até um objetivo
+ * distante custa a área do Labirinto.
+ * 
+ * O grafo é dividido em blocos de "CHUNK_SIZE" x "CHUNK_SIZE" terrenos.
+ * Em cada borda entre dois blocos, cada trecho contínuo de terrenos
+ * ligados ao outro lado vira uma entrada (duas, nas pontas, caso o trecho
+ * seja longo), e as distâncias entre as entradas de um mesmo bloco são
+ * calculadas por buscas em largura restritas ao bloco. A busca percorre
+ * primeiro esse grafo abstrato, pequeno, e refina somente o trecho da
+ * rota dentro do bloco do Ladrão, que basta para o primeiro passo.
+ * 
+ * Quando a memória muda, somente os blocos dos terrenos alterados (e os
+ * vizinhos, para os terrenos das bordas) são marcados, e cada bloco
+ * marcado só é recalculado quando uma busca passa por ele. Assim, o custo
+ * de uma busca cresce com o tamanho da rota em blocos, e não com a área
+ * do Labirinto. Assim como no HPA* original, a rota pode ser um pouco
+ * maior que o menor caminho, pois passa sempre pelas entradas.
+ */
+class HierarchicalAStar {
+    // O lado de cada bloco, em terrenos.
+    static final int CHUNK_SIZE = 16;
+
+    // O tamanho a partir do qual um trecho de borda ganha duas entradas.
+    private static final int LONG_ENTRANCE = 6;
+
+    // A quantia máxima de entradas de um bloco (no máximo uma a cada dois
+    // terrenos de cada borda, ou duas a cada trecho longo).
+    private static final int MAX_CHUNK_NODES = 4 * (CHUNK_SIZE / 2 + 1);
+
+    // O grafo da memória do Ladrão.
+    private final Graph graph;
+
+    // A quantia de blocos em cada dimensão.
+    private final int chunksX;
+    private final int chunksY;
+
+    // As entradas de cada bloco e as distâncias entre elas dentro do
+    // bloco ("i * quantia + j", -1 caso não haja caminho), as linhas das
+    // distâncias já calculadas (um bit por entrada) e os blocos que
+    // precisam ser recalculados.
+    private final int[][] chunkNodes;
+    private final int[] chunkNodeCount;
+    private final int[][] chunkDistances;
+    private final long[] chunkRowsBuilt;
+    private final boolean[] isChunkDirty;
+
+    // A posição de cada terreno entre as entradas do seu bloco, ou -1.
+    private final int[] nodeIndex;
+
+    // A busca em largura dentro de um bloco, por posição no bloco.
+    private final int[] localDistance = new int[CHUNK_SIZE * CHUNK_SIZE];
+    private final int[] localParent = new int[CHUNK_SIZE * CHUNK_SIZE];
+    private final int[] localStamp = new int[CHUNK_SIZE * CHUNK_SIZE];
+    private final int[] localQueue = new int[CHUNK_SIZE * CHUNK_SIZE];
+    private int localGeneration;
+    private int localMinX;
+    private int localMinY;
+
+    // A distância de cada entrada do bloco do destino até o destino.
+    private final int[] goalNodeDistance = new int[MAX_CHUNK_NODES];
+
+    // O A* no grafo abstrato, com um vértice extra para o destino.
+    private final int goalNode;
+    private final int[] gScore;
+    private final int[] parent;
+    private final int[] stamp;
+    private final int[] closedStamp;
+    private int generation;
+
+    // A "heap" do A*, com as chaves ("f" e "h") e os vértices.
+    private long[] heapKeys = new long[64];
+    private int[] heapNodes = new int[64];
+    private int heapSize;
+
+    /**
+     * Construtor base, aloca a memória da busca para o grafo fornecido.
+     * 
+     * @param graph O grafo da memória do Ladrão.
+     */
+    HierarchicalAStar(Graph graph) {
+        this.graph = graph;
+        this.chunksX = (graph.width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (graph.height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        int chunks = this.chunksX * this.chunksY;
+        this.chunkNodes = new int[chunks][];
+        this.chunkNodeCount = new int[chunks];
+        this.chunkDistances = new int[chunks][];
+        this.chunkRowsBuilt = new long[chunks];
+        this.isChunkDirty = new boolean[chunks];
+        Arrays.fill(this.isChunkDirty, true);
+
+        int size = graph.width * graph.height;
+        this.nodeIndex = new int[size];
+        Arrays.fill(this.nodeIndex, -1);
+        this.goalNode = size;
+        this.gScore = new int[size + 1];
+        this.parent = new int[size + 1];
+        this.stamp = new int[size + 1];
+        this.closedStamp = new int[size + 1];
+    }
+
+    /**
+     * Marca os blocos afetados pela mudança de um terreno no grafo.
+     * 
+     * @param land O identificador do terreno.
+     */
+    public void updateLand(int land) {
+        int x = this.graph.idToX(land);
+        int y = this.graph.idToY(land);
+        int chunk = this.getChunk(x, y);
+        this.isChunkDirty[chunk] = true;
+        // Os terrenos das bordas também definem as entradas do vizinho.
+        if (x % CHUNK_SIZE == 0 && x > 0) {
+            this.isChunkDirty[chunk - 1] = true;
+        }
+        if (x % CHUNK_SIZE == CHUNK_SIZE - 1 && x < this.graph.width - 1) {
+            this.isChunkDirty[chunk + 1] = true;
+        }
+        if (y % CHUNK_SIZE == 0 && y > 0) {
+            this.isChunkDirty[chunk - this.chunksX] = true;
+        }
+        if (y % CHUNK_SIZE == CHUNK_SIZE - 1 && y < this.graph.height - 1) {
+            this.isChunkDirty[chunk + this.chunksX] = true;
+        }
+    }
+
+    /**
+     * Pega a direção do primeiro passo da rota hierárquica até um destino.
+     * 
+     * @param origin   O identificador do vértice origem.
+     * @param destiny  O identificador do vértice destino.
+     * @param deadline O prazo da rodada.
+     * @return A direção (1, 2, 3 ou 4), ou 0 caso a origem seja o destino,
+     *         não exista caminho ou o prazo tenha expirado.
+     */
+    public int getFirstDirection(int origin, int destiny, Deadline deadline) {
+        if (origin == destiny) {
+            return 0;
+        }
+        int startChunk = this.getChunk(origin);
+        int goalChunk = this.getChunk(destiny);
+        this.ensureChunk(startChunk);
+        this.ensureChunk(goalChunk);
+
+        // No mesmo bloco, o caminho dentro dele dispensa o grafo abstrato.
+        if (startChunk == goalChunk) {
+            this.searchChunk(origin, startChunk);
+            if (this.getLocalDistance(destiny) != -1) {
+                return this.getLocalFirstDirection(origin, destiny);
+            }
+        }
+
+        // As distâncias das entradas do bloco do destino até ele.
+        this.searchChunk(destiny, goalChunk);
+        int[] goalNodes = this.chunkNodes[goalChunk];
+        for (int i = 0; i < this.chunkNodeCount[goalChunk]; i++) {
+            this.goalNodeDistance[i] = this.getLocalDistance(goalNodes[i]);
+        }
+
+        // Inicia o A* pelas entradas alcançáveis do bloco da origem.
+        this.startSearch();
+        this.searchChunk(origin, startChunk);
+        int[] startNodes = this.chunkNodes[startChunk];
+        for (int i = 0; i < this.chunkNodeCount[startChunk]; i++) {
+            int distance = this.getLocalDistance(startNodes[i]);
+            if (distance != -1) {
+                this.relax(startNodes[i], distance, -1, destiny);
+            }
+        }
+        if (!this.search(goalChunk, destiny, deadline)) {
+            return 0;
+        }
+
+        // Volta pela rota até a primeira entrada diferente da origem.
+        int next = -1;
+        int node = this.parent[this.goalNode];
+        while (this.parent[node] != -1) {
+            next = node;
+            node = this.parent[node];
+        }
+        int first = node != origin ? node : next;
+        if (first == -1) {
+            return 0;
+        }
+        if (this.getChunk(first) != startChunk) {
+            // A origem é uma entrada, e a rota atravessa a borda.
+            return this.graph.getDirection(origin, first);
+        }
+        // Refina somente o trecho da rota dentro do bloco da origem.
+        this.searchChunk(origin, startChunk);
+        return this.getLocalDistance(first) != -1 ? this.getLocalFirstDirection(origin, first) : 0;
+    }
+
+    /**
+     * Executa o A* no grafo abstrato, a partir das entradas já na "heap".
+     * 
+     * @param goalChunk O bloco do destino.
+     * @param destiny   O identificador do vértice destino.
+     * @param deadline  O prazo da rodada.
+     * @return Um valor lógico referente ao destino ter sido alcançado.
+     */
+    private boolean search(int goalChunk, int destiny, Deadline deadline) {
+        while (this.heapSize > 0 && !deadline.isExpired()) {
+            int node = this.pop();
+            if (this.closedStamp[node] == this.generation) {
+                continue;
+            }
+            this.closedStamp[node] = this.generation;
+            if (node == this.goalNode) {
+                return true;
+            }
+
+            int score = this.gScore[node];
+            int chunk = this.getChunk(node);
+            int index = this.nodeIndex[node];
+            int count = this.chunkNodeCount[chunk];
+
+            // As outras entradas do bloco.
+            int[] nodes = this.chunkNodes[chunk];
+            int[] distances = this.getDistances(chunk, index);
+            for (int i = 0; i < count; i++) {
+                int distance = distances[index * count + i];
+                if (i != index && distance != -1) {
+                    this.relax(nodes[i], score + distance, node, destiny);
+                }
+            }
+
+            // As entradas dos blocos vizinhos, do outro lado da borda.
+            int neighbors = this.graph.getVertexNeighbor(node);
+            for (int direction = 1; direction <= 4; direction++) {
+                if ((neighbors & (1 << (direction - 1))) != 0) {
+                    int neighbor = this.graph.getNeighbor(node, direction);
+                    int neighborChunk = this.getChunk(neighbor);
+                    if (neighborChunk != chunk) {
+                        this.ensureChunk(neighborChunk);
+                        if (this.nodeIndex[neighbor] != -1) {
+                            this.relax(neighbor, score + 1, node, destiny);
+                        }
+                    }
+                }
+            }
+
+            // O próprio destino, a partir das entradas do seu bloco.
+            if (chunk == goalChunk && this.goalNodeDistance[index] != -1) {
+                this.relax(this.goalNode, score + this.goalNodeDistance[index], node, destiny);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Atualiza o custo de um vértice abstrato, caso o novo seja menor.
+     * 
+     * @param node    O vértice (ou "goalNode").
+     * @param score   O custo desde a origem.
+     * @param from    O vértice anterior (-1 para a origem).
+     * @param destiny O identificador do vértice destino.
+     */
+    private void relax(int node, int score, int from, int destiny) {
+        if (this.stamp[node] == this.generation && this.gScore[node] <= score) {
+            return;
+        }
+        this.stamp[node] = this.generation;
+        this.gScore[node] = score;
+        this.parent[node] = from;
+        int hScore = node == this.goalNode ? 0 : this.graph.hScore(node, destiny);
+        // Os empates em "f" são desfeitos pelo menor "h".
+        this.push(((long) (score + hScore) << 32) | hScore, node);
+    }
+
+    /**
+     * Inicia uma nova busca no grafo abstrato.
+     */
+    private void startSearch() {
+        // Reinicia as marcações caso a geração chegue ao limite.
+        if (++this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.stamp, 0);
+            Arrays.fill(this.closedStamp, 0);
+            this.generation = 1;
+        }
+        this.heapSize = 0;
+    }
+
+    /**
+     * Recalcula as entradas de um bloco e as distâncias entre elas, caso
+     * ele tenha sido marcado.
+     * 
+     * @param chunk O bloco.
+     */
+    private void ensureChunk(int chunk) {
+        if (!this.isChunkDirty[chunk]) {
+            return;
+        }
+        this.isChunkDirty[chunk] = false;
+
+        // Desfaz as entradas anteriores.
+        if (this.chunkNodes[chunk] == null) {
+            this.chunkNodes[chunk] = new int[MAX_CHUNK_NODES];
+        }
+        int[] nodes = this.chunkNodes[chunk];
+        for (int i = 0; i < this.chunkNodeCount[chunk]; i++) {
+            this.nodeIndex[nodes[i]] = -1;
+        }
+        this.chunkNodeCount[chunk] = 0;
+
+        // As entradas de cada uma das quatro bordas, quando há um vizinho.
+        int minX = chunk % this.chunksX * CHUNK_SIZE;
+        int minY = chunk / this.chunksX * CHUNK_SIZE;
+        int maxX = Math.min(minX + CHUNK_SIZE, this.graph.width) - 1;
+        int maxY = Math.min(minY + CHUNK_SIZE, this.graph.height) - 1;
+        if (minY > 0) {
+            this.addBorderNodes(chunk, minX, minY, 1, 0, maxX - minX + 1, 1);
+        }
+        if (maxY < this.graph.height - 1) {
+            this.addBorderNodes(chunk, minX, maxY, 1, 0, maxX - minX + 1, 2);
+        }
+        if (maxX < this.graph.width - 1) {
+            this.addBorderNodes(chunk, maxX, minY, 0, 1, maxY - minY + 1, 3);
+        }
+        if (minX > 0) {
+            this.addBorderNodes(chunk, minX, minY, 0, 1, maxY - minY + 1, 4);
+        }
+
+        // As distâncias são calculadas sob demanda (ver "getDistances").
+        int count = this.chunkNodeCount[chunk];
+        if (this.chunkDistances[chunk] == null || this.chunkDistances[chunk].length < count * count) {
+            this.chunkDistances[chunk] = new int[count * count];
+        }
+        this.chunkRowsBuilt[chunk] = 0;
+    }
+
+    /**
+     * Pega as distâncias entre as entradas de um bloco, calculando antes
+     * as distâncias de uma entrada, caso ainda não tenham sido calculadas.
+     * Assim, o bloco do Ladrão, que muda a cada rodada, só paga pelas
+     * entradas expandidas, e não pelas buscas de todas elas.
+     * 
+     * @param chunk O bloco.
+     * @param index A posição da entrada no bloco.
+     * @return As distâncias do bloco, válidas na linha da entrada.
+     */
+    private int[] getDistances(int chunk, int index) {
+        int[] distances = this.chunkDistances[chunk];
+        if ((this.chunkRowsBuilt[chunk] & (1L << index)) == 0) {
+            this.chunkRowsBuilt[chunk] |= 1L << index;
+            int[] nodes = this.chunkNodes[chunk];
+            int count = this.chunkNodeCount[chunk];
+            this.searchChunk(nodes[index], chunk);
+            for (int j = 0; j < count; j++) {
+                distances[index * count + j] = this.getLocalDistance(nodes[j]);
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Adiciona as entradas de uma borda do bloco: o meio de cada trecho
+     * contínuo de terrenos ligados ao outro lado, ou as duas pontas, caso o
+     * trecho seja longo.
+     * 
+     * @param chunk     O bloco.
+     * @param x         A coordenada "x" do primeiro terreno da borda.
+     * @param y         A coordenada "y" do primeiro terreno da borda.
+     * @param stepX     O passo em "x" ao longo da borda.
+     * @param stepY     O passo em "y" ao longo da borda.
+     * @param length    A quantia de terrenos da borda.
+     * @param direction A direção que atravessa a borda.
+     */
+    private void addBorderNodes(int chunk, int x, int y, int stepX, int stepY, int length, int direction) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean isOpen = false;
+            if (i < length) {
+                int land = this.graph.coordinatesToId(x + i * stepX, y + i * stepY);
+                isOpen = (this.graph.getVertexNeighbor(land) & (1 << (direction - 1))) != 0;
+            }
+            if (isOpen && runStart == -1) {
+                runStart = i;
+            } else if (!isOpen && runStart != -1) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 >= LONG_ENTRANCE) {
+                    this.addNode(chunk, this.graph.coordinatesToId(x + runStart * stepX, y + runStart * stepY));
+                    this.addNode(chunk, this.graph.coordinatesToId(x + runEnd * stepX, y + runEnd * stepY));
+                } else {
+                    int middle = (runStart + runEnd) / 2;
+                    this.addNode(chunk, this.graph.coordinatesToId(x + middle * stepX, y + middle * stepY));
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Adiciona uma entrada ao bloco, caso ela ainda não exista (um canto
+     * pode ser entrada de duas bordas).
+     * 
+     * @param chunk O bloco.
+     * @param land  O identificador do terreno.
+     */
+    private void addNode(int chunk, int land) {
+        if (this.nodeIndex[land] == -1) {
+            this.nodeIndex[land] = this.chunkNodeCount[chunk];
+            this.chunkNodes[chunk][this.chunkNodeCount[chunk]++] = land;
+        }
+    }
+
+    /**
+     * Busca em largura a partir de um terreno, restrita ao seu bloco.
+     * 
+     * @param origin O identificador do terreno.
+     * @param chunk  O bloco do terreno.
+     */
+    private void searchChunk(int origin, int chunk) {
+        // Reinicia as marcações caso a geração chegue ao limite.
+        if (++this.localGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(this.localStamp, 0);
+            this.localGeneration = 1;
+        }
+        this.localMinX = chunk % this.chunksX * CHUNK_SIZE;
+        this.localMinY = chunk / this.chunksX * CHUNK_SIZE;
+
+        int local = this.toLocal(origin);
+        this.localStamp[local] = this.localGeneration;
+        this.localDistance[local] = 0;
+        this.localParent[local] = -1;
+        this.localQueue[0] = origin;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int vertex = this.localQueue[head++];
+            int nextDistance = this.localDistance[this.toLocal(vertex)] + 1;
+            int neighbors = this.graph.getVertexNeighbor(vertex);
+            for (int direction = 1; direction <= 4; direction++) {
+                if ((neighbors & (1 << (direction - 1))) != 0) {
+                    int neighbor = this.graph.getNeighbor(vertex, direction);
+                    if (this.getChunk(neighbor) != chunk) {
+                        continue;
+                    }
+                    int neighborLocal = this.toLocal(neighbor);
+                    if (this.localStamp[neighborLocal] != this.localGeneration) {
+                        this.localStamp[neighborLocal] = this.localGeneration;
+                        this.localDistance[neighborLocal] = nextDistance;
+                        this.localParent[neighborLocal] = vertex;
+                        this.localQueue[tail++] = neighbor;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param land Um terreno do bloco da última busca em largura.
+     * @return A distância até o terreno, ou -1 caso ele não tenha sido
+     *         alcançado.
+     */
+    private int getLocalDistance(int land) {
+        int local = this.toLocal(land);
+        return this.localStamp[local] == this.localGeneration ? this.localDistance[local] : -1;
+    }
+
+    /**
+     * Pega a direção do primeiro passo da última busca em largura até um
+     * terreno já alcançado.
+     * 
+     * @param origin A origem da busca.
+     * @param target O terreno alcançado.
+     * @return A direção do primeiro passo.
+     */
+    private int getLocalFirstDirection(int origin, int target) {
+        int vertex = target;
+        int previous = this.localParent[this.toLocal(vertex)];
+        while (previous != origin) {
+            vertex = previous;
+            previous = this.localParent[this.toLocal(vertex)];
+        }
+        return this.graph.getDirection(origin, vertex);
+    }
+
+    /**
+     * @param land Um terreno do bloco da última busca em largura.
+     * @return A posição do terreno dentro do bloco.
+     */
+    private int toLocal(int land) {
+        return (this.graph.idToY(land) - this.localMinY) * CHUNK_SIZE + this.graph.idToX(land) - this.localMinX;
+    }
+
+    /**
+     * @param land O identificador do terreno.
+     * @return O bloco do terreno.
+     */
+    private int getChunk(int land) {
+        return this.getChunk(this.graph.idToX(land), this.graph.idToY(land));
+    }
+
+    /**
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return O bloco do terreno.
+     */
+    private int getChunk(int x, int y) {
+        return y / CHUNK_SIZE * this.chunksX + x / CHUNK_SIZE;
+    }
+
+    /**
+     * Adiciona um vértice à "heap".
+     * 
+     * @param key  A chave do vértice.
+     * @param node O vértice.
+     */
+    private void push(long key, int node) {
+        if (this.heapSize == this.heapKeys.length) {
+            this.heapKeys = Arrays.copyOf(this.heapKeys, 2 * this.heapSize);
+            this.heapNodes = Arrays.copyOf(this.heapNodes, 2 * this.heapSize);
+        }
+        int i = this.heapSize++;
+        while (i > 0) {
+            int up = (i - 1) / 2;
+            if (this.heapKeys[up] <= key) {
+                break;
+            }
+            this.heapKeys[i] = this.heapKeys[up];
+            this.heapNodes[i] = this.heapNodes[up];
+            i = up;
+        }
+        this.heapKeys[i] = key;
+        this.heapNodes[i] = node;
+    }
+
+    /**
+     * Remove o vértice de menor chave da "heap".
+     * 
+     * @return O vértice.
+     */
+    private int pop() {
+        int top = this.heapNodes[0];
+        long key = this.heapKeys[--this.heapSize];
+        int node = this.heapNodes[this.heapSize];
+        int i = 0;
+        while (2 * i + 1 < this.heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < this.heapSize && this.heapKeys[child + 1] < this.heapKeys[child]) {
+                child++;
+            }
+            if (key <= this.heapKeys[child]) {
+                break;
+            }
+            this.heapKeys[i] = this.heapKeys[child];
+            this.heapNodes[i] = this.heapNodes[child];
+            i = child;
+        }
+        this.heapKeys[i] = key;
+        this.heapNodes[i] = node;
+        return top;
+    }
+}
@@ -0,0 +1,284 @@
+package algoritmo;
+
+import java.util.Random;
+
+/**
+ * Algoritmo de Busca "Jump Point Search" para o Labirinto, em que o Ladrão
+ * anda somente nas quatro direções e todos os passos custam o mesmo.
+ * 
+ * A busca é um A* sobre os "pontos de salto": a partir de cada vértice
+ * expandido, ela anda em linha reta, lendo diretamente a marcação de
+ * vértice do grafo, até o destino, uma parede ou um terreno em que o
+ * menor caminho possa virar (um vizinho "forçado"). Os terrenos do meio
+ * de um corredor nunca entram na "heap", então os corredores longos
+ * custam somente a leitura dos seus terrenos.
+ * 
+ * Os movimentos verticais também procuram, em cada terreno, um ponto de
+ * salto horizontal, de modo que os caminhos sempre virem nos pontos de
+ * salto e o menor caminho seja mantido. Por isso, nas áreas abertas (os
+ * terrenos desconhecidos, no início da partida) cada salto vertical lê
+ * linhas inteiras, e o A* de "Graph" continua mais rápido.
+ */
+class JumpPointSearch {
+    // O grafo da memória do Ladrão.
+    private final Graph graph;
+
+    /**
+     * Construtor base.
+     * 
+     * @param graph O grafo em que os caminhos serão gerados.
+     */
+    JumpPointSearch(Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Verifica se um terreno qualquer, possivelmente fora do Labirinto,
+     * pode ser visitado.
+     * 
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return Um valor lógico referente à existência do vértice.
+     */
+    private boolean isWalkable(int x, int y) {
+        return 0 <= x && x < this.graph.width && 0 <= y && y < this.graph.height
+                && (this.graph.vertexes[y * this.graph.width + x] & Graph.VERTEX_FLAG) != 0;
+    }
+
+    /**
+     * Algoritmo de Busca "Jump Point Search".
+     * 
+     * Assim como o A* de "Graph", os empates são desfeitos pelo menor "h"
+     * e, por fim, de forma aleatória, e, caso o prazo expire antes do
+     * destino ser alcançado (inclusive no meio de um salto), a busca
+     * devolve o caminho até o ponto de salto expandido mais próximo do
+     * destino e marca "buffers.isPathPartial".
+     * 
+     * @param origin     O identificador do vértice origem.
+     * @param destiny    O identificador do vértice destino.
+     * @param buffers    A memória de trabalho da busca, reaproveitada entre
+     *                   as chamadas.
+     * @param tieBreaker Responsável pelo desempate aleatório entre os vértices.
+     * @param deadline   O prazo da rodada.
+     * @return O tamanho do menor caminho da origem para o destino (ou do
+     *         caminho parcial), armazenado passo a passo em "buffers.path",
+     *         ou 0 caso não exista caminho.
+     */
+    public int search(int origin, int destiny, SearchBuffers buffers, Random tieBreaker, Deadline deadline) {
+        AStarEvent event = AStarEvent.start();
+        int pathLength = this.jumpSearch(origin, destiny, buffers, tieBreaker, deadline);
+        if (event != null) {
+            event.expandedVertexes = buffers.expandedVertexes;
+            event.pathLength = pathLength;
+            event.pathNotFound = pathLength == 0;
+            event.isPathPartial = buffers.isPathPartial;
+            event.isJumpPointSearch = true;
+            event.commit();
+        }
+        return pathLength;
+    }
+
+    /**
+     * O corpo da busca, medido por "search".
+     * 
+     * @param origin     O identificador do vértice origem.
+     * @param destiny    O identificador do vértice destino.
+     * @param buffers    A memória de trabalho da busca.
+     * @param tieBreaker Responsável pelo desempate aleatório entre os vértices.
+     * @param deadline   O prazo da rodada.
+     * @return O tamanho do menor caminho (ou do caminho parcial), ou 0 caso
+     *         não exista caminho.
+     */
+    private int jumpSearch(int origin, int destiny, SearchBuffers buffers, Random tieBreaker, Deadline deadline) {
+        // Caso o Ladrão já esteja no destino ou seja impossível de visitar.
+        buffers.pathLength = 0;
+        buffers.expandedVertexes = 0;
+        buffers.isPathPartial = false;
+        if (origin == destiny || !this.graph.hasVertex(destiny)) {
+            return 0;
+        }
+
+        // Invalida a memória da busca anterior.
+        buffers.startSearch();
+
+        // Inclui o vértice origem já no "openSet".
+        buffers.roots[origin] = -1;
+        buffers.push(origin, 0, this.graph.hScore(origin, destiny), tieBreaker.nextInt());
+
+        // O ponto de salto expandido mais próximo do destino, para o
+        // caminho parcial.
+        int closest = origin;
+        int closestHScore = this.graph.hScore(origin, destiny);
+
+        // Itera sobre os pontos de salto descobertos.
+        while (!buffers.isOpenSetEmpty()) {
+            // Devolve o melhor caminho parcial caso o prazo tenha expirado.
+            if (deadline.isExpired()) {
+                buffers.isPathPartial = true;
+                return closest == origin ? 0 : this.reconstructPath(buffers, closest);
+            }
+
+            // O ponto de salto com o menor "f".
+            int current = buffers.pop();
+
+            // Verifica se chegou no objetivo.
+            if (current == destiny) {
+                return this.reconstructPath(buffers, destiny);
+            }
+
+            int currentHScore = this.graph.hScore(current, destiny);
+            if (currentHScore < closestHScore) {
+                closest = current;
+                closestHScore = currentHScore;
+            }
+
+            // Adiciona o ponto de salto atual ao "closedSet".
+            buffers.close(current);
+
+            // A direção em que a busca chegou ao ponto de salto (nenhuma
+            // para a origem, que salta nas quatro direções).
+            int x = this.graph.idToX(current);
+            int y = this.graph.idToY(current);
+            int root = buffers.roots[current];
+            int dx = root == -1 ? 0 : Integer.signum(x - this.graph.idToX(root));
+            int dy = root == -1 ? 0 : Integer.signum(y - this.graph.idToY(root));
+
+            // Salta em frente e para os lados; voltar nunca faz parte de
+            // um menor caminho.
+            for (int direction = 1; direction <= 4; direction++) {
+                int directionX = Graph.DIRECTION_X[direction];
+                int directionY = Graph.DIRECTION_Y[direction];
+                if (root != -1 && directionX == -dx && directionY == -dy) {
+                    continue;
+                }
+                int jumpPoint = directionX != 0
+                        ? this.jumpHorizontal(x, y, directionX, destiny, deadline)
+                        : this.jumpVertical(x, y, directionY, destiny, deadline);
+                if (jumpPoint == -1 || buffers.isClosed(jumpPoint)) {
+                    continue;
+                }
+                // Atualiza o ponto de salto caso ele seja novo ou se um
+                // caminho melhor foi encontrado.
+                int jumpPointGScore = buffers.gScore[current] + this.graph.hScore(current, jumpPoint);
+                if (!buffers.isOpen(jumpPoint) || jumpPointGScore < buffers.gScore[jumpPoint]) {
+                    buffers.roots[jumpPoint] = current;
+                    buffers.push(jumpPoint, jumpPointGScore, this.graph.hScore(jumpPoint, destiny),
+                            tieBreaker.nextInt());
+                }
+            }
+        }
+        // O prazo pode ter expirado no meio dos últimos saltos.
+        if (deadline.hasExpired()) {
+            buffers.isPathPartial = true;
+            return closest == origin ? 0 : this.reconstructPath(buffers, closest);
+        }
+        // Sem solução.
+        return 0;
+    }
+
+    /**
+     * Anda na horizontal até o próximo ponto de salto: o destino ou um
+     * terreno com um vizinho vertical que estava bloqueado no terreno
+     * anterior.
+     * 
+     * Cada terreno lido conta para o prazo como uma expansão do A* de
+     * "Graph", já que um único salto pode ler uma linha inteira.
+     * 
+     * @param x        A coordenada "x" do início do salto.
+     * @param y        A coordenada "y" do início do salto.
+     * @param dx       A direção do salto (1 ou -1).
+     * @param destiny  O identificador do vértice destino.
+     * @param deadline O prazo da rodada.
+     * @return O identificador do ponto de salto, ou -1 caso o salto
+     *         termine em uma parede ou o prazo expire.
+     */
+    private int jumpHorizontal(int x, int y, int dx, int destiny, Deadline deadline) {
+        while (true) {
+            if (deadline.isExpired()) {
+                return -1;
+            }
+            x += dx;
+            if (!this.isWalkable(x, y)) {
+                return -1;
+            }
+            int vertex = this.graph.coordinatesToId(x, y);
+            if (vertex == destiny) {
+                return vertex;
+            }
+            if ((this.isWalkable(x, y - 1) && !this.isWalkable(x - dx, y - 1))
+                    || (this.isWalkable(x, y + 1) && !this.isWalkable(x - dx, y + 1))) {
+                return vertex;
+            }
+        }
+    }
+
+    /**
+     * Anda na vertical até o próximo ponto de salto: o destino, um terreno
+     * com um vizinho horizontal que estava bloqueado no terreno anterior,
+     * ou um terreno a partir do qual um salto horizontal encontra um
+     * ponto de salto.
+     * 
+     * @param x        A coordenada "x" do início do salto.
+     * @param y        A coordenada "y" do início do salto.
+     * @param dy       A direção do salto (1 ou -1).
+     * @param destiny  O identificador do vértice destino.
+     * @param deadline O prazo da rodada.
+     * @return O identificador do ponto de salto, ou -1 caso o salto
+     *         termine em uma parede ou o prazo expire.
+     */
+    private int jumpVertical(int x, int y, int dy, int destiny, Deadline deadline) {
+        while (true) {
+            if (deadline.isExpired()) {
+                return -1;
+            }
+            y += dy;
+            if (!this.isWalkable(x, y)) {
+                return -1;
+            }
+            int vertex = this.graph.coordinatesToId(x, y);
+            if (vertex == destiny) {
+                return vertex;
+            }
+            if ((this.isWalkable(x - 1, y) && !this.isWalkable(x - 1, y - dy))
+                    || (this.isWalkable(x + 1, y) && !this.isWalkable(x + 1, y - dy))) {
+                return vertex;
+            }
+            if (this.jumpHorizontal(x, y, 1, destiny, deadline) != -1
+                    || this.jumpHorizontal(x, y, -1, destiny, deadline) != -1) {
+                return vertex;
+            }
+        }
+    }
+
+    /**
+     * Reconstroi o caminho entre os pontos de salto, passo a passo,
+     * armazenando-o em "path".
+     * 
+     * @param buffers A memória de trabalho da busca.
+     * @param destiny O identificador do vértice destino.
+     * @return O tamanho do caminho reconstruído.
+     */
+    private int reconstructPath(SearchBuffers buffers, int destiny) {
+        // Os pontos de salto consecutivos estão na mesma linha ou coluna,
+        // então o caminho tem o custo do destino mais a origem.
+        int length = buffers.gScore[destiny] + 1;
+
+        // Preenche o caminho do destino para a origem, já na ordem correta.
+        int index = length - 1;
+        buffers.path[index--] = destiny;
+        for (int vertex = destiny; buffers.roots[vertex] != -1; vertex = buffers.roots[vertex]) {
+            int root = buffers.roots[vertex];
+            int step = this.graph.idToY(vertex) == this.graph.idToY(root)
+                    ? Integer.signum(root - vertex)
+                    : Integer.signum(root - vertex) * this.graph.width;
+            for (int land = vertex + step; land != root; land += step) {
+                buffers.path[index--] = land;
+            }
+            buffers.path[index--] = root;
+        }
+
+        // Retorna o tamanho do caminho reconstruído.
+        buffers.pathLength = length;
+        return length;
+    }
+}
@@ -1,465 +1,443 @@
 package algoritmo;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
 
 /**
- * Função responsável pelo cálculo da distância ("Manhattan Distance")
- * entre duas coordenadas: "origem" e "destino".
+ * Representação de um agente inteligente, o Ladrão.
  */
-class HScore {
-    public static int hScore(int[] originCoordinates, int[] destinyCoordinates) {
-        return Math.abs(originCoordinates[0] - destinyCoordinates[0])
-                + Math.abs(originCoordinates[1] - destinyCoordinates[1]);
-    }
-}
+public class Ladrao extends ProgramaLadrao {
+    // A memória do Ladrão, referente ao Labirinto.
+    protected int[][] knownField;
 
-/**
- * Representação básica de um nó.
- */
-class Node {
-    // O rótulo do vértice.
-    public String label;
-    // O vértice parente do vértice atual.
-    public Node root;
+    // As classes dos terrenos da memória (visitável, parede, desconhecido,
+    // banco, moeda e agente), um conjunto de bits por classe.
+    protected LandBitboard landBitboard;
 
-    // Construtor base.
-    Node(String label, Node root) {
-        this.label = label;
-        this.root = root;
-    }
-}
+    // O grafo relacionado à memória do Ladrão.
+    protected Graph graph;
 
-/**
- * Representação básica de um grafo.
- */
-class Graph {
-    // Armazena os vértices do grafo.
-    protected Map<String, Map<String, Integer>> vertexes = new HashMap<>();
+    // O grafo relacionado à visão do Ladrão.
+    protected Graph visionGraph;
 
-    /**
-     * Adiciona um vértice ao grafo,
-     * se não existir.
-     * 
-     * @param label O rótulo do vértice.
-     */
-    public void addVertexToGraph(String label) {
-        this.vertexes.putIfAbsent(label, new HashMap<>());
-    }
+    // A posição do Ladrão quando o grafo da visão foi criado (-1 caso
+    // ele esteja vazio).
+    private int visionGraphX = -1;
+    private int visionGraphY = -1;
 
-    /**
-     * Adiciona uma aresta entre dois vértices.
-     * 
-     * @param originLabel  O rótulo do vértice origem.
-     * @param destinyLabel O rótulo do vértice destino.
-     * @param direction    A direção do vértice orige
-     */
-    public void addEdgeToGraph(String originLabel, String destinyLabel, int direction) {
-        this.vertexes.get(originLabel).put(destinyLabel, direction);
-    }
+    // Os terrenos da memória que mudaram desde a última atualização
+    // do grafo, e a marcação que evita repeti-los.
+    private int[] dirtyLands;
+    private int dirtyLandsSize;
+    private boolean[] isLandDirty;
 
-    /**
-     * Pega os vértices vizinhos de um vértice fornecido
-     * qualquer.
-     * 
-     * @param label O rótulo de um vértice qualquer do grafo.
-     * @return Os vértices vizinhos de um vértice.
-     */
-    public Map<String, Integer> getVertexNeighbor(String label) {
-        return this.vertexes.get(label);
-    }
+    // A memória de trabalho das buscas, reaproveitada entre as rodadas.
+    protected SearchBuffers searchBuffers;
 
-    /**
-     * Remove o separador do rótulo, transformando-os
-     * para inteiro e retordando-os.
-     * 
-     * @param label O rótulo do vértice.
-     * @return Uma lista de inteiros com as coordenadas.
-     */
-    public int[] labelToCoordinates(String label) {
-        // Remove o separador.
-        String[] coordinates = label.split(":");
-        // Transforma para uma lista de inteiro e retorna-os.
-        return new int[] {
-                Integer.parseInt(coordinates[0]),
-                Integer.parseInt(coordinates[1])
-        };
-    }
+    // O planejador incremental do caminho até o objetivo de exploração
+    // (nulo caso o Ladrão use outro algoritmo de caminho).
+    protected DStarLite explorationPlanner;
 
-    /**
-     * Transforma as coordenadas de um vértice qualquer
-     * em seu possível rótulo para o grafo.
-     * 
-     * @param coordinates As coordenadas do vértice.
-     * @return O rótulo do vértice.
-     */
-    public String coordinatesToLabel(int[] coordinates) {
-        // Transforma as coordenadas de um vértice qualquer
-        // em um rótulo adptado para o grafo.
-        return Integer.toString(coordinates[0]) + ":" + Integer.toString(coordinates[1]);
-    }
+    // A busca por pontos de salto no grafo da memória.
+    protected JumpPointSearch jumpPointSearch;
 
-    /**
-     * Reconstroi o caminho percorrido pelo A*.
-     * 
-     * @param path         Os vértices visitados.
-     * @param destinyLabel O rótulo do vértice destino.
-     * @return Uma lista contendo o caminho encontrado pelo A*.
-     */
-    public ArrayList<String> reconstructPath(ArrayList<Node> path, String destinyLabel) {
+    // Os terrenos conhecidos que fazem divisa com terrenos desconhecidos.
+    protected Frontier frontier;
 
-        // Armazena o caminho reconstruido.
-        ArrayList<String> reconstructedPath = new ArrayList<>();
+    // As distâncias do Ladrão até os terrenos, calculadas uma vez por rodada.
+    protected DistanceField distanceField;
 
-        // Pega o vértice destino.
-        Node destiny;
-        for (Node node : path) {
-            if (node.label.equals(destinyLabel)) {
-                destiny = node;
+    // A busca hierárquica, caso o Ladrão esteja configurado assim.
+    protected HierarchicalAStar hierarchicalAStar;
 
-                // Itera sobre os vértices "raízes".
-                while (destiny != null) {
-                    reconstructedPath.add(destiny.label);
-                    destiny = destiny.root;
-                }
+    // O último caminho seguido até um destino da memória.
+    private CachedPath cachedPath;
 
-                // Sai do loop.
-                break;
-            }
-        }
+    // Os campos de direção dos objetivos de exploração (nulo caso o
+    // cache esteja desligado), e a versão do mapa que os invalida.
+    protected FlowFieldCache flowFieldCache;
+    private int mapVersion;
 
-        // Reverte a ordem do caminho.
-        Collections.reverse(reconstructedPath);
-        // Retorna o caminho reconstruido.
-        return reconstructedPath;
-    }
+    // A menor quantia de campos que o orçamento do cache deve comportar,
+    // e a maior área em que o cache é ligado com um prazo por rodada, em
+    // que um campo inteiro custa poucas dezenas de microssegundos.
+    private static final int MIN_FLOW_FIELDS = 16;
+    private static final int MAX_BOUNDED_FLOW_FIELD_AREA = 64 * 64;
 
-    /**
-     * Algoritmo de Busca A*.
-     * 
-     * @param origin  O rótulo do vértice origem.
-     * @param destiny O rótulo do vértice destino.
-     * @return O menor caminho da origem para o destino.
-     */
-    public ArrayList<String> AStar(String origin, String destiny) {
-        // Os vértices descobertos que ainda podem ser expandidos.
-        Map<String, Integer> openSet = new HashMap<String, Integer>() {
-            {
-                // Inclui o vértice origem já na lista.
-                put(origin, 0);
-            }
-        };
-
-        // Os vértices que já foram expandidos.
-        ArrayList<String> closedSet = new ArrayList<>();
+    // A memória compartilhada com os outros Ladrões (nula caso o Ladrão
+    // explore sozinho), o leitor das suas mudanças e as mudanças lidas.
+    protected TeamMemory teamMemory;
+    private TeamMemory.Reader teamMemoryReader;
+    private int[] teamMemoryChanges;
 
-        // O caminho percorrido.
-        ArrayList<Node> path = new ArrayList<>();
+    // A tabela de reservas compartilhada com os outros Ladrões (nula caso
+    // eles sejam tratados como paredes), o identificador do Ladrão nela,
+    // os terrenos do caminho a reservar e a rodada atual do Ladrão.
+    protected ReservationTable reservationTable;
+    private int reservationOwner;
+    private int[] reservationPath;
+    private int tick;
 
-        // Caso o Ladrão já esteja no destino ou seja impossível de visitar.
-        if (origin.equals(destiny) || this.getVertexNeighbor(destiny) == null) {
-            return null;
-        }
+    // As rodadas seguidas em que o Ladrão esperou por outro Ladrão, e o
+    // limite a partir do qual ele sai do caminho, desfazendo os impasses
+    // entre Ladrões que esperam um pelo outro.
+    private int coordinatedWaits;
+    private static final int MAX_COORDINATED_WAITS = 2;
 
-        // Responsável pela escolhe um vértice, de forma aleatória.
-        Random vertexSelector = new Random();
+    // Responsável por todas as escolhas aleatórias do Ladrão, e a sua
+    // semente, que torna a partida reproduzível.
+    protected final Random random;
+    private final long seed;
 
-        // Itera sobre os vértices descobertos.
-        while (!(openSet.isEmpty())) {
-            // A menor distância registrada.
-            int minDistance = Collections.min(openSet.entrySet(), Map.Entry.comparingByValue()).getValue();
-            // Cria uma lista somente com os vértices que possuem a menor distância.
-            ArrayList<String> vertexesWithMinDistance = new ArrayList<>();
-            for (Map.Entry<String, Integer> entry : openSet.entrySet()) {
-                // O rótulo do vértice.
-                String vertex = entry.getKey();
-                // A distância do vértice.
-                int distance = entry.getValue();
+    // As configurações do Ladrão.
+    protected final ThiefOptions options;
 
-                if (distance == minDistance) {
-                    vertexesWithMinDistance.add(vertex);
-                }
-            }
+    // O prazo da rodada atual, consultado pelas buscas.
+    protected final Deadline deadline = new Deadline();
 
-            // Escolhe um vértice aleatório.
-            String current = vertexesWithMinDistance.get(vertexSelector.nextInt(vertexesWithMinDistance.size()));
+    // A direção escolhida na rodada anterior, usada quando o prazo
+    // expira antes de as buscas encontrarem um caminho.
+    private int previousDirection;
 
-            // Verifica se chegou no objetivo.
-            if (current.equals(destiny)) {
-                return this.reconstructPath(path, destiny);
-            }
+    // A gravação das rodadas do Ladrão (nula caso ele não seja gravado).
+    private SensorRecorder recorder;
 
-            // Remove o vértice escolhido do "openSet".
-            openSet.remove(current);
-
-            // Adiciona o vértice ao caminho.
-            path.add(new Node(current, null));
-
-            // As coordenadas do vértice atual.
-            int[] currentCoordinates = this.labelToCoordinates(current);
-
-            // Expande os vizinhos.
-            for (String neighbor : this.getVertexNeighbor(current).keySet()) {
-                if (!(closedSet.contains(neighbor))) {
-                    if (!(openSet.containsKey(neighbor))) {
-                        // As coordendas do vizinho.
-                        int[] neighborCoordinates = this.labelToCoordinates(neighbor);
-
-                        // Altera o vértice "caminho".
-                        for (Node node : path) {
-                            if (node.label == current) {
-                                path.add(new Node(neighbor, node));
-                                break;
-                            }
-                        }
+    // O observador das fases de cada rodada (nulo fora das medições).
+    PhaseObserver phaseObserver;
 
-                        // Adiciona o vizinho ao "openSet".
-                        openSet.put(
-                                neighbor,
-                                HScore.hScore(currentCoordinates, neighborCoordinates));
-                    }
-                }
-            }
-            // Adiciona o vértice atual ao "closedSet".
-            closedSet.add(current);
-        }
-        // Sem solução.
-        return null;
-    }
-}
+    // A posição ('x' e 'y') do Ladrão na rodada atual.
+    protected int thiefX;
+    protected int thiefY;
 
-/**
- * Representação de um agente inteligente, o Ladrão.
- */
-public class Ladrao extends ProgramaLadrao {
-    // A memória do Ladrão, referente ao Labirinto.
-    protected int[][] knownField;
+    // O local em que o Ladrão pretende chegar durante sua exploração.
+    private int explorationObjectiveLocation = -1;
 
-    // O grafo relacionado à memória do Ladrão.
-    protected Graph graph;
+    // A crença sobre a posição dos Poupadores (nula caso esteja desligada).
+    protected SaverBeliefs saverBeliefs;
 
-    // O local em que o Ladrão pretende chegar durante sua exploração.
-    private String explorationObjectiveLocation;
+    // A probabilidade mínima do terreno mais provável de um Poupador para
+    // que o Ladrão vá até ele, em vez de explorar.
+    private static final float SAVER_BELIEF_THRESHOLD = 0.25f;
 
     // Define um "temporizador" de roubo para os Poupadores.
-    private Map<Integer, Integer> targetRefreshRate;
+    // Posição 0: o Poupador 0 (100), posição 1: o Poupador 1 (110).
+    private int[] targetRefreshRate;
 
     // Define a quantia prévia relacionada as moedas do Ladrão.
     private int previousMoneyOnHold;
 
-    // Os terrenos impossíveis de visitar.
-    protected ArrayList<Integer> nonVisitableLands = new ArrayList<>(
-            Arrays.asList(
-                    -1, // Sem visão para o terreno.
-                    1, // Parede.
-                    3, // Banco.
-                    4, // Moeda.
-                    5, // Pastilha do Poder.
-                    200, // O Ladrão 1.
-                    210, // O Ladrão 2.
-                    220, // O Ladrão 3.
-                    230 // O Ladrão 4.
-            ));
+    // Armazena os terrenos candidatos a objetivo de exploração.
+    private int[] landCandidates;
+
+    // As classes dos terrenos da visão, linha a linha, incorporadas à
+    // memória por "memorizeVisitedLands".
+    private final long[] visionClassBits = new long[LandBitboard.CLASS_COUNT];
+
+    // A posição, na visão do Ladrão, do terreno vizinho de cada direção
+    // (1 cima, 2 baixo, 3 direita e 4 esquerda).
+    private static final int[] VISION_NEIGHBOR = { -1, 7, 16, 12, 11 };
 
     /**
      * Inicializa a variável de memória,
-     * referente ao Labirinto.
+     * referente ao Labirinto, com as
+     * dimensões das configurações.
      */
     private void initUnknownTerritoryVar() {
-        this.knownField = new int[30][30];
+        this.knownField = new int[this.options.getMazeHeight()][this.options.getMazeWidth()];
         for (int[] field : this.knownField) {
             Arrays.fill(field, -2);
         }
+        this.landBitboard = new LandBitboard(this.knownField[0].length, this.knownField.length);
+    }
+
+    /**
+     * Traz para a memória o terreno aprendido nas partidas anteriores,
+     * caso configurado, antes de o grafo ser criado.
+     * 
+     * @return Um valor lógico referente a algum terreno ter sido lido.
+     */
+    private boolean loadMap() {
+        MapStore mapStore = this.options.getMapStore();
+        try {
+            if (mapStore == null || !mapStore.load(this.knownField)) {
+                return false;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int y = 0; y < this.knownField.length; y++) {
+            for (int x = 0; x < this.knownField[0].length; x++) {
+                if (this.knownField[y][x] != -2) {
+                    this.landBitboard.set(x, y, this.knownField[y][x]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Junta o terreno estático que o Ladrão conhece ao terreno aprendido
+     * nas partidas anteriores, para que os próximos Ladrões no mesmo
+     * Labirinto comecem sabendo dele. Deve ser chamado ao fim da partida.
+     * 
+     * @throws IOException Caso o terreno não possa ser gravado.
+     */
+    public void saveMap() throws IOException {
+        MapStore mapStore = this.options.getMapStore();
+        if (mapStore == null) {
+            throw new IllegalStateException("O Ladrão não foi configurado com um terreno aprendido");
+        }
+        mapStore.save(this.knownField);
     }
 
     /**
      * Construtor base da classe Ladrão,
      * inicializa as demais variáveis.
+     * 
+     * A semente é sorteada, mas guardada, para que a partida possa ser
+     * gravada e reproduzida.
      */
-    Ladrao() {
-        this.initUnknownTerritoryVar();
-        this.targetRefreshRate = new HashMap<Integer, Integer>() {
-            {
-                put(100, 0); // O Poupador 0.
-                put(110, 0); // O Poupador 1.
-            }
-        };
-        this.previousMoneyOnHold = this.getThiefMoneyOnHold();
+    public Ladrao() {
+        this(new Random().nextLong(), new ThiefOptions());
     }
 
     /**
-     * Pega os terrenos adjacentes a um terreno fornecido qualquer,
-     * ajustando-os para à visão.
+     * Construtor da classe Ladrão com uma semente fixa, tornando
+     * as escolhas aleatórias do Ladrão reproduzíveis.
      * 
-     * @param x A coordenada "x" do terreno.
-     * @param y A coordenada "y" do terreno.
-     * @return Os terrenos adjacentes que são possíveis de visitar.
-     */
-    private Map<String, Integer> getAdjacentLandsToVision(int x, int y) {
-        // Os valores que, se somados a posição do terreno
-        // fornecido, isto é, o 'x' e o 'y', retornarão os
-        // terrenos adjacentes.
-        int[] adjacentLandsIndex = new int[] { 0, -1, 0, 1, 1, 0, -1, 0 };
-
-        // Armazena os terrenos adjacentes.
-        Map<String, Integer> adjacentLands = new HashMap<>();
-
-        // A direção referente ao terreno adjacente.
-        // Ordem padrão: 1, 2, 3, 4. (os terrenos adjacentes são percorridos nessa
-        // ordem.)
-        int landTravelDirection = 1;
-
-        // Itera sobre os pares de índices ('x' e 'y') dos terrenos adjacentes.
-        for (int i = 0; i < adjacentLandsIndex.length; i += 2) {
-            // As coordenadas do terreno adjacentes.
-            int adjacentLandX = adjacentLandsIndex[i] + x;
-            int adjacentLandY = adjacentLandsIndex[i + 1] + y;
-
-            // Valida se as coordenadas estão dentro do labirinto.
-            if (0 <= adjacentLandX && adjacentLandX <= 29) {
-                if (0 <= adjacentLandY && adjacentLandY <= 29) {
-                    // Verifica se o terreno é visitável.
-                    if (!this.isLandInvalid(adjacentLandX, adjacentLandY)) {
-                        // Adiciona o terreno atual e sua direção aos terrenos vizinhos.
-                        adjacentLands.put(
-                                this.graph.coordinatesToLabel(new int[] { adjacentLandX, adjacentLandY }),
-                                landTravelDirection);
-                    }
-                }
+     * @param seed A semente do gerador de números aleatórios.
+     */
+    public Ladrao(long seed) {
+        this(seed, new ThiefOptions());
+    }
+
+    /**
+     * Construtor da classe Ladrão com uma semente fixa e
+     * configurações próprias.
+     * 
+     * @param seed    A semente do gerador de números aleatórios.
+     * @param options As configurações do Ladrão.
+     */
+    public Ladrao(long seed, ThiefOptions options) {
+        this.random = new Random(seed);
+        this.seed = seed;
+        this.options = options;
+        this.initUnknownTerritoryVar();
+        boolean isMapLoaded = this.loadMap();
+        this.graph = new Graph(this.knownField[0].length, this.knownField.length);
+        this.visionGraph = new Graph(this.knownField[0].length, this.knownField.length);
+        this.dirtyLands = new int[this.knownField.length * this.knownField[0].length];
+        this.isLandDirty = new boolean[this.knownField.length * this.knownField[0].length];
+        this.buildGraphBasedOnMemory();
+        this.jumpPointSearch = new JumpPointSearch(this.graph);
+        this.frontier = new Frontier(this.knownField.length * this.knownField[0].length);
+        if (isMapLoaded) {
+            for (int land = 0; land < this.knownField.length * this.knownField[0].length; land++) {
+                this.updateFrontier(land, this.graph.idToX(land), this.graph.idToY(land));
             }
-            // Altera a direção correspondente ao terreno adjacentes.
-            landTravelDirection++;
         }
+        this.distanceField = new DistanceField(this.graph, this.deadline);
+        this.cachedPath = new CachedPath(this.graph);
+        if (this.options.getPlanner() == ThiefOptions.Planner.D_STAR_LITE) {
+            this.explorationPlanner = new DStarLite(this.graph, this.deadline);
+        }
+        if (this.options.getPlanner() == ThiefOptions.Planner.HIERARCHICAL) {
+            this.hierarchicalAStar = new HierarchicalAStar(this.graph);
+        }
+        // O cache só é ligado quando o orçamento comporta vários campos,
+        // o que só acontece nos Labirintos pequenos: nos grandes, cada
+        // campo desatualizado custaria o Labirinto inteiro. Com um prazo
+        // por rodada, a área também é limitada, e os outros algoritmos de
+        // caminho são medidos sem o cache.
+        int area = this.knownField.length * this.knownField[0].length;
+        if (this.options.getPlanner() == ThiefOptions.Planner.DISTANCE_FIELD
+                && this.options.getFlowFieldCacheBytes() / area >= MIN_FLOW_FIELDS
+                && (this.options.getTickBudgetNanos() <= 0 || area <= MAX_BOUNDED_FLOW_FIELD_AREA)) {
+            this.flowFieldCache = new FlowFieldCache(this.graph, this.options.getFlowFieldCacheBytes(),
+                    this.deadline);
+        }
+        if (this.options.isSaverBeliefsEnabled()) {
+            this.saverBeliefs = new SaverBeliefs(this.graph);
+        }
+        this.searchBuffers = new SearchBuffers(this.knownField.length * this.knownField[0].length);
+        this.landCandidates = new int[this.knownField.length * this.knownField[0].length];
+        this.targetRefreshRate = new int[2];
+        this.previousMoneyOnHold = this.getThiefMoneyOnHold();
+        this.initTeamMemory();
+        this.reservationTable = this.options.getReservationTable();
+        if (this.reservationTable != null) {
+            this.reservationOwner = this.reservationTable.join(this.knownField.length * this.knownField[0].length);
+            this.reservationPath = new int[this.reservationTable.getHorizon()];
+        }
+    }
 
-        // Retorna os terrenos adjacentes.
-        return adjacentLands;
+    /**
+     * Conecta o Ladrão à memória compartilhada, caso configurada,
+     * trazendo o que os outros Ladrões já memorizaram.
+     */
+    private void initTeamMemory() {
+        this.teamMemory = this.options.getTeamMemory();
+        if (this.teamMemory == null) {
+            return;
+        }
+        if (this.teamMemory.getWidth() != this.knownField[0].length
+                || this.teamMemory.getHeight() != this.knownField.length) {
+            throw new IllegalArgumentException("A memória compartilhada não tem as dimensões do Labirinto");
+        }
+        this.teamMemoryReader = this.teamMemory.newReader();
+        this.teamMemoryChanges = new int[this.knownField.length * this.knownField[0].length];
+        this.memorizeAllTeamLands();
     }
 
     /**
-     * Pega os terrenos adjacentes a um terreno fornecido qualquer,
-     * ajustando-os para à memória.
+     * Pega os terrenos adjacentes a um terreno fornecido qualquer.
      * 
      * @param x A coordenada "x" do terreno.
      * @param y A coordenada "y" do terreno.
-     * @return Os terrenos adjacentes que são possíveis de visitar.
-     */
-    private Map<String, Integer> getAdjacentLandsToMemory(int x, int y) {
-        // Os valores que, se somados a posição do terreno
-        // fornecido, isto é, o 'x' e o 'y', retornarão os
-        // terrenos adjacentes.
-        int[] adjacentLandsIndex = new int[] { 0, -1, 0, 1, 1, 0, -1, 0 };
-
-        // Armazena os terrenos adjacentes.
-        Map<String, Integer> adjacentLands = new HashMap<>();
-
-        // A direção referente ao terreno adjacente.
-        // Ordem padrão: 4, 3, 2, 1 (os terrenos adjacentes são percorridos nessa
-        // ordem.)
-        int landTravelDirection = 4;
-
-        // Itera sobre os pares de índices ('x' e 'y') dos terrenos adjacentes.
-        for (int i = 0; i < adjacentLandsIndex.length; i += 2) {
-            // As coordenadas do terreno adjacentes.
-            int adjacentLandX = adjacentLandsIndex[i] + x;
-            int adjacentLandY = adjacentLandsIndex[i + 1] + y;
-
-            // Valida se as coordenadas estão dentro do labirinto.
-            if (0 <= adjacentLandX && adjacentLandX <= 29) {
-                if (0 <= adjacentLandY && adjacentLandY <= 29) {
-                    // Verifica se o terreno é visitável.
-                    if (!this.isLandInvalid(adjacentLandX, adjacentLandY)) {
-                        // Adiciona o terreno atual e sua direção aos terrenos vizinhos.
-                        adjacentLands.put(
-                                this.graph.coordinatesToLabel(new int[] { adjacentLandX, adjacentLandY }),
-                                landTravelDirection);
-                    }
-                }
+     * @return A máscara das direções (1, 2, 3 e 4) dos terrenos adjacentes
+     *         que são possíveis de visitar.
+     */
+    private int getAdjacentLands(int x, int y) {
+        // Lê os vizinhos visitáveis direto dos bits da memória.
+        return this.landBitboard.getNeighborMask(LandBitboard.WALKABLE, x, y);
+    }
+
+    /**
+     * Adiciona um terreno visitável ao grafo, junto das arestas
+     * para os seus terrenos adjacentes.
+     * 
+     * @param graph O grafo que receberá o terreno.
+     * @param x     A coordenada "x" do terreno.
+     * @param y     A coordenada "y" do terreno.
+     */
+    private void addLandToGraph(Graph graph, int x, int y) {
+        // Adiciona um novo vértice ao grafo.
+        int currentLand = graph.coordinatesToId(x, y);
+        graph.addVertexToGraph(currentLand);
+
+        // Pega os terrenos adjacentes ao terreno atual.
+        int adjacentLands = this.getAdjacentLands(x, y);
+        for (int direction = 1; direction <= 4; direction++) {
+            if ((adjacentLands & (1 << (direction - 1))) != 0) {
+                // Adiciona o vértice visinho ao grafo.
+                graph.addVertexToGraph(graph.getNeighbor(currentLand, direction));
+
+                // Adiciona uma aresta entre o terreno atual e o vizinho.
+                graph.addEdgeToGraph(currentLand, direction);
             }
-            // Altera a direção correspondente ao terreno adjacentes.
-            landTravelDirection--;
         }
-
-        // Retorna os terrenos adjacentes.
-        return adjacentLands;
     }
 
     /**
-     * Cria um grafo, baseando-se na memória do Ladrão.
+     * Cria um grafo, baseando-se em toda a memória do Ladrão.
      */
-    private void updateGraphBasedOnMemory() {
-        // Cria um novo grafo vazio.
-        this.graph = new Graph();
+    private void buildGraphBasedOnMemory() {
+        // Limpa o grafo, reaproveitando a sua memória.
+        this.graph.clear();
 
         // Percorre os terrenos da memória do Ladrão.
-        for (int y = 0; y <= this.knownField.length - 1; y++) {
-            for (int x = 0; x <= this.knownField[y].length - 1; x++) {
+        for (int y = 0; y < this.graph.height; y++) {
+            for (int x = 0; x < this.graph.width; x++) {
                 // Verifica se o terreno atual é visitável.
-                if (!this.isLandInvalid(y, x)) {
-                    // Adiciona um novo vértice ao grafo.
-                    String currentLand = this.graph.coordinatesToLabel(new int[] { y, x });
-                    this.graph.addVertexToGraph(currentLand);
-
-                    // Pega os terrenos adjacentes ao terreno atual.
-
-                    for (Map.Entry<String, Integer> entry : this.getAdjacentLandsToMemory(y, x).entrySet()) {
-                        // O rótulo do terreno adjacente.
-                        String adjVertex = entry.getKey();
-                        // O valor de direção do terreno adjacente.
-                        int adjVertexDirection = entry.getValue();
-
-                        // Adiciona o vértice visinho ao grafo.
-                        this.graph.addVertexToGraph(adjVertex);
+                if (!this.isLandInvalid(x, y)) {
+                    this.addLandToGraph(this.graph, x, y);
+                }
+            }
+        }
+    }
 
-                        // Adiciona uma aresta entre o terreno atual e o vizinho.
-                        this.graph.addEdgeToGraph(currentLand, adjVertex, adjVertexDirection);
-                    }
+    /**
+     * Atualiza o grafo da memória do Ladrão, corrigindo somente
+     * os terrenos que mudaram e os seus vizinhos.
+     */
+    void updateGraphBasedOnMemory() {
+        // Percorre os terrenos que mudaram desde a última atualização.
+        for (int i = 0; i < this.dirtyLandsSize; i++) {
+            int land = this.dirtyLands[i];
+            this.isLandDirty[land] = false;
+
+            // Corrige o próprio terreno e as arestas dos vizinhos
+            // que apontam para ele.
+            this.updateLandOnGraph(land);
+            for (int direction = 1; direction <= 4; direction++) {
+                int x = this.graph.idToX(land) + Graph.DIRECTION_X[direction];
+                int y = this.graph.idToY(land) + Graph.DIRECTION_Y[direction];
+                if (0 <= x && x < this.graph.width && 0 <= y && y < this.graph.height) {
+                    this.updateLandOnGraph(this.graph.coordinatesToId(x, y));
                 }
             }
         }
+        this.dirtyLandsSize = 0;
     }
 
     /**
-     * Cria um grafo, baseando-se na visão do Ladrão.
+     * Recalcula um terreno no grafo da memória, a partir
+     * do que o Ladrão sabe sobre ele e os seus vizinhos.
+     * 
+     * @param land O identificador do terreno.
+     */
+    private void updateLandOnGraph(int land) {
+        int x = this.graph.idToX(land);
+        int y = this.graph.idToY(land);
+        byte previousLand = this.graph.vertexes[land];
+        if (this.isLandInvalid(x, y)) {
+            this.graph.removeVertexFromGraph(land);
+        } else {
+            this.graph.setVertexOnGraph(land, this.getAdjacentLands(x, y));
+        }
+        // Avisa o planejador de exploração e invalida os campos de
+        // direção caso as arestas tenham mudado.
+        if (previousLand != this.graph.vertexes[land]) {
+            if (this.explorationPlanner != null) {
+                this.explorationPlanner.updateLand(land);
+            }
+            if (this.hierarchicalAStar != null) {
+                this.hierarchicalAStar.updateLand(land);
+            }
+            this.mapVersion++;
+        }
+        this.updateFrontier(land, x, y);
+    }
+
+    /**
+     * Recalcula se um terreno pertence à fronteira de exploração, isto é,
+     * se ele é conhecido, visitável e vizinho de algum terreno desconhecido.
+     * 
+     * @param land O identificador do terreno.
+     * @param x    A coordenada "x" do terreno.
+     * @param y    A coordenada "y" do terreno.
      */
-    private void updateGraphBasedOnVision() {
-        // Cria um novo grafo vazio.
-        this.graph = new Graph();
+    private void updateFrontier(int land, int x, int y) {
+        boolean isFrontier = !this.isLandUnknown(x, y) && !this.isLandInvalid(x, y)
+                && this.landBitboard.getNeighborMask(LandBitboard.UNKNOWN, x, y) != 0;
+        this.frontier.set(land, isFrontier);
+    }
 
-        // Percorre todos os terrenos relacionados à visão do Ladrão.
-        // Pega a posição ('x' e 'y') do Ladrão.
-        int[] positions = this.getThiefCurrentPosition();
-        int thiefX = positions[0];
-        int thiefY = positions[1];
+    /**
+     * Cria um grafo, baseando-se na visão do Ladrão.
+     */
+    void updateGraphBasedOnVision() {
+        // Limpa somente a visão anterior (e os vizinhos de fora dela),
+        // o único trecho do grafo que pode ter vértices.
+        if (this.visionGraphX != -1) {
+            this.visionGraph.clearArea(this.visionGraphX - 3, this.visionGraphY - 3, this.visionGraphX + 3,
+                    this.visionGraphY + 3);
+        }
+        this.visionGraphX = this.thiefX;
+        this.visionGraphY = this.thiefY;
 
         // Percorre os terrenos da visão do Ladrão.
-        for (int y = thiefY - 2; y <= thiefY + 2; y++) {
-            for (int x = thiefX - 2; x <= thiefX + 2; x++) {
+        for (int y = this.thiefY - 2; y <= this.thiefY + 2; y++) {
+            for (int x = this.thiefX - 2; x <= this.thiefX + 2; x++) {
                 // Verifica se o terreno alvo está dentro do Labirinto.
-                if (0 <= x && x <= 29) {
-                    if (0 <= y && y <= 29) {
+                if (0 <= x && x < this.visionGraph.width) {
+                    if (0 <= y && y < this.visionGraph.height) {
                         // Verifica se o terreno atual é visitável.
-                        if (!this.isLandInvalid(y, x)) {
-                            // Adiciona um novo vértice ao grafo.
-                            String currentLand = this.graph.coordinatesToLabel(new int[] { x, y });
-                            this.graph.addVertexToGraph(currentLand);
-
-                            // Pega os terrenos adjacentes ao terreno atual.
-                            for (Map.Entry<String, Integer> entry : this.getAdjacentLandsToVision(x, y).entrySet()) {
-                                // O rótulo do terreno adjacente.
-                                String adjVertex = entry.getKey();
-                                // O valor de direção do terreno adjacente.
-                                int adjVertexDirection = entry.getValue();
-
-                                // Adiciona o vértice visinho ao grafo.
-                                this.graph.addVertexToGraph(adjVertex);
-
-                                // Adiciona uma aresta entre o terreno atual e o vizinho.
-                                this.graph.addEdgeToGraph(currentLand, adjVertex, adjVertexDirection);
-                            }
+                        if (!this.isLandInvalid(x, y)) {
+                            this.addLandToGraph(this.visionGraph, x, y);
                         }
                     }
                 }
@@ -478,7 +456,12 @@ public class Ladrao extends ProgramaLadrao {
     protected boolean isTargetStinking() {
         // Se o "cheiro" for diferente de 0, significa que
         // um Poupador passou por lá.
-        return Arrays.stream(this.getSaverSmell()).anyMatch(i -> i != 0);
+        for (int smell : this.getSaverSmell()) {
+            if (smell != 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -492,7 +475,12 @@ public class Ladrao extends ProgramaLadrao {
     protected boolean isTargetOnSight() {
         // Retorna verdadeiro se houver pelo menos "100" ou "110",
         // na visão atual do Ladrão.
-        return Arrays.stream(this.getThiefCurrentVision()).anyMatch(i -> i == 100 || i == 110);
+        for (int land : this.getThiefCurrentVision()) {
+            if (land == 100 || land == 110) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -503,26 +491,25 @@ public class Ladrao extends ProgramaLadrao {
      */
     protected int pinpointTargetLocation() {
         // Pega a posição ('x' e 'y') do Ladrão.
-        int[] positions = this.getThiefCurrentPosition();
-        int thiefX = positions[0];
-        int thiefY = positions[1];
-        
+        int thiefX = this.thiefX;
+        int thiefY = this.thiefY;
+
         // Pega a posição do Poupador se o Ladrão consegue vê-lo.
         if (this.isTargetOnSight()) {
             // Percorre os terrenos da visão do Ladrão.
             for (int y = thiefY - 2; y <= thiefY + 2; y++) {
                 for (int x = thiefX - 2; x <= thiefX + 2; x++) {
                     // Verifica se o terreno alvo está dentro do Labirinto.
-                    if (0 <= x && x <= 29) {
-                        if (0 <= y && y <= 29) {
+                    if (0 <= x && x < this.graph.width) {
+                        if (0 <= y && y < this.graph.height) {
                             // Verifica se há algum Poupador nos terrenos da visão
                             // do Ladrão que não foi roubado recentemente.
-                            if (this.knownField[y][x] == 100 && this.targetRefreshRate.get(100) == 0) {
+                            if (this.knownField[y][x] == 100 && this.targetRefreshRate[0] == 0) {
                                 // Retorna a posição do Poupador.
-                                return this.pursueTarget(new int[] { x, y });
-                            } else if (this.knownField[y][x] == 110 && this.targetRefreshRate.get(110) == 0) {
+                                return this.pursueTarget(x, y);
+                            } else if (this.knownField[y][x] == 110 && this.targetRefreshRate[1] == 0) {
                                 // Retorna a posição do Poupador.
-                                return this.pursueTarget(new int[] { x, y });
+                                return this.pursueTarget(x, y);
                             }
                         }
                     }
@@ -538,7 +525,8 @@ public class Ladrao extends ProgramaLadrao {
             // O menor olfato encontrado.
             int minSaverSmell = Integer.MAX_VALUE;
             // A posição do menor olfato encontrado.
-            int[] minSmellPosition = null;
+            int minSmellX = -1;
+            int minSmellY = -1;
 
             // Itera sobre as linhas e colunas do olfato do Ladrão.
             for (int y = thiefY - 1; y <= thiefY + 1; y++) {
@@ -546,8 +534,8 @@ public class Ladrao extends ProgramaLadrao {
                     // Ignora a posição atual do Ladrão.
                     if (!(x == thiefX && y == thiefY)) {
                         // Verifica se o terreno alvo está dentro do Labirinto.
-                        if (0 <= x && x <= 29) {
-                            if (0 <= y && y <= 29) {
+                        if (0 <= x && x < this.graph.width) {
+                            if (0 <= y && y < this.graph.height) {
                                 // Verifica se o cheiro encontrado é menor, ignorando os valores menores que
                                 // "0".
                                 if (saverSmell[saverSmellIndex] <= minSaverSmell
@@ -555,7 +543,8 @@ public class Ladrao extends ProgramaLadrao {
                                     // Atualiza o menor cheiro encontrado.
                                     minSaverSmell = saverSmell[saverSmellIndex];
                                     // Atualiza a posição do menor cheiro encontrado.
-                                    minSmellPosition = new int[] { x, y };
+                                    minSmellX = x;
+                                    minSmellY = y;
                                 }
                             }
                         }
@@ -566,12 +555,40 @@ public class Ladrao extends ProgramaLadrao {
             }
 
             // Retorna a posição do menor cheiro encontrado ou vai explorar o labirinto.
-            return minSmellPosition != null ? this.pursueTarget(minSmellPosition) : this.exploreLabyrinth();
+            return minSmellX != -1 ? this.pursueTarget(minSmellX, minSmellY) : this.exploreLabyrinth();
+        }
+        // Vai até o terreno mais provável de um Poupador, caso exista.
+        int likelySaverLocation = this.getLikelySaverLocation();
+        if (likelySaverLocation != -1) {
+            this.explorationObjectiveLocation = likelySaverLocation;
+            return this.followExplorationTrack(this.graph.coordinatesToId(thiefX, thiefY));
         }
         // O Ladrão vai explorar.
         return this.exploreLabyrinth();
     }
 
+    /**
+     * Pega o terreno mais provável dos Poupadores que não foram roubados
+     * recentemente, caso a crença nele seja alta o suficiente.
+     * 
+     * @return O identificador do terreno, ou -1 caso não haja um.
+     */
+    private int getLikelySaverLocation() {
+        if (this.saverBeliefs == null) {
+            return -1;
+        }
+        int location = -1;
+        float probability = SAVER_BELIEF_THRESHOLD;
+        for (int saver = 0; saver < this.targetRefreshRate.length; saver++) {
+            if (this.targetRefreshRate[saver] == 0
+                    && this.saverBeliefs.getMostLikelyProbability(saver) >= probability) {
+                location = this.saverBeliefs.getMostLikely(saver);
+                probability = this.saverBeliefs.getMostLikelyProbability(saver);
+            }
+        }
+        return location;
+    }
+
     /**
      * Verifica se determinada posição possui
      * um terreno possível de visitar.
@@ -582,7 +599,7 @@ public class Ladrao extends ProgramaLadrao {
      *         disponibilidade do terreno.
      */
     protected boolean isLandInvalid(int x, int y) {
-        return nonVisitableLands.contains(this.knownField[x][y]);
+        return !this.landBitboard.is(LandBitboard.WALKABLE, x, y);
     }
 
     /**
@@ -594,7 +611,7 @@ public class Ladrao extends ProgramaLadrao {
      * @return Um valor lógico referente à desinformação do terreno.
      */
     protected boolean isLandUnknown(int x, int y) {
-        return this.knownField[x][y] == -2;
+        return this.landBitboard.is(LandBitboard.UNKNOWN, x, y);
     }
 
     /**
@@ -606,7 +623,7 @@ public class Ladrao extends ProgramaLadrao {
      * @return Um valor lógico referente à disponibilidade do terreno.
      */
     protected boolean isLandKnown(int x, int y) {
-        return this.knownField[x][y] == 0;
+        return this.knownField[y][x] == 0;
     }
 
     /**
@@ -616,7 +633,7 @@ public class Ladrao extends ProgramaLadrao {
      *         objetivo.
      */
     protected boolean isThiefOnObjective() {
-        return this.graph.coordinatesToLabel(this.getThiefCurrentPosition()).equals(this.explorationObjectiveLocation);
+        return this.graph.coordinatesToId(this.thiefX, this.thiefY) == this.explorationObjectiveLocation;
     }
 
     /**
@@ -652,29 +669,24 @@ public class Ladrao extends ProgramaLadrao {
     }
 
     /**
-     * Retorna uma lista de inteiros, contendo
-     * o 'x' e o 'y' do Ladrão.
-     * 
-     * @return Uma lista de inteiros, refente à
-     *         posição do Ladrão.
+     * Atualiza o 'x' e o 'y' do Ladrão, a partir
+     * da posição informada pelo sensor.
      */
-    protected int[] getThiefCurrentPosition() {
+    protected void updateThiefCurrentPosition() {
         // Pega a posição atual do Ladrão.
         java.awt.Point currentPosition = this.sensor.getPosicao();
-        // Converte ambos os valores ('x' e 'y') para inteiro.
-        int x = (int) currentPosition.getX();
-        int y = (int) currentPosition.getY();
-        // Retorna uma lista de inteiros, contendo ambas as coordenadas.
-        return new int[] { x, y };
+        // Guarda ambos os valores ('x' e 'y').
+        this.thiefX = currentPosition.x;
+        this.thiefY = currentPosition.y;
     }
 
     /**
      * Atualiza o "refresh rate" dos Poupadores alvos.
      */
     private void updateTargetRefreshRate() {
-        for (Integer saverId : this.targetRefreshRate.keySet()) {
-            if (this.targetRefreshRate.get(saverId) > 0) {
-                this.targetRefreshRate.put(saverId, this.targetRefreshRate.get(saverId) - 1);
+        for (int saver = 0; saver < this.targetRefreshRate.length; saver++) {
+            if (this.targetRefreshRate[saver] > 0) {
+                this.targetRefreshRate[saver]--;
             }
         }
     }
@@ -683,12 +695,16 @@ public class Ladrao extends ProgramaLadrao {
      * Faz com que o Ladrão memorize todos
      * os terrenos que estão em seu campo de
      * visão.
+     * 
+     * Os valores dos terrenos são escritos um a um, mas as classes dos que
+     * mudaram entram na memória uma linha da visão por vez, com uma única
+     * operação mascarada, e somente os terrenos cujas classes mudaram no
+     * grafo são marcados para a sua atualização.
      */
-    private void memorizeVisitedLands() {
+    void memorizeVisitedLands() {
         // Pega a posição ('x' e 'y') do Ladrão.
-        int[] positions = this.getThiefCurrentPosition();
-        int thiefX = positions[0];
-        int thiefY = positions[1];
+        int thiefX = this.thiefX;
+        int thiefY = this.thiefY;
 
         // A visão atual do Ladrão.
         int[] currentView = this.getThiefCurrentVision();
@@ -696,37 +712,165 @@ public class Ladrao extends ProgramaLadrao {
         // O índice dos terrenos na matriz de visão do Ladrão.
         int gridViewIndex = 0;
 
+        // A primeira coluna da visão dentro do Labirinto.
+        int firstX = Math.max(0, thiefX - 2);
+
         // Itera sobre as linhas e colunas da visão do Ladrão.
         for (int y = thiefY - 2; y <= thiefY + 2; y++) {
+            // Os terrenos da linha que mudaram e as suas classes, um bit
+            // por coluna a partir de "firstX".
+            long seen = 0;
             for (int x = thiefX - 2; x <= thiefX + 2; x++) {
-                // Ignora a posição atual do Ladrão.
+                int land;
                 if (!(x == thiefX && y == thiefY)) {
-                    // Verifica se o terreno alvo está dentro
-                    // do Labirinto.
-                    if (0 <= x && x <= 29) {
-                        if (0 <= y && y <= 29) {
-                            // Evita o caso de o Ladrão "esquecer"
-                            // de determinada informação sobre o terreno,
-                            // pois as paredes bloqueiam a visão do Ladrão,
-                            // e como consequência, ele associa a visão
-                            // bloqueada como "desconhecida". Mas se ele
-                            // já passou por lá, não faz sentido fazer ele
-                            // "esquecer" de tal informação.
-                            if ((currentView[gridViewIndex] != -2 && this.knownField[y][x] == -2) ||
-                                    (currentView[gridViewIndex] != -2 && this.knownField[y][x] != -2)) {
-                                this.knownField[y][x] = currentView[gridViewIndex];
-                            }
-                        }
-                    }
+                    land = currentView[gridViewIndex];
                     // Aumenta o índice do terreno correspondente,
                     // na visão do Ladrão.
                     gridViewIndex++;
                 } else {
                     // Adiciona um '0' na posição do Ladrão,
                     // pois a visão do Ladrão não inclui ele.
-                    this.knownField[y][x] = 0;
+                    land = 0;
+                }
+                // Com a tabela de reservas, os outros Ladrões não são
+                // paredes: o caminho passa por eles, e as reservas
+                // resolvem quem passa primeiro.
+                if (land >= 200 && this.reservationTable != null) {
+                    land = 0;
+                }
+                // Evita o caso de o Ladrão "esquecer"
+                // de determinada informação sobre o terreno,
+                // pois as paredes bloqueiam a visão do Ladrão,
+                // e como consequência, ele associa a visão
+                // bloqueada como "desconhecida". Mas se ele
+                // já passou por lá, não faz sentido fazer ele
+                // "esquecer" de tal informação.
+                if (land == -2 || x < 0 || x >= this.landBitboard.width || y < 0
+                        || y >= this.landBitboard.height || !this.memorizeLandValue(x, y, land)) {
+                    continue;
+                }
+
+                // As classes de um terreno que não mudou já estão na memória.
+                int column = x - firstX;
+                seen |= 1L << column;
+                int landClasses = LandBitboard.getLandClasses(land);
+                for (int c = 0; c < LandBitboard.CLASS_COUNT; c++) {
+                    this.visionClassBits[c] |= (long) ((landClasses >>> c) & 1) << column;
                 }
             }
+            if (seen == 0) {
+                continue;
+            }
+
+            // Incorpora a linha e marca os terrenos que mudaram no grafo.
+            long changed = this.landBitboard.merge(y, firstX, seen, this.visionClassBits);
+            Arrays.fill(this.visionClassBits, 0);
+            while (changed != 0) {
+                this.markLandDirty(this.graph.coordinatesToId(firstX + Long.numberOfTrailingZeros(changed), y));
+                changed &= changed - 1;
+            }
+        }
+    }
+
+    /**
+     * Escreve o valor de um terreno visto pelo Ladrão, compartilhando-o
+     * com os outros Ladrões quando houver memória compartilhada. As
+     * classes do terreno são atualizadas por quem chama.
+     * 
+     * @param x    A coordenada "x" do terreno.
+     * @param y    A coordenada "y" do terreno.
+     * @param land O valor do terreno.
+     * @return Um valor lógico referente à mudança do terreno.
+     */
+    private boolean memorizeLandValue(int x, int y, int land) {
+        if (this.knownField[y][x] == land) {
+            return false;
+        }
+        this.knownField[y][x] = land;
+
+        // Compartilha o terreno com os outros Ladrões.
+        // Os agentes não são compartilhados, pois saem do lugar: cada Ladrão
+        // só conhece os que estão na sua visão, e o terreno sob eles é livre.
+        if (this.teamMemory != null) {
+            this.teamMemory.set(this.graph.coordinatesToId(x, y), land >= 100 ? 0 : land);
+        }
+        return true;
+    }
+
+    /**
+     * Atualiza um terreno da memória do Ladrão, marcando-o para a
+     * atualização do grafo caso ele tenha mudado no grafo.
+     * 
+     * @param x    A coordenada "x" do terreno.
+     * @param y    A coordenada "y" do terreno.
+     * @param land O valor do terreno.
+     */
+    private void updateKnownLand(int x, int y, int land) {
+        if (this.knownField[y][x] == land) {
+            return;
+        }
+        this.knownField[y][x] = land;
+        if (this.landBitboard.set(x, y, land)) {
+            this.markLandDirty(this.graph.coordinatesToId(x, y));
+        }
+    }
+
+    /**
+     * Adiciona um terreno ao conjunto de terrenos alterados desde a
+     * última atualização do grafo.
+     * 
+     * @param land O identificador do terreno.
+     */
+    private void markLandDirty(int land) {
+        // Um terreno desconhecido que se revelou livre não fecha o caminho
+        // guardado, somente um terreno que deixou de ser visitável.
+        if (!this.landBitboard.is(LandBitboard.WALKABLE, this.graph.idToX(land), this.graph.idToY(land))) {
+            this.cachedPath.onLandChanged(land);
+        }
+        if (!this.isLandDirty[land]) {
+            this.isLandDirty[land] = true;
+            this.dirtyLands[this.dirtyLandsSize++] = land;
+        }
+    }
+
+    /**
+     * Traz para a memória do Ladrão os terrenos que os outros Ladrões
+     * memorizaram desde a última rodada.
+     */
+    private void memorizeTeamLands() {
+        int changes;
+        while ((changes = this.teamMemoryReader.poll(this.teamMemoryChanges)) != 0) {
+            if (changes == -1) {
+                // O Ladrão perdeu mudanças, então relê a memória inteira.
+                this.memorizeAllTeamLands();
+                continue;
+            }
+            for (int i = 0; i < changes; i++) {
+                this.memorizeTeamLand(this.teamMemoryChanges[i]);
+            }
+        }
+    }
+
+    /**
+     * Traz para a memória do Ladrão todos os terrenos da memória
+     * compartilhada.
+     */
+    private void memorizeAllTeamLands() {
+        for (int land = 0; land < this.teamMemoryChanges.length; land++) {
+            this.memorizeTeamLand(land);
+        }
+    }
+
+    /**
+     * Traz para a memória do Ladrão um terreno da memória compartilhada,
+     * caso ele seja conhecido.
+     * 
+     * @param land O identificador do terreno.
+     */
+    private void memorizeTeamLand(int land) {
+        int value = this.teamMemory.get(land);
+        if (value != -2) {
+            this.updateKnownLand(this.graph.idToX(land), this.graph.idToY(land), value);
         }
     }
 
@@ -734,139 +878,129 @@ public class Ladrao extends ProgramaLadrao {
      * Caso o Ladrão, veja ou sinta o cheiro de um Poupador,
      * ele persegue-o, até conseguir roubá-lo ou perder-lo.
      * 
-     * @param targetLocation A posição ("x" e "y") do Poupador alvo.
+     * @param targetX A posição "x" do Poupador alvo.
+     * @param targetY A posição "y" do Poupador alvo.
      * @return O caminho a ser percorrido.
      */
-    private int pursueTarget(int[] targetLocation) {
-        // Cria um novo grafo baseado na visão do Ladrão.
-        this.updateGraphBasedOnVision();
+    private int pursueTarget(int targetX, int targetY) {
         // Verifica se o Ladrão roubou um Poupador.
         if (this.previousMoneyOnHold != this.getThiefMoneyOnHold()) {
             // O máximo de "refresh rate" que o Ladrão aceita.
-            int maxRefreshRate = (int) Math.random() * (150 - 100) + 100;
+            int maxRefreshRate = 100;
             // O tanto de moedas que o Ladrão roubou do Poupador.
             int stoleCoins = this.getThiefMoneyOnHold() * 10;
             // Atualiza o "refresh rate" do Poupador roubado.
             if (stoleCoins == 0) {
-                stoleCoins = (int) Math.random() * (10 - 30) + 10;
+                stoleCoins = 10;
             }
 
-            this.targetRefreshRate.put(this.knownField[targetLocation[1]][targetLocation[0]],
-                    stoleCoins > maxRefreshRate ? maxRefreshRate : stoleCoins);
+            int saver = this.getSaverIndex(this.knownField[targetY][targetX]);
+            if (saver != -1) {
+                this.targetRefreshRate[saver] = stoleCoins > maxRefreshRate ? maxRefreshRate : stoleCoins;
+            }
             // Altera o valor de "previousMoneyOnHold".
             this.previousMoneyOnHold = this.getThiefMoneyOnHold();
         }
+        // Lê o primeiro passo da busca em largura da rodada.
+        if (this.options.getPlanner() == ThiefOptions.Planner.DISTANCE_FIELD) {
+            return this.followDistanceField(this.graph.coordinatesToId(targetX, targetY));
+        }
+        // Cria um novo grafo baseado na visão do Ladrão.
+        AcaoPhaseEvent phase = this.startPhase("updateGraphBasedOnVision");
+        this.updateGraphBasedOnVision();
+        this.endPhase(phase);
         // Pega o menor caminho até o objetivo definido,
         // que no caso é a posição do Poupador, e percorre-o.
-        return this.followAStarTrack(this.graph.coordinatesToLabel(this.getThiefCurrentPosition()),
-                this.graph.coordinatesToLabel(targetLocation));
+        return this.followAStarTrack(this.visionGraph,
+                this.visionGraph.coordinatesToId(this.thiefX, this.thiefY),
+                this.visionGraph.coordinatesToId(targetX, targetY));
     }
 
     /**
-     * Pega o terreno conhecido, a partir da memória
-     * do Ladrão, mais distante em relação ao Ladrão.
+     * Pega a posição de um Poupador no "refresh rate".
      * 
-     * @return O rótulo do vértice que representa o terreno conhecido mais
-     *         distante.
+     * @param land O terreno em que o Poupador está.
+     * @return A posição do Poupador, ou -1 caso o terreno não seja um Poupador.
      */
-    protected String getLongestKnownVertex() {
-        // Armazena os vértices conhecidos do grafo e as distâncias.
-        Map<String, Integer> knownVerticesDistances = new HashMap<>();
-
-        // Responsável pela seleção de um terreno qualquer para visitar.
-        Random landSelector = new Random();
-
-        // A posição atual do Ladrão.
-        int[] currentThiefPosition = this.getThiefCurrentPosition();
-        currentThiefPosition = new int[] { currentThiefPosition[1], currentThiefPosition[0] };
+    private int getSaverIndex(int land) {
+        if (land == 100) {
+            return 0;
+        } else if (land == 110) {
+            return 1;
+        }
+        return -1;
+    }
 
-        // Itera sobre todos os vértices do grafo que representam
-        // terrenhos conhecidos.
-        for (String vertex : this.graph.vertexes.keySet()) {
-            // Pega as coordenadas do vértice.
-            int[] vertexCoordinates = this.graph.labelToCoordinates(vertex);
-            // Verifica se o terreno é conhecido.
-            if (this.isLandKnown(vertexCoordinates[0], vertexCoordinates[1])) {
-                // Adiciona o vértice e a distância ao dicionário.
-                knownVerticesDistances.put(vertex,
-                        HScore.hScore(currentThiefPosition, vertexCoordinates));
+    /**
+     * Pega um terreno conhecido qualquer, a partir da memória
+     * do Ladrão, dentre os que ele consegue alcançar.
+     * 
+     * @return O identificador do vértice que representa o terreno conhecido.
+     */
+    protected int getLongestKnownVertex() {
+        // Calcula as distâncias da rodada.
+        int thiefVertex = this.graph.coordinatesToId(this.thiefX, this.thiefY);
+        this.distanceField.compute(thiefVertex, this.random);
+
+        // Mantém os terrenos conhecidos e alcançáveis, exceto o
+        // próprio terreno do Ladrão (o primeiro da busca).
+        int candidatesSize = 0;
+        for (int i = 1; i < this.distanceField.getReachedSize(); i++) {
+            int land = this.distanceField.getReached(i);
+            if (!this.isLandUnknown(this.graph.idToX(land), this.graph.idToY(land))) {
+                this.landCandidates[candidatesSize++] = land;
             }
         }
-
-        // Os vértices que ele conhece.
-        ArrayList<String> vertexes = new ArrayList<>(knownVerticesDistances.keySet());
-        if (!vertexes.isEmpty()) {    
-            // Retorna qualquer vértice que ele conhece.
-            return vertexes.get(landSelector.nextInt(vertexes.size()));
+        // Retorna qualquer um deles.
+        if (candidatesSize > 0) {
+            return this.landCandidates[this.random.nextInt(candidatesSize)];
         }
-        // Retorna o vértice conhecido mais distante, em relação ao Ladrão.
-        else if (!knownVerticesDistances.isEmpty()) {    
-            return Collections.max(knownVerticesDistances.entrySet(), Map.Entry.comparingByValue()).getKey();
-        } 
-        // Vai para o banco.
-        else {
-            return "8:8";
-        }        
+        // Vai para o banco (ou o terreno mais próximo dele, nos
+        // Labirintos menores).
+        return this.graph.coordinatesToId(Math.min(8, this.graph.width - 1), Math.min(8, this.graph.height - 1));
     }
 
     /**
-     * Pega o terreno desconhecido, a partir da memória
-     * do Ladrão, mais distante em relação ao Ladrão.
+     * Pega um dos terrenos da fronteira de exploração mais distantes
+     * do Ladrão, pela distância (em passos) no grafo da memória.
      * 
-     * @return O rótulo do vértice que representa o terreno desconhecido mais
-     *         distante.
+     * @return O identificador do vértice que representa o terreno da
+     *         fronteira escolhido.
      */
-    protected String getLongestUnknownVertex() {
-        // Armazena os vértices desconhecidos do grafo e as distâncias.
-        Map<String, Integer> unknownVerticesDistances = new HashMap<>();
-
-        // Responsável pela seleção de um terreno qualquer para visitar.
-        Random landSelector = new Random();
-
-        // A posição atual do Ladrão.
-        int[] currentThiefPosition = this.getThiefCurrentPosition();
-
-        // Itera sobre todos os vértices do grafo que representam
-        // terrenhos desconhecidos.
-        for (String vertex : this.graph.vertexes.keySet()) {
-            // Pega as coordenadas do vértice.
-            int[] vertexCoordinates = this.graph.labelToCoordinates(vertex);
-            // Verifica se o terreno é desconhecido.
-            if (this.isLandUnknown(vertexCoordinates[0], vertexCoordinates[1])) {
-                // Adiciona o vértice e a distância ao dicionário.
-                unknownVerticesDistances.put(
-                        vertex,
-                        HScore.hScore(currentThiefPosition, vertexCoordinates));
+    protected int getLongestUnknownVertex() {
+        // Calcula as distâncias da rodada.
+        int thiefVertex = this.graph.coordinatesToId(this.thiefX, this.thiefY);
+        this.distanceField.compute(thiefVertex, this.random);
+
+        // A quantia de candidatos e a maior distância.
+        int candidatesSize = 0;
+        int maxDistance = -1;
+
+        // Itera somente sobre a fronteira, mantendo os terrenos alcançáveis.
+        for (int i = 0; i < this.frontier.size(); i++) {
+            int land = this.frontier.get(i);
+            int distance = this.distanceField.getDistance(land);
+            if (distance > 0) {
+                this.landCandidates[candidatesSize++] = land;
+                maxDistance = Math.max(maxDistance, distance);
             }
         }
-        // Retorna o rótulo do vértice mais distante
-        // caso ainda exista rótulos desconhecidos.
-        if (!unknownVerticesDistances.isEmpty()) {
-            // A maior distância possível.
-            int maxDistance = (int) Math
-                    .floor(Collections.max(unknownVerticesDistances.entrySet(), Map.Entry.comparingByValue())
-                            .getValue() / 2);
-            // Cria uma lista somente com os vértices que possuem a maior distância.
-            ArrayList<String> unknownVerticesMaxDistance = new ArrayList<>();
-            for (Map.Entry<String, Integer> entry : unknownVerticesDistances.entrySet()) {
-                // O rótulo do vértice.
-                String vertex = entry.getKey();
-                // A distância do vértice.
-                int distance = entry.getValue();
-
-                if (distance >= maxDistance) {
-                    unknownVerticesMaxDistance.add(vertex);
+        // Retorna um dos terrenos mais distantes da fronteira,
+        // caso ainda exista algum alcançável.
+        if (candidatesSize > 0) {
+            // Mantém somente os terrenos a pelo menos metade da maior distância.
+            maxDistance = maxDistance / 2;
+            int farthestCandidatesSize = 0;
+            for (int i = 0; i < candidatesSize; i++) {
+                int land = this.landCandidates[i];
+                if (this.distanceField.getDistance(land) >= maxDistance) {
+                    this.landCandidates[farthestCandidatesSize++] = land;
                 }
             }
-
-            // Pega um terreno desconhecido, dentre os mais distantes,
-            // de forma aleatória, caso exista.
-            if (unknownVerticesMaxDistance.size() > 1) {
-                return unknownVerticesMaxDistance.get(landSelector.nextInt(unknownVerticesMaxDistance.size()));
-            }
+            // Pega um deles de forma aleatória.
+            return this.landCandidates[this.random.nextInt(farthestCandidatesSize)];
         }
-        // Retorna o rótulo do vértice mais distante,
-        // sendo ele um terreno conhecido qualquer.
+        // Retorna um terreno conhecido qualquer.
         return this.getLongestKnownVertex();
     }
 
@@ -878,21 +1012,127 @@ public class Ladrao extends ProgramaLadrao {
      * @return O caminho a ser percorrido.
      */
     private int exploreLabyrinth() {
-        // Cria um novo grafo baseado na memória do Ladrão.
-        this.updateGraphBasedOnMemory();
         // Verifica se o Ladrão já definiu um local como objetivo ou
         // se o Ladrão já está no objetivo.
-        if (this.explorationObjectiveLocation == null || this.isThiefOnObjective()) {
-            // Pega o ponto mais distante, no labirinto, que ainda não foi visitado pelo
-            // Ladrão.
+        if (this.explorationObjectiveLocation == -1 || this.isThiefOnObjective()) {
+            // Pega um ponto distante da fronteira de exploração.
+            AcaoPhaseEvent phase = this.startPhase("getLongestUnknownVertex");
             this.explorationObjectiveLocation = this.getLongestUnknownVertex();
+            this.endPhase(phase);
         }
-        // Pega o menor caminho até o objetivo definido, que no caso é o terreno
-        // desconhecido mais distante em relação ao Ladrão.
-        int[] thiefPosition = this.getThiefCurrentPosition();
-        return this.followAStarTrack(
-                this.graph.coordinatesToLabel(new int[] { thiefPosition[1], thiefPosition[0] }),
-                this.explorationObjectiveLocation);
+        // Pega o menor caminho até o objetivo definido, que no caso é um
+        // terreno distante da fronteira de exploração.
+        return this.followExplorationTrack(this.graph.coordinatesToId(this.thiefX, this.thiefY));
+    }
+
+    /**
+     * Pega a direção do primeiro passo até o objetivo de exploração,
+     * reaproveitando a busca das rodadas anteriores enquanto o objetivo
+     * não mudar.
+     * 
+     * @param origin O identificador do vértice em que o Ladrão está.
+     * @return A direção do primeiro passo até o objetivo.
+     */
+    private int followExplorationTrack(int origin) {
+        // Lê o próximo passo do campo de direção do objetivo, caso exista
+        // (calculá-lo não cabe em uma rodada cujo prazo já expirou).
+        if (this.flowFieldCache != null && !this.deadline.hasExpired()) {
+            int direction = this.flowFieldCache.getDirection(origin, this.explorationObjectiveLocation,
+                    this.mapVersion);
+            if (direction != 0) {
+                return direction;
+            }
+        }
+        // Lê o primeiro passo da busca em largura da rodada.
+        if (this.options.getPlanner() == ThiefOptions.Planner.DISTANCE_FIELD) {
+            return this.followDistanceField(this.explorationObjectiveLocation);
+        }
+        // Busca primeiro entre os blocos do Labirinto.
+        if (this.options.getPlanner() == ThiefOptions.Planner.HIERARCHICAL) {
+            return this.followHierarchicalTrack(origin, this.explorationObjectiveLocation);
+        }
+        // Refaz a busca do zero, caso o Ladrão esteja configurado assim.
+        if (this.options.getPlanner() == ThiefOptions.Planner.A_STAR
+                || this.options.getPlanner() == ThiefOptions.Planner.JUMP_POINT_SEARCH) {
+            return this.followAStarTrack(this.graph, origin, this.explorationObjectiveLocation);
+        }
+        // Sem o planejador incremental, lê o passo da busca em largura.
+        if (this.explorationPlanner == null) {
+            return this.followDistanceField(this.explorationObjectiveLocation);
+        }
+        // Só inicia uma nova busca caso o objetivo tenha mudado.
+        if (this.explorationPlanner.getGoal() != this.explorationObjectiveLocation) {
+            this.explorationPlanner.reset(origin, this.explorationObjectiveLocation);
+        }
+        // Repara a busca e pega o primeiro passo, caso exista um caminho.
+        int direction = this.explorationPlanner.getNextDirection(origin, this.random);
+        if (direction != 0) {
+            return direction;
+        }
+        // A busca continua na próxima rodada, caso o prazo tenha expirado.
+        if (this.deadline.hasExpired()) {
+            return this.getPreviousDirection();
+        }
+        // Define um outro objetivo e vai até ele.
+        this.explorationObjectiveLocation = this.getLongestKnownVertex();
+        // Fica parado nesta rodada.
+        return 0;
+    }
+
+    /**
+     * Pega a direção do primeiro passo até um destino a partir das
+     * distâncias da rodada, calculadas uma única vez e compartilhadas
+     * com a escolha dos objetivos.
+     * 
+     * @param destiny O identificador do vértice do destino.
+     * @return A direção do primeiro passo até o destino.
+     */
+    private int followDistanceField(int destiny) {
+        int origin = this.graph.coordinatesToId(this.thiefX, this.thiefY);
+        // Segue o caminho da rodada anterior, caso nenhum terreno dele
+        // tenha mudado, sem uma nova busca.
+        int next = this.cachedPath.getNextVertex(origin, destiny);
+        if (next != -1) {
+            return this.graph.getDirection(origin, next);
+        }
+        this.distanceField.compute(origin, this.random);
+        int direction = this.distanceField.getFirstDirection(destiny);
+        if (direction != 0) {
+            this.cachedPath.store(this.distanceField, origin, destiny);
+            return direction;
+        }
+        // Caso o prazo tenha expirado antes de a busca alcançar o destino,
+        // segue o caminho parcial até o terreno alcançado mais próximo dele.
+        if (this.deadline.hasExpired()) {
+            direction = this.distanceField.getFirstDirection(this.distanceField.getClosestReached(destiny));
+            return direction != 0 ? direction : this.getPreviousDirection();
+        }
+        // Define um outro objetivo e vai até ele.
+        this.explorationObjectiveLocation = this.getLongestKnownVertex();
+        // Fica parado nesta rodada.
+        return 0;
+    }
+
+    /**
+     * Pega a direção do primeiro passo da rota hierárquica até um destino,
+     * verificando, também, se a mesma existe.
+     * 
+     * @param origin  O identificador do vértice da origem.
+     * @param destiny O identificador do vértice do destino.
+     * @return A direção do primeiro passo da rota.
+     */
+    private int followHierarchicalTrack(int origin, int destiny) {
+        int direction = this.hierarchicalAStar.getFirstDirection(origin, destiny, this.deadline);
+        if (direction != 0) {
+            return direction;
+        } else if (this.deadline.hasExpired()) {
+            // Sem tempo para procurar um outro objetivo.
+            return this.getPreviousDirection();
+        }
+        // Define um outro objetivo e vai até ele.
+        this.explorationObjectiveLocation = this.getLongestKnownVertex();
+        // Fica parado nesta rodada.
+        return 0;
     }
 
     /**
@@ -900,33 +1140,285 @@ public class Ladrao extends ProgramaLadrao {
      * dada um origem e um destino quaisquer, verificando,
      * também, se o mesmo retornou um caminho válido.
      * 
-     * @param origin  As coordenadas ("x" e "y") da origem.
-     * @param destiny As coordenadas ("x" e "y") do destino.
+     * No grafo da memória, o A* dá lugar ao "Jump Point Search" caso o
+     * Ladrão esteja configurado assim. O grafo da visão cobre somente a
+     * janela da visão, sem corredores longos, e os caminhos canônicos do
+     * "Jump Point Search" (que só viram nos pontos de salto) fazem o
+     * Ladrão perder os Poupadores encurralados.
+     * 
+     * @param graph   O grafo em que o caminho será gerado.
+     * @param origin  O identificador do vértice da origem.
+     * @param destiny O identificador do vértice do destino.
      * @return A direção do primeiro caminho gerado pelo A*.
      */
-    private int followAStarTrack(String origin, String destiny) {
-        // Pega o menor caminho, caso exista, através do algoritmo A*.
-        ArrayList<String> path = this.graph.AStar(origin, destiny);
+    private int followAStarTrack(Graph graph, int origin, int destiny) {
+        // Pega o menor caminho, caso exista, através do algoritmo A*
+        // (ou um caminho parcial, caso o prazo expire).
+        int pathLength;
+        if (graph == this.graph && this.options.getPlanner() == ThiefOptions.Planner.JUMP_POINT_SEARCH) {
+            pathLength = this.jumpPointSearch.search(origin, destiny, this.searchBuffers, this.random,
+                    this.deadline);
+        } else {
+            pathLength = graph.AStar(origin, destiny, this.searchBuffers, this.random, this.deadline);
+        }
         // Verifica se um caminho foi gerado pelo algoritmo A*.
-        if (path != null) {
+        if (pathLength != 0) {
             // Percorre a primeira direção do caminho.
-            return this.graph.vertexes.get(path.get(0)).get(path.get(1));
+            return graph.getDirection(this.searchBuffers.path[0], this.searchBuffers.path[1]);
+        } else if (this.deadline.hasExpired()) {
+            // Sem tempo para procurar um outro objetivo.
+            return this.getPreviousDirection();
         } else {
             // Define um outro objetivo e vai até ele.
             this.explorationObjectiveLocation = this.getLongestUnknownVertex();
         }
         // Pega o terreno conhecido mais distante.
         this.explorationObjectiveLocation = this.getLongestKnownVertex();
-        return (int) Math.random() * 5;
+        // Fica parado nesta rodada.
+        return 0;
+    }
+
+    /**
+     * @return A quantia de consultas ao cache de campos de direção
+     *         respondidas sem uma nova busca (0 caso ele esteja desligado).
+     */
+    public long getFlowFieldCacheHits() {
+        return this.flowFieldCache != null ? this.flowFieldCache.getHits() : 0;
+    }
+
+    /**
+     * @return A quantia de consultas ao cache de campos de direção que
+     *         precisaram de uma nova busca (0 caso ele esteja desligado).
+     */
+    public long getFlowFieldCacheMisses() {
+        return this.flowFieldCache != null ? this.flowFieldCache.getMisses() : 0;
+    }
+
+    /**
+     * Pega a direção da rodada anterior, caso ela ainda leve a
+     * um terreno visitável.
+     * 
+     * @return A direção da rodada anterior, ou 0 para ficar parado.
+     */
+    private int getPreviousDirection() {
+        int neighbors = this.graph.getVertexNeighbor(this.graph.coordinatesToId(this.thiefX, this.thiefY));
+        if (this.previousDirection != 0 && (neighbors & (1 << (this.previousDirection - 1))) != 0) {
+            return this.previousDirection;
+        }
+        return 0;
     }
 
     @Override
     public int acao() {
+        if (this.phaseObserver != null) {
+            this.phaseObserver.tickStarted();
+        }
+        // Mede a rodada inteira e cada uma das suas fases, caso haja
+        // uma gravação do Java Flight Recorder ativa.
+        AcaoEvent event = AcaoEvent.start();
+        AcaoPhaseEvent phase;
+        // Inicia o prazo da rodada.
+        this.deadline.start(this.options.getTickBudgetNanos());
+
+        // Atualiza a posição do Ladrão.
+        this.updateThiefCurrentPosition();
+        // As distâncias da rodada anterior não valem mais.
+        this.distanceField.invalidate();
+        // Traz o que os outros Ladrões memorizaram, antes da própria
+        // visão, que é mais recente.
+        if (this.teamMemory != null) {
+            phase = this.startPhase("memorizeTeamLands");
+            this.memorizeTeamLands();
+            this.endPhase(phase);
+        }
         // Memoriza o terreno.
+        phase = this.startPhase("memorizeVisitedLands");
         this.memorizeVisitedLands();
+        this.endPhase(phase);
+        // Atualiza o grafo com os terrenos que mudaram.
+        phase = this.startPhase("updateGraphBasedOnMemory");
+        this.updateGraphBasedOnMemory();
+        this.endPhase(phase);
+        // Atualiza a crença sobre a posição dos Poupadores.
+        if (this.saverBeliefs != null) {
+            phase = this.startPhase("updateSaverBeliefs");
+            this.saverBeliefs.update(this.thiefX, this.thiefY, this.getThiefCurrentVision(), this.getSaverSmell());
+            this.endPhase(phase);
+        }
         // Atualiza o "refresh rate" dos Poupadores.
+        phase = this.startPhase("updateTargetRefreshRate");
         this.updateTargetRefreshRate();
+        this.endPhase(phase);
         // Faz o Ladrão perseguir um Poupador ou explorar o Labirinto.
-        return this.pinpointTargetLocation();
+        phase = this.startPhase("pinpointTargetLocation");
+        int direction = this.pinpointTargetLocation();
+        this.endPhase(phase);
+
+        // Coordena o passo com os outros Ladrões.
+        if (this.reservationTable != null) {
+            phase = this.startPhase("coordinateMove");
+            direction = this.coordinateMove(direction);
+            this.endPhase(phase);
+        }
+
+        if (event != null) {
+            event.thiefX = this.thiefX;
+            event.thiefY = this.thiefY;
+            event.direction = direction;
+            event.deadlineExpired = this.deadline.hasExpired();
+            event.commit();
+        }
+        // Grava a rodada, caso o Ladrão esteja sendo gravado.
+        if (this.recorder != null) {
+            this.recorder.record(this.sensor, direction);
+        }
+        this.previousDirection = direction;
+        this.tick++;
+        if (this.phaseObserver != null) {
+            this.phaseObserver.tickEnded();
+        }
+        return direction;
+    }
+
+    /**
+     * Inicia o evento de uma fase da rodada, avisando o observador.
+     * 
+     * @param name O nome da fase (o método medido).
+     * @return O evento, a ser terminado por "endPhase" (nulo caso o Java
+     *         Flight Recorder não tenha sido iniciado).
+     */
+    private AcaoPhaseEvent startPhase(String name) {
+        if (this.phaseObserver != null) {
+            this.phaseObserver.phaseStarted(name);
+        }
+        return AcaoPhaseEvent.start(name);
+    }
+
+    /**
+     * Confirma o evento de uma fase da rodada, avisando o observador.
+     * 
+     * @param phase O evento da fase, ou nulo.
+     */
+    private void endPhase(AcaoPhaseEvent phase) {
+        if (phase != null) {
+            phase.commit();
+        }
+        if (this.phaseObserver != null) {
+            this.phaseObserver.phaseEnded();
+        }
+    }
+
+    /**
+     * Reserva o passo do Ladrão e os próximos terrenos do seu caminho na
+     * tabela de reservas, esperando quando o próximo terreno estiver
+     * reservado por outro Ladrão, e saindo do caminho de quem já reservou
+     * o terreno do Ladrão.
+     * 
+     * Um Ladrão ocupa o seu terreno na rodada atual e o próximo terreno na
+     * seguinte; como os Ladrões agem um de cada vez, o próximo terreno só
+     * está livre caso ninguém o tenha reservado em nenhuma das duas, o que
+     * também impede que dois Ladrões troquem de lugar.
+     * 
+     * @param direction A direção escolhida pelo Ladrão.
+     * @return A direção coordenada, ou 0 para esperar.
+     */
+    private int coordinateMove(int direction) {
+        ReservationTable table = this.reservationTable;
+        int owner = this.reservationOwner;
+        int origin = this.graph.coordinatesToId(this.thiefX, this.thiefY);
+        table.reserve(owner, origin, this.tick);
+        if (direction != 0 && this.canStepInto(direction, origin)) {
+            // Reserva os terrenos seguintes do caminho, até o primeiro que
+            // outro Ladrão já reservou.
+            int reserved = 1;
+            int ahead = this.cachedPath.copyAhead(origin, this.reservationPath, table.getHorizon() - 1);
+            if (ahead > 0 && this.reservationPath[0] == this.graph.getNeighbor(origin, direction)) {
+                while (reserved < ahead && table.reserve(owner, this.reservationPath[reserved],
+                        this.tick + 1 + reserved)) {
+                    reserved++;
+                }
+            }
+            table.release(owner, this.tick + 1 + reserved, this.tick + table.getHorizon() - 1);
+            this.coordinatedWaits = 0;
+            return direction;
+        }
+
+        // Espera no terreno atual, ou sai dele caso outro Ladrão já o tenha
+        // reservado para a próxima rodada ou a espera já tenha demorado. O
+        // terreno atual só é reservado depois da decisão de ficar nele,
+        // para não bloquear o Ladrão que espera para entrar nele.
+        table.release(owner, this.tick + 1, this.tick + table.getHorizon() - 1);
+        if (this.coordinatedWaits < MAX_COORDINATED_WAITS && table.reserve(owner, origin, this.tick + 1)) {
+            this.coordinatedWaits++;
+            return 0;
+        }
+        int neighbors = this.graph.getVertexNeighbor(origin);
+        int first = this.random.nextInt(4);
+        for (int i = 0; i < 4; i++) {
+            int side = (first + i) % 4 + 1;
+            if ((neighbors & (1 << (side - 1))) != 0 && this.canStepInto(side, origin)) {
+                this.coordinatedWaits = 0;
+                return side;
+            }
+        }
+        // Sem saída, fica no terreno atual.
+        table.reserve(owner, origin, this.tick + 1);
+        return 0;
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifica se o terreno vizinho está livre de outros Ladrões na rodada
+     * atual e, caso esteja, reserva-o para a próxima.
+     * 
+     * @param direction A direção (1, 2, 3 ou 4) do vizinho.
+     * @param origin    O identificador do terreno do Ladrão.
+     * @return Um valor lógico referente à reserva do vizinho.
+     */
+    private boolean canStepInto(int direction, int origin) {
+        // Um Ladrão que ainda não agiu na rodada continua no terreno.
+        if (this.getThiefCurrentVision()[VISION_NEIGHBOR[direction]] >= 200) {
+            return false;
+        }
+        int next = this.graph.getNeighbor(origin, direction);
+        return !this.reservationTable.isReservedByOther(this.reservationOwner, next, this.tick)
+                && this.reservationTable.reserve(this.reservationOwner, next, this.tick + 1);
+    }
+
+    /**
+     * Começa a gravar as rodadas do Ladrão (ver "SensorRecorder"), para que
+     * a partida seja reproduzida depois por "SensorReplay". A gravação
+     * deve começar antes da primeira rodada.
+     * 
+     * @param path O caminho do arquivo da gravação.
+     * @throws IOException Caso o arquivo não possa ser criado.
+     */
+    public void startRecording(Path path) throws IOException {
+        // A memória compartilhada depende dos outros Ladrões da partida,
+        // que não são gravados.
+        if (this.teamMemory != null) {
+            throw new IllegalStateException("Um Ladrão com memória compartilhada não pode ser gravado");
+        }
+        if (this.reservationTable != null) {
+            throw new IllegalStateException("Um Ladrão com tabela de reservas não pode ser gravado");
+        }
+        if (this.options.getMapStore() != null) {
+            throw new IllegalStateException("Um Ladrão com terreno aprendido não pode ser gravado");
+        }
+        this.stopRecording();
+        this.recorder = new SensorRecorder(path, this.knownField[0].length, this.knownField.length, this.seed,
+                this.options);
+    }
+
+    /**
+     * Termina a gravação das rodadas, caso exista uma.
+     * 
+     * @throws IOException Caso o arquivo não possa ser escrito.
+     */
+    public void stopRecording() throws IOException {
+        if (this.recorder != null) {
+            SensorRecorder recorder = this.recorder;
+            this.recorder = null;
+            recorder.close();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * A memória do Ladrão separada em classes de terreno, cada uma guardada
+ * como um conjunto de bits ("bitboard"): um bit por terreno, uma linha do
+ * Labirinto em "wordsPerRow" palavras de 64 bits.
+ * 
+ * O valor de cada terreno é traduzido para as suas classes por uma tabela,
+ * então verificar se um terreno é visitável ou montar a máscara dos seus
+ * vizinhos custa somente alguns deslocamentos e "E" lógicos, e a visão é
+ * incorporada à memória com operações mascaradas sobre linhas inteiras.
+ */
+class LandBitboard {
+    // As classes de terreno, como bits de uma máscara.
+    static final int WALKABLE = 1 << 0;
+    static final int WALL = 1 << 1;
+    static final int UNKNOWN = 1 << 2;
+    static final int BANK = 1 << 3;
+    static final int COIN = 1 << 4;
+    static final int AGENT = 1 << 5;
+    static final int CLASS_COUNT = 6;
+
+    // As classes de cada valor de terreno, indexadas pelo valor mais 2
+    // (o menor valor, o terreno desconhecido, é -2).
+    private static final byte[] LAND_CLASSES = new byte[256];
+
+    static {
+        // Os valores sem classe conhecida são visitáveis.
+        Arrays.fill(LAND_CLASSES, (byte) WALKABLE);
+        LAND_CLASSES[-2 + 2] = WALKABLE | UNKNOWN; // Desconhecido.
+        LAND_CLASSES[-1 + 2] = 0; // Sem visão para o terreno.
+        LAND_CLASSES[1 + 2] = WALL; // Parede.
+        LAND_CLASSES[3 + 2] = BANK; // Banco.
+        LAND_CLASSES[4 + 2] = COIN; // Moeda.
+        LAND_CLASSES[5 + 2] = 0; // Pastilha do Poder.
+        LAND_CLASSES[100 + 2] = WALKABLE | AGENT; // O Poupador 1.
+        LAND_CLASSES[110 + 2] = WALKABLE | AGENT; // O Poupador 2.
+        LAND_CLASSES[200 + 2] = AGENT; // O Ladrão 1.
+        LAND_CLASSES[210 + 2] = AGENT; // O Ladrão 2.
+        LAND_CLASSES[220 + 2] = AGENT; // O Ladrão 3.
+        LAND_CLASSES[230 + 2] = AGENT; // O Ladrão 4.
+    }
+
+    // As classes que definem o grafo e a fronteira de exploração.
+    private static final int GRAPH_CLASSES = WALKABLE | UNKNOWN;
+
+    // As dimensões do Labirinto e a quantia de palavras por linha.
+    protected final int width;
+    protected final int height;
+    private final int wordsPerRow;
+
+    // Os bits de cada classe, indexados pelo índice do bit na máscara.
+    private final long[][] bits = new long[CLASS_COUNT][];
+
+    /**
+     * Construtor base, cria uma memória com todos os terrenos desconhecidos.
+     * 
+     * @param width  A largura do Labirinto.
+     * @param height A altura do Labirinto.
+     */
+    LandBitboard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            this.bits[c] = new long[this.wordsPerRow * height];
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                this.set(x, y, -2);
+            }
+        }
+    }
+
+    /**
+     * Pega as classes de um valor de terreno.
+     * 
+     * @param land O valor do terreno.
+     * @return A máscara das classes do terreno.
+     */
+    static int getLandClasses(int land) {
+        int index = land + 2;
+        return 0 <= index && index < LAND_CLASSES.length ? LAND_CLASSES[index] : WALKABLE;
+    }
+
+    /**
+     * Escreve o valor de um terreno.
+     * 
+     * @param x    A coordenada "x" do terreno.
+     * @param y    A coordenada "y" do terreno.
+     * @param land O valor do terreno.
+     * @return Um valor lógico referente à mudança do terreno no grafo
+     *         (visitável) ou na fronteira de exploração (desconhecido).
+     */
+    public boolean set(int x, int y, int land) {
+        int word = y * this.wordsPerRow + (x >>> 6);
+        long bit = 1L << x;
+        int classes = getLandClasses(land);
+        int changedClasses = 0;
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            long previous = this.bits[c][word];
+            long next = (classes & (1 << c)) != 0 ? previous | bit : previous & ~bit;
+            if (next != previous) {
+                this.bits[c][word] = next;
+                changedClasses |= 1 << c;
+            }
+        }
+        return (changedClasses & GRAPH_CLASSES) != 0;
+    }
+
+    /**
+     * Incorpora um trecho de uma linha à memória: os terrenos marcados em
+     * "mask" recebem as classes de "classBits", e os demais são mantidos.
+     * 
+     * @param y         A coordenada "y" da linha.
+     * @param firstX    A coordenada "x" do primeiro bit do trecho.
+     * @param mask      Os terrenos do trecho a serem escritos (o bit "i"
+     *                  é a coluna "firstX + i").
+     * @param classBits Os bits de cada classe no trecho, na mesma ordem.
+     * @return Os terrenos do trecho que mudaram no grafo ou na fronteira
+     *         de exploração, na mesma ordem de "mask".
+     */
+    public long merge(int y, int firstX, long mask, long[] classBits) {
+        int word = y * this.wordsPerRow + (firstX >>> 6);
+        int shift = firstX & 63;
+        long changed = this.mergeWord(word, mask << shift, classBits, shift, true) >>> shift;
+        // O trecho pode continuar na palavra seguinte da linha.
+        if (shift != 0 && (mask >>> (64 - shift)) != 0) {
+            changed |= this.mergeWord(word + 1, mask >>> (64 - shift), classBits, 64 - shift, false)
+                    << (64 - shift);
+        }
+        return changed;
+    }
+
+    /**
+     * Incorpora uma palavra de uma linha à memória.
+     * 
+     * @param word      O índice da palavra.
+     * @param mask      Os terrenos da palavra a serem escritos.
+     * @param classBits Os bits de cada classe no trecho.
+     * @param shift     O deslocamento do trecho até a palavra.
+     * @param isLeft    Se o trecho é deslocado para a esquerda (a primeira
+     *                  palavra) ou para a direita (a seguinte).
+     * @return Os terrenos da palavra que mudaram no grafo ou na fronteira.
+     */
+    private long mergeWord(int word, long mask, long[] classBits, int shift, boolean isLeft) {
+        long changed = 0;
+        for (int c = 0; c < CLASS_COUNT; c++) {
+            long previous = this.bits[c][word];
+            long incoming = isLeft ? classBits[c] << shift : classBits[c] >>> shift;
+            long next = (previous & ~mask) | (incoming & mask);
+            if ((GRAPH_CLASSES & (1 << c)) != 0) {
+                changed |= previous ^ next;
+            }
+            this.bits[c][word] = next;
+        }
+        return changed;
+    }
+
+    /**
+     * Verifica se um terreno pertence a uma classe.
+     * 
+     * @param landClass A classe (por exemplo, "WALKABLE").
+     * @param x         A coordenada "x" do terreno.
+     * @param y         A coordenada "y" do terreno.
+     * @return Um valor lógico referente à classe do terreno.
+     */
+    public boolean is(int landClass, int x, int y) {
+        long[] classBits = this.bits[Integer.numberOfTrailingZeros(landClass)];
+        return (classBits[y * this.wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Pega a máscara das direções dos vizinhos de um terreno que pertencem
+     * a uma classe, fora do Labirinto sendo considerado fora da classe.
+     * 
+     * @param landClass A classe (por exemplo, "WALKABLE").
+     * @param x         A coordenada "x" do terreno.
+     * @param y         A coordenada "y" do terreno.
+     * @return A máscara de 4 bits das direções (1, 2, 3 e 4) dos vizinhos.
+     */
+    public int getNeighborMask(int landClass, int x, int y) {
+        long[] classBits = this.bits[Integer.numberOfTrailingZeros(landClass)];
+        int word = y * this.wordsPerRow + (x >>> 6);
+        int neighbors = 0;
+        if (y > 0) {
+            neighbors |= (int) (classBits[word - this.wordsPerRow] >>> x) & 1;
+        }
+        if (y < this.height - 1) {
+            neighbors |= ((int) (classBits[word + this.wordsPerRow] >>> x) & 1) << 1;
+        }
+        if (x < this.width - 1) {
+            neighbors |= ((int) (classBits[y * this.wordsPerRow + ((x + 1) >>> 6)] >>> (x + 1)) & 1) << 2;
+        }
+        if (x > 0) {
+            neighbors |= ((int) (classBits[y * this.wordsPerRow + ((x - 1) >>> 6)] >>> (x - 1)) & 1) << 3;
+        }
+        return neighbors;
+    }
+}
@@ -0,0 +1,213 @@
+package algoritmo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Guarda, entre as partidas, o terreno estático que os Ladrões aprenderam
+ * de um Labirinto (paredes, banco e chão conhecido), para que um novo
+ * Ladrão no mesmo Labirinto comece sabendo o que os anteriores viram, em
+ * vez de redescobrir as paredes nas primeiras rodadas.
+ * 
+ * Cada Labirinto tem o seu arquivo, nomeado pela sua impressão digital
+ * (ver "simulacao.Maze.getFingerprint"). O arquivo começa com um
+ * cabeçalho (assinatura, versão, largura, altura e impressão digital),
+ * seguido de 2 bits por terreno, linha a linha: desconhecido, chão, parede
+ * ou banco. Os agentes, as moedas e as pastilhas mudam de lugar durante a
+ * partida, então são guardados como o chão sob eles.
+ * 
+ * O arquivo, de no máximo algumas centenas de kilobytes, é lido inteiro
+ * para a memória, sem mapeá-lo: um arquivo mapeado não pode ser
+ * substituído em alguns sistemas (como o Windows) enquanto o mapeamento
+ * existir, e o mapeamento só é desfeito pelo coletor de lixo. Cada
+ * gravação junta o que o Ladrão conhece ao que o arquivo já tinha,
+ * substituindo o arquivo de uma vez, para que uma leitura nunca veja um
+ * arquivo pela metade.
+ */
+public class MapStore {
+    // A assinatura ("LMAP") e a versão do formato.
+    static final int MAGIC = 0x4C4D4150;
+    static final byte VERSION = 1;
+
+    // O tamanho do cabeçalho: assinatura, versão, largura, altura e
+    // impressão digital.
+    static final int HEADER_SIZE = 4 + 1 + 2 + 2 + 8;
+
+    // Os códigos dos terrenos no arquivo.
+    private static final int UNKNOWN = 0;
+    private static final int FLOOR = 1;
+    private static final int WALL = 2;
+    private static final int BANK = 3;
+
+    // O valor dos terrenos na memória do Ladrão, pelo código do arquivo.
+    private static final int[] LAND_VALUES = { -2, 0, 1, 3 };
+
+    // O arquivo do Labirinto e a sua impressão digital.
+    private final Path path;
+    private final long fingerprint;
+
+    /**
+     * Construtor base, aponta para o arquivo de um Labirinto, que só é
+     * criado na primeira gravação.
+     * 
+     * @param directory   A pasta dos arquivos.
+     * @param fingerprint A impressão digital do Labirinto.
+     */
+    public MapStore(Path directory, long fingerprint) {
+        this.path = directory.resolve(String.format("%016x.map", fingerprint));
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return O caminho do arquivo do Labirinto.
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Lê o terreno guardado para a memória de um Ladrão.
+     * 
+     * @param knownField A memória do Ladrão, toda desconhecida.
+     * @return Um valor lógico referente à existência do arquivo.
+     * @throws IOException Caso o arquivo não possa ser lido, não seja um
+     *                     mapa válido ou seja de outro Labirinto.
+     */
+    boolean load(int[][] knownField) throws IOException {
+        int width = knownField[0].length;
+        int height = knownField.length;
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + (width * height + 3) / 4);
+        if (!this.read(file)) {
+            return false;
+        }
+        this.check(file, width, height);
+        for (int land = 0; land < width * height; land++) {
+            knownField[land / width][land % width] = LAND_VALUES[getCode(file, land)];
+        }
+        return true;
+    }
+
+    /**
+     * Junta o terreno estático da memória de um Ladrão ao arquivo.
+     * 
+     * @param knownField A memória do Ladrão.
+     * @throws IOException Caso o arquivo não possa ser escrito, ou o
+     *                     anterior não seja um mapa válido.
+     */
+    synchronized void save(int[][] knownField) throws IOException {
+        int width = knownField[0].length;
+        int height = knownField.length;
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + (width * height + 3) / 4);
+        if (this.read(file)) {
+            this.check(file, width, height);
+        } else {
+            file.putInt(MAGIC);
+            file.put(VERSION);
+            file.putShort((short) width);
+            file.putShort((short) height);
+            file.putLong(this.fingerprint);
+        }
+
+        // O que o Ladrão conhece substitui o que o arquivo tinha.
+        for (int land = 0; land < width * height; land++) {
+            int code = getCode(knownField[land / width][land % width]);
+            if (code != UNKNOWN) {
+                int index = HEADER_SIZE + (land >>> 2);
+                int shift = (land & 3) * 2;
+                file.put(index, (byte) ((file.get(index) & ~(3 << shift)) | (code << shift)));
+            }
+        }
+
+        Files.createDirectories(this.path.toAbsolutePath().getParent());
+        Path temporary = Files.createTempFile(this.path.toAbsolutePath().getParent(),
+                this.path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            file.rewind();
+            while (file.hasRemaining()) {
+                channel.write(file);
+            }
+        }
+        Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lê o arquivo inteiro para um "buffer", que deve ter o tamanho de um
+     * arquivo do Labirinto do Ladrão.
+     * 
+     * @param buffer O "buffer" de destino.
+     * @return Um valor lógico referente à existência do arquivo.
+     * @throws IOException Caso o arquivo não possa ser lido ou não tenha o
+     *                     tamanho esperado.
+     */
+    private boolean read(ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            if (channel.size() != buffer.capacity()) {
+                throw new IOException("Mapa inválido: " + this.path);
+            }
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Mapa inválido: " + this.path);
+                }
+            }
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Confere o cabeçalho de um arquivo.
+     * 
+     * @param buffer O arquivo inteiro.
+     * @param width  A largura do Labirinto do Ladrão.
+     * @param height A altura do Labirinto do Ladrão.
+     * @throws IOException Caso o arquivo não seja um mapa válido ou seja de
+     *                     outro Labirinto.
+     */
+    private void check(ByteBuffer buffer, int width, int height) throws IOException {
+        int cellsSize = (width * height + 3) / 4;
+        if (buffer.capacity() != HEADER_SIZE + cellsSize || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Mapa inválido: " + this.path);
+        }
+        if (buffer.get(4) != VERSION) {
+            throw new IOException("Versão do mapa não suportada: " + buffer.get(4) + " (" + this.path + ")");
+        }
+        if (buffer.getShort(5) != width || buffer.getShort(7) != height || buffer.getLong(9) != this.fingerprint) {
+            throw new IOException("O mapa é de outro Labirinto: " + this.path);
+        }
+    }
+
+    /**
+     * @param file O arquivo inteiro.
+     * @param land O identificador do terreno.
+     * @return O código do terreno no arquivo.
+     */
+    private static int getCode(ByteBuffer file, int land) {
+        return (file.get(HEADER_SIZE + (land >>> 2)) >>> ((land & 3) * 2)) & 3;
+    }
+
+    /**
+     * @param land O valor de um terreno na memória do Ladrão.
+     * @return O código do terreno no arquivo.
+     */
+    private static int getCode(int land) {
+        if (land == -2 || land == -1) {
+            return UNKNOWN;
+        }
+        if (land == 1) {
+            return WALL;
+        }
+        if (land == 3) {
+            return BANK;
+        }
+        // O chão, ou o que está sobre ele só por um tempo.
+        return FLOOR;
+    }
+}
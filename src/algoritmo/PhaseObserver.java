@@ -0,0 +1,31 @@
+package algoritmo;
+
+/**
+ * Observa as rodadas de um Ladrão e as fases de cada "acao()", as mesmas
+ * dos eventos "AcaoPhaseEvent", por exemplo, para medir as alocações de
+ * cada fase. As chamadas acontecem na thread do Ladrão, e as fases podem
+ * ser aninhadas.
+ */
+interface PhaseObserver {
+    /**
+     * Chamado no início de "acao()".
+     */
+    void tickStarted();
+
+    /**
+     * Chamado no início de uma fase.
+     * 
+     * @param phase O nome da fase.
+     */
+    void phaseStarted(String phase);
+
+    /**
+     * Chamado ao fim da última fase iniciada.
+     */
+    void phaseEnded();
+
+    /**
+     * Chamado ao fim de "acao()", depois da última fase.
+     */
+    void tickEnded();
+}
@@ -0,0 +1,197 @@
+package algoritmo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A tabela de reservas de espaço e tempo compartilhada entre os Ladrões
+ * de uma mesma partida: cada Ladrão reserva os terrenos em que estará nas
+ * próximas rodadas, e os outros evitam esses terrenos nas mesmas rodadas,
+ * em vez de tratar os Ladrões como paredes e refazer os caminhos.
+ * 
+ * A tabela é um vetor circular de rodadas, indexado pela rodada módulo o
+ * horizonte, com algumas posições por rodada. Cada posição guarda, em um
+ * único "long", a rodada mais um (nos 32 bits altos), o dono (8 bits) e o
+ * terreno (24 bits), então uma reserva de uma rodada anterior é
+ * simplesmente ignorada, sem limpeza. Assim como "TeamMemory", as escritas
+ * não usam travas: cada reserva é feita por "compareAndSet", mesmo que os
+ * Ladrões sejam executados em threads diferentes, e uma consulta lê
+ * somente as posições de uma rodada.
+ */
+public class ReservationTable {
+    // O maior terreno representável e o maior dono.
+    private static final int MAX_LANDS = 1 << 24;
+    private static final int MAX_OWNERS = 1 << 8;
+
+    // A quantia de rodadas reservadas à frente (o tamanho do vetor circular).
+    private final int horizon;
+
+    // A quantia de posições de cada rodada.
+    private final int slotsPerTick;
+
+    // As reservas, "slotsPerTick" posições por rodada do horizonte.
+    private final AtomicLongArray slots;
+
+    // O próximo dono a entrar na tabela.
+    private final AtomicInteger nextOwner = new AtomicInteger();
+
+    /**
+     * Construtor base, cria uma tabela vazia.
+     * 
+     * @param agents  A quantia de Ladrões que reservam terrenos.
+     * @param horizon A quantia de rodadas reservadas à frente.
+     */
+    public ReservationTable(int agents, int horizon) {
+        if (agents <= 0 || agents >= MAX_OWNERS || horizon <= 1) {
+            throw new IllegalArgumentException("Tabela de reservas inválida: " + agents + " Ladrões, horizonte "
+                    + horizon);
+        }
+        this.horizon = horizon;
+        // Cada Ladrão ocupa um terreno por rodada; a folga evita que
+        // reservas disputadas ao mesmo tempo lotem a rodada.
+        this.slotsPerTick = 2 * agents;
+        this.slots = new AtomicLongArray(horizon * this.slotsPerTick);
+    }
+
+    /**
+     * @return A quantia de rodadas reservadas à frente.
+     */
+    public int getHorizon() {
+        return this.horizon;
+    }
+
+    /**
+     * Registra um novo Ladrão na tabela.
+     * 
+     * @param lands A quantia de terrenos do Labirinto do Ladrão.
+     * @return O identificador do Ladrão nas reservas.
+     */
+    public int join(int lands) {
+        if (lands > MAX_LANDS) {
+            throw new IllegalArgumentException("Labirinto grande demais para a tabela de reservas: " + lands);
+        }
+        int owner = this.nextOwner.getAndIncrement();
+        if (owner >= this.slotsPerTick / 2) {
+            throw new IllegalStateException("A tabela de reservas já tem " + owner + " Ladrões");
+        }
+        return owner;
+    }
+
+    /**
+     * Reserva um terreno em uma rodada, substituindo a reserva anterior do
+     * mesmo dono nessa rodada (um Ladrão ocupa um único terreno por vez).
+     * 
+     * @param owner O identificador do Ladrão.
+     * @param land  O identificador do terreno.
+     * @param tick  A rodada, entre a atual e a atual mais o horizonte.
+     * @return Um valor lógico referente à reserva ter sido feita, isto é,
+     *         o terreno não estava reservado por outro Ladrão.
+     */
+    public boolean reserve(int owner, int land, int tick) {
+        int base = (tick % this.horizon) * this.slotsPerTick;
+        long reservation = ((long) (tick + 1) << 32) | ((long) owner << 24) | land;
+        while (true) {
+            // Procura uma posição livre (vazia, de outra rodada ou a reserva
+            // anterior do dono), verificando se o terreno já está reservado.
+            int free = -1;
+            long freeValue = 0;
+            for (int i = 0; i < this.slotsPerTick; i++) {
+                long value = this.slots.get(base + i);
+                if (getTick(value) == tick) {
+                    if (getLand(value) == land) {
+                        return getOwner(value) == owner;
+                    }
+                    if (getOwner(value) == owner) {
+                        free = i;
+                        freeValue = value;
+                    }
+                } else if (free == -1) {
+                    free = i;
+                    freeValue = value;
+                }
+            }
+            if (free == -1) {
+                return false;
+            }
+            if (!this.slots.compareAndSet(base + free, freeValue, reservation)) {
+                // Outro Ladrão escreveu na posição; tenta de novo.
+                continue;
+            }
+            // Outro Ladrão pode ter reservado o mesmo terreno, ao mesmo
+            // tempo, em outra posição. Quem vê a outra reserva desiste: no
+            // pior caso, os dois desistem, mas nunca ficam os dois.
+            for (int i = 0; i < this.slotsPerTick; i++) {
+                long value = this.slots.get(base + i);
+                if (i != free && getTick(value) == tick && getLand(value) == land && getOwner(value) != owner) {
+                    this.slots.compareAndSet(base + free, reservation, 0);
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Verifica se um terreno está reservado por outro Ladrão em uma rodada.
+     * 
+     * @param owner O identificador do Ladrão que consulta.
+     * @param land  O identificador do terreno.
+     * @param tick  A rodada, entre a atual e a atual mais o horizonte.
+     * @return Um valor lógico referente à reserva de outro Ladrão.
+     */
+    public boolean isReservedByOther(int owner, int land, int tick) {
+        int base = (tick % this.horizon) * this.slotsPerTick;
+        for (int i = 0; i < this.slotsPerTick; i++) {
+            long value = this.slots.get(base + i);
+            if (getTick(value) == tick && getLand(value) == land && getOwner(value) != owner) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Desfaz as reservas de um Ladrão em um intervalo de rodadas, por
+     * exemplo, depois de o seu caminho encurtar.
+     * 
+     * @param owner     O identificador do Ladrão.
+     * @param firstTick A primeira rodada.
+     * @param lastTick  A última rodada (inclusive), menos de um horizonte
+     *                  depois da primeira.
+     */
+    public void release(int owner, int firstTick, int lastTick) {
+        for (int tick = firstTick; tick <= lastTick; tick++) {
+            int base = (tick % this.horizon) * this.slotsPerTick;
+            for (int i = 0; i < this.slotsPerTick; i++) {
+                long value = this.slots.get(base + i);
+                if (getTick(value) == tick && getOwner(value) == owner) {
+                    this.slots.compareAndSet(base + i, value, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param value Uma posição da tabela.
+     * @return A rodada da reserva, ou -1 caso a posição esteja vazia.
+     */
+    private static int getTick(long value) {
+        return (int) (value >>> 32) - 1;
+    }
+
+    /**
+     * @param value Uma posição da tabela.
+     * @return O dono da reserva.
+     */
+    private static int getOwner(long value) {
+        return (int) (value >>> 24) & (MAX_OWNERS - 1);
+    }
+
+    /**
+     * @param value Uma posição da tabela.
+     * @return O terreno da reserva.
+     */
+    private static int getLand(long value) {
+        return (int) value & (MAX_LANDS - 1);
+    }
+}
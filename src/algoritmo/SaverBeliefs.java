@@ -0,0 +1,309 @@
+package algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * A crença do Ladrão sobre a posição de cada Poupador: uma distribuição de
+ * probabilidade sobre os terrenos do Labirinto, mantida entre as rodadas.
+ * 
+ * A cada rodada, a crença se espalha para os vizinhos visitáveis (o
+ * Poupador pode ter andado) e é corrigida pelos sensores: a visão revela
+ * onde o Poupador está, ou onde ele não está, e o olfato concentra a
+ * crença perto do rastro mais recente.
+ * 
+ * Todos os vetores são alocados uma única vez. A crença é guardada sem
+ * normalizar, junto da sua massa total, e a normalização acontece dentro
+ * do próprio espalhamento, que já deixa preparadas as partes da rodada
+ * seguinte, então cada rodada custa uma única passada linear sobre o
+ * Labirinto por Poupador; o terreno mais provável só é procurado quando
+ * consultado.
+ * 
+ * As partes são calculadas com o grafo da rodada em que foram escritas,
+ * então um terreno que mudou no grafo ainda espalha a sua crença antiga
+ * por uma rodada, uma aproximação desprezível diante da própria incerteza
+ * sobre o Poupador.
+ */
+class SaverBeliefs {
+    // Os valores dos Poupadores na visão do Ladrão.
+    private static final int[] SAVERS = { 100, 110 };
+
+    // O quanto o rastro do olfato multiplica a crença ao redor dele.
+    private static final float SMELL_BOOST = 4f;
+
+    // A menor massa aceita antes de reiniciar a crença.
+    private static final float MIN_TOTAL = 1e-6f;
+
+    // A menor crença mantida em um terreno. As crenças espalhadas a partir
+    // de um único terreno decaem até os números "subnormais", cujas contas
+    // custam dezenas de vezes mais, então elas viram 0 bem antes disso.
+    private static final float MIN_BELIEF = 1e-20f;
+
+    // A parte da crença que cada terreno mantém (e dá a cada vizinho),
+    // indexada pelo "byte" do terreno no grafo: 0 fora do grafo e, nos
+    // vértices, 1 / (vizinhos visitáveis + 1).
+    private static final float[] SHARE_BY_VERTEX = new float[32];
+
+    static {
+        for (int edges = 0; edges < 16; edges++) {
+            SHARE_BY_VERTEX[Graph.VERTEX_FLAG | edges] = 1f / (Integer.bitCount(edges) + 1);
+        }
+    }
+
+    // O grafo da memória do Ladrão, que define os terrenos visitáveis.
+    private final Graph graph;
+
+    // A crença de cada Poupador (sem normalizar) e a sua massa total.
+    private final float[][] beliefs;
+    private final float[] totals;
+
+    // A parte de cada terreno que se espalha para cada um dos seus
+    // vizinhos na próxima rodada (sem normalizar), com uma linha de zeros
+    // acima e abaixo do Labirinto e uma coluna de zeros entre as linhas,
+    // para somar os vizinhos sem testar as bordas nem as arestas: os
+    // terrenos fora do grafo também dão 0. Cada Poupador tem dois vetores,
+    // um lido e o outro escrito pelo espalhamento, e "parities" indica o
+    // vetor a ser lido na próxima rodada.
+    private final float[][][] shares;
+    private final int[] parities;
+    private final int sharesStride;
+
+    // O terreno mais provável de cada Poupador, ou -1 caso ele tenha que
+    // ser procurado de novo.
+    private final int[] mostLikely;
+
+    /**
+     * Construtor base, começa com a crença uniforme sobre os terrenos
+     * visitáveis.
+     * 
+     * @param graph O grafo da memória do Ladrão.
+     */
+    SaverBeliefs(Graph graph) {
+        this.graph = graph;
+
+        int size = graph.width * graph.height;
+        this.beliefs = new float[SAVERS.length][size];
+        this.totals = new float[SAVERS.length];
+        this.sharesStride = graph.width + 1;
+        this.shares = new float[SAVERS.length][2][this.sharesStride * (graph.height + 2)];
+        this.parities = new int[SAVERS.length];
+        this.mostLikely = new int[SAVERS.length];
+        for (int saver = 0; saver < SAVERS.length; saver++) {
+            this.reset(saver);
+        }
+    }
+
+    /**
+     * Atualiza as crenças com uma rodada de movimento e as leituras
+     * dos sensores.
+     * 
+     * @param thiefX A coordenada "x" do Ladrão.
+     * @param thiefY A coordenada "y" do Ladrão.
+     * @param vision A visão do Ladrão (5x5, sem o centro).
+     * @param smell  O olfato dos Poupadores (3x3, sem o centro).
+     */
+    public void update(int thiefX, int thiefY, int[] vision, int[] smell) {
+        for (int saver = 0; saver < SAVERS.length; saver++) {
+            this.mostLikely[saver] = -1;
+            this.spread(saver);
+            if (this.observeVision(saver, thiefX, thiefY, vision)) {
+                // O Poupador está na visão: a crença já é exata.
+                continue;
+            }
+            this.observeSmell(saver, thiefX, thiefY, smell);
+            if (this.totals[saver] < MIN_TOTAL) {
+                // A visão descartou todos os terrenos possíveis, então o
+                // Poupador está em um lugar que o grafo ainda não admite.
+                this.reset(saver);
+                this.observeVision(saver, thiefX, thiefY, vision);
+            }
+        }
+    }
+
+    /**
+     * Espalha a crença de um Poupador, já normalizada: cada terreno mantém
+     * uma parte igual à de cada um dos seus vizinhos visitáveis, como em
+     * um passo aleatório. Na mesma passada, as partes da próxima rodada
+     * são escritas no outro vetor do Poupador.
+     * 
+     * @param saver A posição do Poupador (0 ou 1).
+     */
+    private void spread(int saver) {
+        float[] belief = this.beliefs[saver];
+        byte[] vertexes = this.graph.vertexes;
+        int width = this.graph.width;
+        int height = this.graph.height;
+        int stride = this.sharesStride;
+        float[] shares = this.shares[saver][this.parities[saver]];
+        float[] nextShares = this.shares[saver][this.parities[saver] ^ 1];
+        float scale = this.totals[saver] > 0f ? 1f / this.totals[saver] : 0f;
+        float total = 0f;
+        for (int y = 0, land = 0; y < height; y++) {
+            int share = (y + 1) * stride;
+            for (int x = 0; x < width; x++, land++, share++) {
+                // Um terreno fora do grafo não recebe crença, e a crença
+                // pequena demais vira 0.
+                int vertex = vertexes[land] & 0x1F;
+                float next = (shares[share] + shares[share - stride] + shares[share + stride] + shares[share - 1]
+                        + shares[share + 1]) * scale;
+                if ((vertex & Graph.VERTEX_FLAG) == 0 || next < MIN_BELIEF) {
+                    next = 0f;
+                }
+                belief[land] = next;
+                nextShares[share] = next * SHARE_BY_VERTEX[vertex];
+                total += next;
+            }
+        }
+        this.totals[saver] = total;
+        this.parities[saver] ^= 1;
+    }
+
+    /**
+     * Pega a posição de um terreno nos vetores de partes.
+     * 
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return O índice do terreno nos vetores de partes.
+     */
+    private int getShareIndex(int x, int y) {
+        return (y + 1) * this.sharesStride + x;
+    }
+
+    /**
+     * Escreve a crença de um terreno e a sua parte na próxima rodada.
+     * 
+     * @param saver  A posição do Poupador (0 ou 1).
+     * @param x      A coordenada "x" do terreno.
+     * @param y      A coordenada "y" do terreno.
+     * @param belief A nova crença do terreno.
+     */
+    private void setBelief(int saver, int x, int y, float belief) {
+        int land = this.graph.coordinatesToId(x, y);
+        this.beliefs[saver][land] = belief;
+        this.shares[saver][this.parities[saver]][this.getShareIndex(x, y)] = belief
+                * SHARE_BY_VERTEX[this.graph.vertexes[land] & 0x1F];
+    }
+
+    /**
+     * Corrige a crença de um Poupador pela visão do Ladrão.
+     * 
+     * @param saver  A posição do Poupador (0 ou 1).
+     * @param thiefX A coordenada "x" do Ladrão.
+     * @param thiefY A coordenada "y" do Ladrão.
+     * @param vision A visão do Ladrão.
+     * @return Um valor lógico referente ao Poupador estar na visão.
+     */
+    private boolean observeVision(int saver, int thiefX, int thiefY, int[] vision) {
+        float[] belief = this.beliefs[saver];
+        int visionIndex = 0;
+        for (int y = thiefY - 2; y <= thiefY + 2; y++) {
+            for (int x = thiefX - 2; x <= thiefX + 2; x++) {
+                int land = x == thiefX && y == thiefY ? 0 : vision[visionIndex++];
+                if (land == -2 || x < 0 || x >= this.graph.width || y < 0 || y >= this.graph.height) {
+                    continue;
+                }
+                int landId = this.graph.coordinatesToId(x, y);
+                if (land == SAVERS[saver]) {
+                    Arrays.fill(belief, 0f);
+                    Arrays.fill(this.shares[saver][this.parities[saver]], 0f);
+                    this.setBelief(saver, x, y, 1f);
+                    this.totals[saver] = 1f;
+                    this.mostLikely[saver] = landId;
+                    return true;
+                }
+                // O Poupador não está em um terreno visto.
+                this.totals[saver] -= belief[landId];
+                this.setBelief(saver, x, y, 0f);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Concentra a crença de um Poupador ao redor do rastro mais recente
+     * do olfato: um rastro de "n" rodadas está a até "n" passos dele.
+     * 
+     * @param saver  A posição do Poupador (0 ou 1).
+     * @param thiefX A coordenada "x" do Ladrão.
+     * @param thiefY A coordenada "y" do Ladrão.
+     * @param smell  O olfato dos Poupadores.
+     */
+    private void observeSmell(int saver, int thiefX, int thiefY, int[] smell) {
+        // Procura o rastro mais recente.
+        int smellX = 0;
+        int smellY = 0;
+        int minSmell = Integer.MAX_VALUE;
+        int smellIndex = 0;
+        for (int y = thiefY - 1; y <= thiefY + 1; y++) {
+            for (int x = thiefX - 1; x <= thiefX + 1; x++) {
+                if (x == thiefX && y == thiefY) {
+                    continue;
+                }
+                int age = smell[smellIndex++];
+                if (age > 0 && age < minSmell) {
+                    minSmell = age;
+                    smellX = x;
+                    smellY = y;
+                }
+            }
+        }
+        if (minSmell == Integer.MAX_VALUE) {
+            return;
+        }
+
+        // Multiplica a crença no losango ao redor do rastro.
+        float[] belief = this.beliefs[saver];
+        for (int y = Math.max(0, smellY - minSmell); y <= Math.min(this.graph.height - 1, smellY + minSmell); y++) {
+            int radius = minSmell - Math.abs(y - smellY);
+            for (int x = Math.max(0, smellX - radius); x <= Math.min(this.graph.width - 1, smellX + radius); x++) {
+                int land = this.graph.coordinatesToId(x, y);
+                this.totals[saver] += belief[land] * (SMELL_BOOST - 1);
+                this.setBelief(saver, x, y, belief[land] * SMELL_BOOST);
+            }
+        }
+    }
+
+    /**
+     * Reinicia a crença de um Poupador, uniforme sobre os terrenos
+     * visitáveis.
+     * 
+     * @param saver A posição do Poupador (0 ou 1).
+     */
+    private void reset(int saver) {
+        float total = 0f;
+        for (int y = 0; y < this.graph.height; y++) {
+            for (int x = 0; x < this.graph.width; x++) {
+                float belief = this.graph.hasVertex(this.graph.coordinatesToId(x, y)) ? 1f : 0f;
+                this.setBelief(saver, x, y, belief);
+                total += belief;
+            }
+        }
+        this.totals[saver] = total;
+        this.mostLikely[saver] = -1;
+    }
+
+    /**
+     * @param saver A posição do Poupador (0 ou 1).
+     * @return O identificador do terreno mais provável do Poupador.
+     */
+    public int getMostLikely(int saver) {
+        if (this.mostLikely[saver] == -1) {
+            float[] belief = this.beliefs[saver];
+            int best = 0;
+            for (int land = 1; land < belief.length; land++) {
+                if (belief[land] > belief[best]) {
+                    best = land;
+                }
+            }
+            this.mostLikely[saver] = best;
+        }
+        return this.mostLikely[saver];
+    }
+
+    /**
+     * @param saver A posição do Poupador (0 ou 1).
+     * @return A probabilidade do terreno mais provável do Poupador.
+     */
+    public float getMostLikelyProbability(int saver) {
+        return this.beliefs[saver][this.getMostLikely(saver)] / this.totals[saver];
+    }
+}
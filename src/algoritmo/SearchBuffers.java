@@ -0,0 +1,197 @@
+package algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Memória de trabalho das buscas no grafo.
+ * 
+ * É alocada uma única vez por Ladrão e reaproveitada a cada busca: os
+ * conjuntos "aberto" e "fechado" são invalidados trocando a "geração"
+ * da busca, sem a necessidade de limpar os vetores.
+ */
+class SearchBuffers {
+    // O custo ("g") de cada vértice, a partir da origem.
+    protected final int[] gScore;
+    // O vértice parente de cada vértice visitado.
+    protected final int[] roots;
+
+    // Armazena o último caminho reconstruído e o seu tamanho.
+    protected final int[] path;
+    protected int pathLength;
+
+    // A quantia de vértices expandidos pela última busca, e se ela foi
+    // interrompida pelo prazo, devolvendo um caminho parcial.
+    protected int expandedVertexes;
+    protected boolean isPathPartial;
+
+    // A geração em que o vértice entrou no "openSet" e no "closedSet".
+    private final int[] openStamp;
+    private final int[] closedStamp;
+    // A geração da busca atual.
+    private int generation;
+
+    // A "heap" binária do "openSet", a prioridade de cada vértice
+    // e a posição de cada vértice dentro da "heap".
+    private final int[] heap;
+    private final long[] priority;
+    private final int[] heapIndex;
+    private int heapSize;
+
+    /**
+     * Construtor base, aloca a memória para um grafo
+     * com uma quantia fixa de vértices.
+     * 
+     * @param size A quantia de vértices do grafo.
+     */
+    SearchBuffers(int size) {
+        this.gScore = new int[size];
+        this.roots = new int[size];
+        this.path = new int[size];
+        this.openStamp = new int[size];
+        this.closedStamp = new int[size];
+        this.heap = new int[size];
+        this.priority = new long[size];
+        this.heapIndex = new int[size];
+    }
+
+    /**
+     * Inicia uma nova busca, invalidando a anterior.
+     */
+    public void startSearch() {
+        this.heapSize = 0;
+        // Reinicia as marcações caso a geração chegue ao limite.
+        if (++this.generation == Integer.MAX_VALUE) {
+            Arrays.fill(this.openStamp, 0);
+            Arrays.fill(this.closedStamp, 0);
+            this.generation = 1;
+        }
+    }
+
+    /**
+     * Verifica se um vértice já foi descoberto na busca atual.
+     * 
+     * @param vertex O identificador do vértice.
+     * @return Um valor lógico referente à descoberta do vértice.
+     */
+    public boolean isOpen(int vertex) {
+        return this.openStamp[vertex] == this.generation;
+    }
+
+    /**
+     * Verifica se um vértice já foi expandido na busca atual.
+     * 
+     * @param vertex O identificador do vértice.
+     * @return Um valor lógico referente à expansão do vértice.
+     */
+    public boolean isClosed(int vertex) {
+        return this.closedStamp[vertex] == this.generation;
+    }
+
+    /**
+     * Adiciona um vértice ao "closedSet".
+     * 
+     * @param vertex O identificador do vértice.
+     */
+    public void close(int vertex) {
+        this.closedStamp[vertex] = this.generation;
+        this.expandedVertexes++;
+    }
+
+    /**
+     * Verifica se o "openSet" está vazio.
+     * 
+     * @return Um valor lógico referente ao "openSet" vazio.
+     */
+    public boolean isOpenSetEmpty() {
+        return this.heapSize == 0;
+    }
+
+    /**
+     * Adiciona um vértice ao "openSet", ou diminui a sua prioridade
+     * caso ele já esteja nele.
+     * 
+     * @param vertex     O identificador do vértice.
+     * @param g          O custo do vértice, a partir da origem.
+     * @param h          A distância estimada do vértice até o destino.
+     * @param tieBreaker Um valor aleatório, usado para desfazer empates.
+     */
+    public void push(int vertex, int g, int h, int tieBreaker) {
+        this.gScore[vertex] = g;
+        // Ordena por "f", depois por "h" e, por fim, pelo valor aleatório.
+        this.priority[vertex] = ((long) (g + h) << 42) | ((long) h << 21) | (tieBreaker & 0x1FFFFF);
+
+        // Insere o vértice no final da "heap", caso ele seja novo.
+        if (!this.isOpen(vertex)) {
+            this.openStamp[vertex] = this.generation;
+            this.heapIndex[vertex] = this.heapSize;
+            this.heap[this.heapSize++] = vertex;
+        }
+        this.siftUp(this.heapIndex[vertex]);
+    }
+
+    /**
+     * Remove e retorna o vértice de menor prioridade do "openSet".
+     * 
+     * @return O identificador do vértice.
+     */
+    public int pop() {
+        int vertex = this.heap[0];
+        int last = this.heap[--this.heapSize];
+        if (this.heapSize > 0) {
+            this.heap[0] = last;
+            this.heapIndex[last] = 0;
+            this.siftDown(0);
+        }
+        return vertex;
+    }
+
+    /**
+     * Sobe um elemento da "heap" até a sua posição.
+     * 
+     * @param index A posição do elemento na "heap".
+     */
+    private void siftUp(int index) {
+        int vertex = this.heap[index];
+        long vertexPriority = this.priority[vertex];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = this.heap[parentIndex];
+            if (this.priority[parent] <= vertexPriority) {
+                break;
+            }
+            this.heap[index] = parent;
+            this.heapIndex[parent] = index;
+            index = parentIndex;
+        }
+        this.heap[index] = vertex;
+        this.heapIndex[vertex] = index;
+    }
+
+    /**
+     * Desce um elemento da "heap" até a sua posição.
+     * 
+     * @param index A posição do elemento na "heap".
+     */
+    private void siftDown(int index) {
+        int vertex = this.heap[index];
+        long vertexPriority = this.priority[vertex];
+        int half = this.heapSize >>> 1;
+        while (index < half) {
+            int childIndex = 2 * index + 1;
+            int child = this.heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < this.heapSize && this.priority[this.heap[rightIndex]] < this.priority[child]) {
+                childIndex = rightIndex;
+                child = this.heap[childIndex];
+            }
+            if (vertexPriority <= this.priority[child]) {
+                break;
+            }
+            this.heap[index] = child;
+            this.heapIndex[child] = index;
+            index = childIndex;
+        }
+        this.heap[index] = vertex;
+        this.heapIndex[vertex] = index;
+    }
+}
@@ -0,0 +1,151 @@
+package algoritmo;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Grava as rodadas de um Ladrão em um arquivo binário compacto: as
+ * leituras dos sensores usadas na rodada (a visão, o olfato dos
+ * Poupadores, a posição e as moedas) e a direção devolvida, para que a
+ * partida seja reproduzida por "SensorReplay", sem o simulador.
+ * 
+ * O arquivo começa com um cabeçalho, com as dimensões do Labirinto, a
+ * semente e as configurações do Ladrão, seguido de um registro de
+ * tamanho fixo por rodada:
+ * 
+ * - a visão, 24 "bytes" com o valor de cada terreno mais 2;
+ * - o olfato dos Poupadores, 8 "bytes", também com cada valor mais 2;
+ * - a posição, "x" e "y" em 2 "bytes" cada;
+ * - as moedas, em 4 "bytes";
+ * - a direção devolvida, 1 "byte".
+ * 
+ * Os registros são acumulados em um "buffer" e escritos em blocos, sem
+ * alocações durante as rodadas.
+ */
+class SensorRecorder {
+    // A assinatura ("LTRC") e a versão do formato.
+    static final int MAGIC = 0x4C545243;
+    static final byte VERSION = 1;
+
+    // O tamanho do cabeçalho: assinatura, versão, largura, altura, semente,
+    // algoritmo, orçamento da rodada, orçamento do cache e crença.
+    static final int HEADER_SIZE = 4 + 1 + 2 + 2 + 8 + 1 + 8 + 4 + 1;
+
+    // As leituras de cada rodada e o tamanho do seu registro.
+    static final int VISION_SIZE = 24;
+    static final int SMELL_SIZE = 8;
+    static final int RECORD_SIZE = VISION_SIZE + SMELL_SIZE + 2 + 2 + 4 + 1;
+
+    // A quantia de registros escritos de uma vez no arquivo.
+    private static final int RECORDS_PER_BLOCK = 1024;
+
+    // O arquivo da gravação e os registros ainda não escritos.
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /**
+     * Construtor base, cria o arquivo e escreve o cabeçalho.
+     * 
+     * @param path    O caminho do arquivo (substituído, caso exista).
+     * @param width   A largura do Labirinto.
+     * @param height  A altura do Labirinto.
+     * @param seed    A semente do Ladrão.
+     * @param options As configurações do Ladrão.
+     * @throws IOException Caso o arquivo não possa ser criado.
+     */
+    SensorRecorder(Path path, int width, int height, long seed, ThiefOptions options) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * RECORDS_PER_BLOCK);
+        this.buffer.putInt(MAGIC);
+        this.buffer.put(VERSION);
+        this.buffer.putShort((short) width);
+        this.buffer.putShort((short) height);
+        this.buffer.putLong(seed);
+        this.buffer.put((byte) options.getPlanner().ordinal());
+        this.buffer.putLong(options.getTickBudgetNanos());
+        this.buffer.putInt(options.getFlowFieldCacheBytes());
+        this.buffer.put((byte) (options.isSaverBeliefsEnabled() ? 1 : 0));
+    }
+
+    /**
+     * Grava uma rodada.
+     * 
+     * @param sensor    O sensor lido pelo Ladrão na rodada.
+     * @param direction A direção devolvida pelo Ladrão.
+     * @throws UncheckedIOException Caso o arquivo não possa ser escrito
+     *                              ("acao()" não declara exceções).
+     */
+    void record(SensoresLadrao sensor, int direction) {
+        int[] vision = sensor.getVisaoIdentificacao();
+        int[] smell = sensor.getAmbienteOlfatoPoupador();
+        if (vision.length != VISION_SIZE || smell.length != SMELL_SIZE) {
+            throw new IllegalArgumentException("Sensores fora do formato da gravação: visão " + vision.length
+                    + ", olfato " + smell.length);
+        }
+        if (this.buffer.remaining() < RECORD_SIZE) {
+            this.flush();
+        }
+        for (int land : vision) {
+            this.buffer.put(toUnsignedByte(land + 2));
+        }
+        for (int age : smell) {
+            this.buffer.put(toUnsignedByte(age + 2));
+        }
+        Point position = sensor.getPosicao();
+        this.buffer.putShort((short) position.x);
+        this.buffer.putShort((short) position.y);
+        this.buffer.putInt(sensor.getNumeroDeMoedas());
+        this.buffer.put((byte) direction);
+    }
+
+    /**
+     * Converte um valor para um "byte" sem sinal.
+     * 
+     * @param value O valor, entre 0 e 255.
+     * @return O "byte" do valor.
+     */
+    private static byte toUnsignedByte(int value) {
+        if (value < 0 || value > 255) {
+            throw new IllegalArgumentException("Leitura fora do formato da gravação: " + value);
+        }
+        return (byte) value;
+    }
+
+    /**
+     * Escreve no arquivo os registros acumulados.
+     * 
+     * @throws UncheckedIOException Caso o arquivo não possa ser escrito.
+     */
+    private void flush() {
+        this.buffer.flip();
+        try {
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.buffer.clear();
+    }
+
+    /**
+     * Escreve os registros restantes e fecha o arquivo.
+     * 
+     * @throws IOException Caso o arquivo não possa ser escrito.
+     */
+    void close() throws IOException {
+        try {
+            this.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
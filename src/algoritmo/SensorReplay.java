@@ -0,0 +1,164 @@
+package algoritmo;
+
+import java.awt.Point;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reproduz uma gravação de "SensorRecorder": as leituras de cada rodada
+ * são entregues a um novo Ladrão, com a mesma semente e as mesmas
+ * configurações, e a direção escolhida é comparada com a gravada.
+ * 
+ * O arquivo é lido por um "buffer" mapeado em memória, então a reprodução
+ * não depende do simulador nem copia o arquivo, e mede somente o tempo
+ * de decisão do Ladrão. As rodadas com prazo ("tickBudgetNanos") dependem
+ * da velocidade da máquina e podem divergir da gravação.
+ */
+public class SensorReplay {
+    // Os registros da gravação, mapeados em memória.
+    private final ByteBuffer buffer;
+
+    // As dimensões do Labirinto, a semente e as configurações do Ladrão.
+    private final int width;
+    private final int height;
+    private final long seed;
+    private final ThiefOptions options;
+
+    // A quantia de rodadas gravadas.
+    private final int tickCount;
+
+    /**
+     * Construtor base, lê o cabeçalho de uma gravação já mapeada.
+     * 
+     * @param buffer A gravação.
+     * @param path   O caminho do arquivo, para as mensagens de erro.
+     * @throws IOException Caso o arquivo não seja uma gravação válida.
+     */
+    private SensorReplay(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.capacity() < SensorRecorder.HEADER_SIZE || buffer.getInt(0) != SensorRecorder.MAGIC) {
+            throw new IOException("Gravação inválida: " + path);
+        }
+        if (buffer.get(4) != SensorRecorder.VERSION) {
+            throw new IOException("Versão da gravação não suportada: " + buffer.get(4) + " (" + path + ")");
+        }
+        this.buffer = buffer;
+        this.width = buffer.getShort(5);
+        this.height = buffer.getShort(7);
+        this.seed = buffer.getLong(9);
+        this.options = new ThiefOptions();
+        this.options.setMazeSize(this.width, this.height);
+        this.options.setPlanner(ThiefOptions.Planner.values()[buffer.get(17)]);
+        this.options.setTickBudgetNanos(buffer.getLong(18));
+        this.options.setFlowFieldCacheBytes(buffer.getInt(26));
+        this.options.setSaverBeliefsEnabled(buffer.get(30) != 0);
+        // Um registro incompleto no fim (uma gravação interrompida) é ignorado.
+        this.tickCount = (buffer.capacity() - SensorRecorder.HEADER_SIZE) / SensorRecorder.RECORD_SIZE;
+    }
+
+    /**
+     * Abre uma gravação.
+     * 
+     * @param path O caminho do arquivo.
+     * @return A gravação, pronta para ser reproduzida.
+     * @throws IOException Caso o arquivo não possa ser lido ou não seja uma
+     *                     gravação válida.
+     */
+    public static SensorReplay open(Path path) throws IOException {
+        // O mapeamento continua válido depois de o canal ser fechado.
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new SensorReplay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path);
+        }
+    }
+
+    /**
+     * Cria um Ladrão igual ao gravado, com a mesma semente, as mesmas
+     * configurações e as dimensões do Labirinto gravado.
+     * 
+     * @return O Ladrão, antes da primeira rodada.
+     */
+    public Ladrao createThief() {
+        return new Ladrao(this.seed, this.options);
+    }
+
+    /**
+     * Entrega todas as rodadas gravadas a um Ladrão.
+     * 
+     * @param thief     O Ladrão, antes da primeira rodada (ver "createThief").
+     * @param tickNanos Recebe o tempo de "acao()" em cada rodada, em
+     *                  nanossegundos (pelo menos "getTickCount()" posições).
+     * @return A quantia de rodadas em que a direção escolhida foi diferente
+     *         da gravada.
+     */
+    public int replay(Ladrao thief, long[] tickNanos) {
+        this.attach(thief);
+        int mismatches = 0;
+        for (int tick = 0; tick < this.tickCount; tick++) {
+            int recordedDirection = this.load(thief, tick);
+            long start = System.nanoTime();
+            int direction = thief.acao();
+            tickNanos[tick] = System.nanoTime() - start;
+            if (direction != recordedDirection) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Troca os sensores de um Ladrão pelos que recebem as rodadas
+     * gravadas, alocados uma única vez, como no simulador.
+     * 
+     * @param thief O Ladrão, antes da primeira rodada (ver "createThief").
+     */
+    void attach(Ladrao thief) {
+        SensoresLadrao sensor = new SensoresLadrao();
+        sensor.setVisaoIdentificacao(new int[SensorRecorder.VISION_SIZE]);
+        sensor.setAmbienteOlfatoPoupador(new int[SensorRecorder.SMELL_SIZE]);
+        sensor.setAmbienteOlfatoLadrao(new int[SensorRecorder.SMELL_SIZE]);
+        sensor.setPosicao(new Point());
+        thief.sensor = sensor;
+    }
+
+    /**
+     * Preenche os sensores de um Ladrão com uma rodada gravada. O Ladrão
+     * deve ter recebido as rodadas anteriores, na ordem, antes de chamar
+     * "acao()" nesta.
+     * 
+     * @param thief O Ladrão, com os sensores de "attach".
+     * @param tick  A rodada.
+     * @return A direção gravada na rodada.
+     */
+    int load(Ladrao thief, int tick) {
+        int[] vision = thief.sensor.getVisaoIdentificacao();
+        int[] smell = thief.sensor.getAmbienteOlfatoPoupador();
+
+        // Lê o registro por posições absolutas, sem mover o "buffer".
+        int index = SensorRecorder.HEADER_SIZE + tick * SensorRecorder.RECORD_SIZE;
+        for (int i = 0; i < vision.length; i++) {
+            vision[i] = (this.buffer.get(index++) & 0xFF) - 2;
+        }
+        for (int i = 0; i < smell.length; i++) {
+            smell[i] = (this.buffer.get(index++) & 0xFF) - 2;
+        }
+        thief.sensor.getPosicao().setLocation(this.buffer.getShort(index), this.buffer.getShort(index + 2));
+        thief.sensor.setNumeroDeMoedas(this.buffer.getInt(index + 4));
+        return this.buffer.get(index + 8);
+    }
+
+    /**
+     * @return A quantia de rodadas gravadas.
+     */
+    public int getTickCount() {
+        return this.tickCount;
+    }
+
+    /**
+     * @return A semente do Ladrão gravado.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+}
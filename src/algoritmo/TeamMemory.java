@@ -0,0 +1,151 @@
+package algoritmo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A memória compartilhada entre os Ladrões de uma mesma partida: um único
+ * mapa do Labirinto, escrito por todos com o que cada um vê.
+ * 
+ * As escritas não usam travas: cada terreno é uma posição atômica e cada
+ * mudança recebe uma versão (um contador atômico) e entra em um registro
+ * circular de mudanças. Cada Ladrão lê o registro a partir da última versão
+ * que já aplicou, então atualiza somente os terrenos que mudaram, mesmo que
+ * os Ladrões sejam executados em threads diferentes.
+ */
+public class TeamMemory {
+    // As dimensões do Labirinto.
+    private final int width;
+    private final int height;
+
+    // O valor atual de cada terreno ("-2" para desconhecido).
+    private final AtomicIntegerArray lands;
+
+    // A quantia de mudanças já feitas, isto é, a próxima versão.
+    private final AtomicInteger version = new AtomicInteger();
+
+    // O registro circular das mudanças: cada posição guarda a versão
+    // da mudança mais um (nos 32 bits altos) e o terreno (nos baixos).
+    private final AtomicLongArray changes;
+
+    /**
+     * Construtor base, cria uma memória com todos os terrenos desconhecidos.
+     * 
+     * @param width  A largura do Labirinto.
+     * @param height A altura do Labirinto.
+     */
+    public TeamMemory(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.lands = new AtomicIntegerArray(width * height);
+        for (int land = 0; land < width * height; land++) {
+            this.lands.set(land, -2);
+        }
+        // Espaço para algumas rodadas de mudanças de todos os Ladrões.
+        this.changes = new AtomicLongArray(4 * width * height);
+    }
+
+    /**
+     * @return A largura do Labirinto.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return A altura do Labirinto.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Pega o valor atual de um terreno.
+     * 
+     * @param land O identificador do terreno ("y * largura + x").
+     * @return O valor do terreno, ou "-2" caso seja desconhecido.
+     */
+    public int get(int land) {
+        return this.lands.get(land);
+    }
+
+    /**
+     * Escreve o valor de um terreno, registrando a mudança caso ele
+     * seja diferente do anterior.
+     * 
+     * @param land  O identificador do terreno ("y * largura + x").
+     * @param value O novo valor do terreno.
+     */
+    public void set(int land, int value) {
+        if (this.lands.getAndSet(land, value) != value) {
+            int changeVersion = this.version.getAndIncrement();
+            this.changes.set(changeVersion % this.changes.length(), ((long) (changeVersion + 1) << 32) | land);
+        }
+    }
+
+    /**
+     * @return A quantia de mudanças já feitas na memória.
+     */
+    public int getVersion() {
+        return this.version.get();
+    }
+
+    /**
+     * @return Um novo leitor das mudanças, a partir da versão atual.
+     */
+    public Reader newReader() {
+        return new Reader(this.getVersion());
+    }
+
+    /**
+     * Lê as mudanças da memória compartilhada, na ordem das versões, a
+     * partir da última versão lida. Cada Ladrão possui o seu próprio leitor.
+     */
+    public class Reader {
+        // A próxima versão a ser lida.
+        private int cursor;
+
+        /**
+         * Construtor base.
+         * 
+         * @param cursor A primeira versão a ser lida.
+         */
+        private Reader(int cursor) {
+            this.cursor = cursor;
+        }
+
+        /**
+         * Pega os terrenos que mudaram desde a última leitura.
+         * 
+         * Uma mudança cuja versão já foi reservada, mas ainda não foi
+         * registrada por quem a escreveu, encerra a leitura; ela é lida
+         * na próxima chamada.
+         * 
+         * @param changedLands Recebe os identificadores dos terrenos que
+         *                     mudaram (podem se repetir).
+         * @return A quantia de terrenos em "changedLands", ou -1 caso o
+         *         leitor tenha ficado para trás e perdido mudanças, isto
+         *         é, a memória inteira deve ser relida.
+         */
+        public int poll(int[] changedLands) {
+            int changedLandsSize = 0;
+            int length = TeamMemory.this.changes.length();
+            while (changedLandsSize < changedLands.length && this.cursor < TeamMemory.this.version.get()) {
+                long change = TeamMemory.this.changes.get(this.cursor % length);
+                int changeTag = (int) (change >>> 32);
+                if (changeTag < this.cursor + 1) {
+                    // A mudança ainda não foi registrada.
+                    break;
+                } else if (changeTag > this.cursor + 1) {
+                    // A mudança foi sobrescrita por uma mais nova.
+                    this.cursor = TeamMemory.this.version.get();
+                    return -1;
+                }
+                changedLands[changedLandsSize++] = (int) change;
+                this.cursor++;
+            }
+            return changedLandsSize;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package algoritmo;
+
+/**
+ * As configurações de um Ladrão, usadas para comparar variantes
+ * do agente (por exemplo, em um torneio sem interface gráfica).
+ */
+public class ThiefOptions {
+    /**
+     * Os algoritmos disponíveis para o caminho até os objetivos do Ladrão
+     * (o Poupador perseguido e o objetivo de exploração).
+     */
+    public enum Planner {
+        // Lê o primeiro passo da busca em largura única da rodada.
+        DISTANCE_FIELD,
+        // Reaproveita a busca entre as rodadas (D* Lite).
+        D_STAR_LITE,
+        // Refaz a busca a cada rodada (A*).
+        A_STAR,
+        // Refaz a busca a cada rodada, expandindo somente os pontos de
+        // salto dos corredores ("Jump Point Search").
+        JUMP_POINT_SEARCH,
+        // Refaz a busca a cada rodada sobre as entradas dos blocos do
+        // Labirinto, refinando somente o bloco do Ladrão (HPA*).
+        HIERARCHICAL
+    }
+
+    // O algoritmo do caminho até os objetivos do Ladrão.
+    private Planner planner = Planner.DISTANCE_FIELD;
+
+    // As dimensões do Labirinto (por padrão, as do Labirinto do jogo).
+    private int mazeWidth = 30;
+    private int mazeHeight = 30;
+
+    // O orçamento de tempo de cada rodada, em nanossegundos (0 para
+    // rodadas sem prazo, em que as buscas sempre terminam).
+    private long tickBudgetNanos;
+
+    // O orçamento de memória do cache de campos de direção dos objetivos
+    // de exploração, em bytes (0 para desligar o cache).
+    private int flowFieldCacheBytes = 64 * 1024;
+
+    // Se o Ladrão mantém a crença sobre a posição dos Poupadores entre as
+    // rodadas, perseguindo o terreno mais provável quando não os vê.
+    private boolean saverBeliefsEnabled = false;
+
+    // A memória compartilhada entre os Ladrões da partida (nula para
+    // que cada Ladrão explore com a sua própria memória).
+    private TeamMemory teamMemory;
+
+    // A tabela de reservas compartilhada entre os Ladrões da partida (nula
+    // para que cada Ladrão trate os outros como paredes).
+    private ReservationTable reservationTable;
+
+    // O terreno aprendido nas partidas anteriores no mesmo Labirinto (nulo
+    // para que o Ladrão comece sem conhecer nada).
+    private MapStore mapStore;
+
+    /**
+     * @return O algoritmo do caminho até os objetivos do Ladrão.
+     */
+    public Planner getPlanner() {
+        return this.planner;
+    }
+
+    /**
+     * @param planner O algoritmo do caminho até os objetivos do Ladrão.
+     */
+    public void setPlanner(Planner planner) {
+        this.planner = planner;
+    }
+
+    /**
+     * @return A largura do Labirinto.
+     */
+    public int getMazeWidth() {
+        return this.mazeWidth;
+    }
+
+    /**
+     * @return A altura do Labirinto.
+     */
+    public int getMazeHeight() {
+        return this.mazeHeight;
+    }
+
+    /**
+     * Define as dimensões do Labirinto, que o Ladrão não consegue
+     * descobrir pelos sensores, e que definem o tamanho da sua memória.
+     * 
+     * @param mazeWidth  A largura do Labirinto.
+     * @param mazeHeight A altura do Labirinto.
+     */
+    public void setMazeSize(int mazeWidth, int mazeHeight) {
+        if (mazeWidth <= 0 || mazeHeight <= 0) {
+            throw new IllegalArgumentException("Dimensões inválidas para o Labirinto: " + mazeWidth + "x"
+                    + mazeHeight);
+        }
+        this.mazeWidth = mazeWidth;
+        this.mazeHeight = mazeHeight;
+    }
+
+    /**
+     * @return A memória compartilhada entre os Ladrões da partida, ou nulo.
+     */
+    public TeamMemory getTeamMemory() {
+        return this.teamMemory;
+    }
+
+    /**
+     * @param teamMemory A memória compartilhada entre os Ladrões da partida,
+     *                   ou nulo para que cada Ladrão use a sua própria.
+     */
+    public void setTeamMemory(TeamMemory teamMemory) {
+        this.teamMemory = teamMemory;
+    }
+
+    /**
+     * @return A tabela de reservas compartilhada entre os Ladrões da
+     *         partida, ou nulo.
+     */
+    public ReservationTable getReservationTable() {
+        return this.reservationTable;
+    }
+
+    /**
+     * @param reservationTable A tabela de reservas compartilhada entre os
+     *                         Ladrões da partida, ou nulo para que cada
+     *                         Ladrão trate os outros como paredes.
+     */
+    public void setReservationTable(ReservationTable reservationTable) {
+        this.reservationTable = reservationTable;
+    }
+
+    /**
+     * @return O terreno aprendido nas partidas anteriores, ou nulo.
+     */
+    public MapStore getMapStore() {
+        return this.mapStore;
+    }
+
+    /**
+     * @param mapStore O terreno aprendido nas partidas anteriores no mesmo
+     *                 Labirinto, lido na criação do Ladrão e atualizado
+     *                 por "Ladrao.saveMap", ou nulo para que o Ladrão
+     *                 comece sem conhecer nada.
+     */
+    public void setMapStore(MapStore mapStore) {
+        this.mapStore = mapStore;
+    }
+
+    /**
+     * @return O orçamento de tempo de cada rodada, em nanossegundos
+     *         (0 para rodadas sem prazo).
+     */
+    public long getTickBudgetNanos() {
+        return this.tickBudgetNanos;
+    }
+
+    /**
+     * Define o orçamento de tempo de cada rodada. Quando ele acaba, as
+     * buscas devolvem o melhor caminho parcial (ou a direção da rodada
+     * anterior) e o D* Lite continua a sua busca na rodada seguinte.
+     * 
+     * Com um orçamento, as escolhas do Ladrão passam a depender da
+     * velocidade da máquina, então partidas com a mesma semente podem
+     * deixar de ser reproduzíveis.
+     * 
+     * @param tickBudgetNanos O orçamento de tempo de cada rodada, em
+     *                        nanossegundos (0 para rodadas sem prazo).
+     */
+    public void setTickBudgetNanos(long tickBudgetNanos) {
+        this.tickBudgetNanos = tickBudgetNanos;
+    }
+
+    /**
+     * @return O orçamento de memória do cache de campos de direção, em
+     *         bytes (0 com o cache desligado).
+     */
+    public int getFlowFieldCacheBytes() {
+        return this.flowFieldCacheBytes;
+    }
+
+    /**
+     * Liga o cache de campos de direção dos objetivos de exploração, em
+     * que cada campo ocupa um "byte" por terreno do Labirinto. O cache só
+     * é usado com o algoritmo "DISTANCE_FIELD" e quando o orçamento
+     * comporta ao menos 16 campos.
+     * 
+     * @param flowFieldCacheBytes O orçamento de memória do cache, em bytes
+     *                            (0 para desligar o cache).
+     */
+    public void setFlowFieldCacheBytes(int flowFieldCacheBytes) {
+        this.flowFieldCacheBytes = flowFieldCacheBytes;
+    }
+
+    /**
+     * @return Se o Ladrão mantém a crença sobre a posição dos Poupadores.
+     */
+    public boolean isSaverBeliefsEnabled() {
+        return this.saverBeliefsEnabled;
+    }
+
+    /**
+     * Liga a crença sobre a posição dos Poupadores, atualizada a cada
+     * rodada pela visão e pelo olfato do Ladrão.
+     * 
+     * @param saverBeliefsEnabled Se o Ladrão mantém a crença.
+     */
+    public void setSaverBeliefsEnabled(boolean saverBeliefsEnabled) {
+        this.saverBeliefsEnabled = saverBeliefsEnabled;
+    }
+}
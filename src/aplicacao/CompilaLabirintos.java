@@ -0,0 +1,34 @@
+package aplicacao;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import simulacao.Maze;
+
+/**
+ * Converte Labirintos do formato de texto para o formato binário de
+ * "Maze", que é carregado mapeando o arquivo em memória.
+ * 
+ * Uso: CompilaLabirintos labirinto.txt...
+ * 
+ * Cada "labirinto.txt" gera um "labirinto.lab" na mesma pasta, aceito
+ * por "ExecutaSimulacao" e "ExecutaTorneio" no lugar do arquivo de texto.
+ */
+public class CompilaLabirintos {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("Uso: CompilaLabirintos labirinto.txt...");
+			System.exit(2);
+		}
+		for (String arg : args) {
+			Path source = Paths.get(arg);
+			String name = source.getFileName().toString().replaceFirst("\\.txt$", "") + ".lab";
+			Path destiny = source.resolveSibling(name);
+			Maze maze = Maze.load(source);
+			maze.writeBinary(destiny);
+			System.out.printf("%s -> %s (%dx%d)%n", source, destiny, maze.getWidth(), maze.getHeight());
+		}
+	}
+}
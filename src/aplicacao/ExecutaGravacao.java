@@ -0,0 +1,73 @@
+package aplicacao;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import algoritmo.SensorReplay;
+
+/**
+ * Reproduz gravações das rodadas de um Ladrão (ver "ExecutaSimulacao
+ * -gravar"), sem o simulador, e mostra o tempo de decisão por rodada.
+ * 
+ * Uso: ExecutaGravacao [-repeticoes N] gravação...
+ * 
+ * Com "-repeticoes", cada gravação é reproduzida N vezes, cada uma com um
+ * novo Ladrão, para medir o tempo com a JVM já aquecida. O programa
+ * termina com o código 1 caso alguma direção seja diferente da gravada.
+ */
+public class ExecutaGravacao {
+
+	public static void main(String[] args) throws IOException {
+		int repetitions = 1;
+		int firstPath = 0;
+		while (firstPath < args.length && args[firstPath].startsWith("-")) {
+			if (args[firstPath].equals("-repeticoes")) {
+				repetitions = Integer.parseInt(args[firstPath + 1]);
+				firstPath += 2;
+			} else {
+				throw new IllegalArgumentException("Opção desconhecida: " + args[firstPath]);
+			}
+		}
+		if (firstPath == args.length) {
+			System.err.println("Uso: ExecutaGravacao [-repeticoes N] gravação...");
+			System.exit(2);
+		}
+
+		long totalMismatches = 0;
+		for (int i = firstPath; i < args.length; i++) {
+			SensorReplay replay = SensorReplay.open(Paths.get(args[i]));
+			int ticks = replay.getTickCount();
+			long[] tickNanos = new long[ticks * repetitions];
+			long[] repetitionNanos = new long[ticks];
+			int mismatches = 0;
+			for (int repetition = 0; repetition < repetitions; repetition++) {
+				mismatches = replay.replay(replay.createThief(), repetitionNanos);
+				System.arraycopy(repetitionNanos, 0, tickNanos, repetition * ticks, ticks);
+			}
+			totalMismatches += mismatches;
+
+			Arrays.sort(tickNanos);
+			long total = 0;
+			for (long nanos : tickNanos) {
+				total += nanos;
+			}
+			System.out.printf("%s: %d rodadas, %d divergências, média %.2f µs, p50 %.2f µs, p99 %.2f µs, "
+					+ "máximo %.2f µs%n", args[i], ticks, mismatches, ticks == 0 ? 0 : total / 1e3 / tickNanos.length,
+					percentile(tickNanos, 0.5) / 1e3, percentile(tickNanos, 0.99) / 1e3,
+					percentile(tickNanos, 1) / 1e3);
+		}
+		if (totalMismatches > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @param sorted   Os valores, em ordem crescente.
+	 * @param fraction A fração dos valores abaixo do percentil (0 a 1).
+	 * @return O percentil dos valores, ou 0 caso não haja valores.
+	 */
+	private static long percentile(long[] sorted, double fraction) {
+		return sorted.length == 0 ? 0 : sorted[(int) (fraction * (sorted.length - 1))];
+	}
+}
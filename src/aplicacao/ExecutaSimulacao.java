@@ -0,0 +1,215 @@
+package aplicacao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import algoritmo.Ladrao;
+import algoritmo.MapStore;
+import algoritmo.ThiefOptions;
+import simulacao.Maze;
+import simulacao.MatchResult;
+import simulacao.Tournament;
+
+/**
+ * Executa partidas sem interface gráfica, o mais rápido possível.
+ * 
+ * Uso: ExecutaSimulacao [-partidas N] [-semente S] [-prazo µs] [-jfr arquivo.jfr] [-gravar pasta]
+ *             [-paralelo] [-mapas pasta] labirinto...
+ * 
+ * Com "-prazo", cada rodada do Ladrão recebe um orçamento de tempo, em
+ * microssegundos, após o qual as buscas devolvem um caminho parcial.
+ * 
+ * Com "-jfr", as partidas são gravadas pelo Java Flight Recorder (as
+ * rodadas do Ladrão, as suas fases e as buscas A*) e um resumo do tempo
+ * gasto em cada fase é mostrado ao final.
+ * 
+ * Com "-gravar", as rodadas de cada Ladrão são gravadas na pasta, um
+ * arquivo por Ladrão e partida, para serem reproduzidas por
+ * "ExecutaGravacao".
+ * 
+ * Com "-paralelo", os seis agentes de cada rodada decidem ao mesmo tempo,
+ * sobre o mesmo estado do Labirinto, e as jogadas são aplicadas depois
+ * (ver "Simulation.setAgentExecutor").
+ * 
+ * Com "-mapas", os Ladrões começam cada partida com o terreno aprendido
+ * nas partidas anteriores no mesmo Labirinto, guardado na pasta (ver
+ * "MapStore"), e o atualizam ao fim de cada partida.
+ */
+public class ExecutaSimulacao {
+
+	public static void main(String[] args) throws IOException {
+		int matches = 10;
+		long seed = 1;
+		long tickBudgetMicros = 0;
+		Path recordingPath = null;
+		Path sensorLogDirectory = null;
+		boolean parallel = false;
+		Path mapDirectory = null;
+		List<String> mazes = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-partidas")) {
+				matches = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-semente")) {
+				seed = Long.parseLong(args[++i]);
+			} else if (args[i].equals("-prazo")) {
+				tickBudgetMicros = Long.parseLong(args[++i]);
+			} else if (args[i].equals("-jfr")) {
+				recordingPath = Paths.get(args[++i]);
+			} else if (args[i].equals("-gravar")) {
+				sensorLogDirectory = Paths.get(args[++i]);
+			} else if (args[i].equals("-paralelo")) {
+				parallel = true;
+			} else if (args[i].equals("-mapas")) {
+				mapDirectory = Paths.get(args[++i]);
+			} else {
+				mazes.add(args[i]);
+			}
+		}
+		if (mazes.isEmpty()) {
+			mazes.add("Labirintos/Labirinto.txt");
+		}
+		// A reprodução de uma gravação não tem o terreno aprendido.
+		if (sensorLogDirectory != null && mapDirectory != null) {
+			System.err.println("As opções -gravar e -mapas não podem ser usadas juntas");
+			System.exit(2);
+		}
+
+		ThiefOptions options = new ThiefOptions();
+		options.setTickBudgetNanos(tickBudgetMicros * 1000);
+
+		Recording recording = null;
+		if (recordingPath != null) {
+			recording = new Recording();
+			recording.enable("algoritmo.Acao").withoutThreshold();
+			recording.enable("algoritmo.AcaoPhase").withoutThreshold();
+			recording.enable("algoritmo.AStar").withoutThreshold();
+			recording.setDestination(recordingPath);
+			recording.start();
+		}
+
+		if (sensorLogDirectory != null) {
+			Files.createDirectories(sensorLogDirectory);
+		}
+
+		// Uma thread por agente da rodada.
+		ForkJoinPool agentExecutor = parallel ? new ForkJoinPool(6) : null;
+
+		for (String path : mazes) {
+			Maze maze = Maze.load(path);
+			// Os Ladrões são dimensionados pelo Labirinto.
+			options.setMazeSize(maze.getWidth(), maze.getHeight());
+			if (mapDirectory != null) {
+				options.setMapStore(new MapStore(mapDirectory, maze.getFingerprint()));
+			}
+			String mazeName = Paths.get(path).getFileName().toString().replaceFirst("\\.(txt|lab)$", "");
+			long agentTicks = 0;
+			long thiefCoins = 0;
+			long hits = 0;
+			long misses = 0;
+			// Os Ladrões da partida atual, descartados ao fim dela: nos
+			// Labirintos grandes, cada um ocupa centenas de megabytes.
+			List<Ladrao> thieves = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int match = 0; match < matches; match++) {
+				thieves.clear();
+				final Path matchLogPrefix = sensorLogDirectory == null ? null
+						: sensorLogDirectory.resolve(mazeName + "-" + match);
+				MatchResult result = Tournament.play(path, maze, "Ladrao", thiefSeed -> {
+					Ladrao thief = new Ladrao(thiefSeed, options);
+					if (matchLogPrefix != null) {
+						int thiefIndex = thieves.size();
+						try {
+							thief.startRecording(Paths.get(matchLogPrefix + "-" + thiefIndex + ".ltrc"));
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					}
+					thieves.add(thief);
+					return thief;
+				}, seed + match, agentExecutor);
+				for (Ladrao thief : thieves) {
+					thief.stopRecording();
+					if (mapDirectory != null) {
+						thief.saveMap();
+					}
+					hits += thief.getFlowFieldCacheHits();
+					misses += thief.getFlowFieldCacheMisses();
+				}
+				agentTicks += result.getAgentTicks();
+				thiefCoins += result.getThiefCoins();
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.printf("%s: %d partidas, %.0f rodadas de agente/s, %.1f moedas roubadas por partida%n",
+					path, matches, agentTicks / seconds, (double) thiefCoins / matches);
+			if (hits + misses > 0) {
+				System.out.printf("  campos de direção: %d acertos, %d falhas (%.1f%% de acertos)%n", hits, misses,
+						100.0 * hits / (hits + misses));
+			}
+		}
+
+		if (agentExecutor != null) {
+			agentExecutor.shutdown();
+		}
+
+		if (recording != null) {
+			// Grava o arquivo ao parar.
+			recording.stop();
+			recording.close();
+			printPhases(recordingPath);
+		}
+	}
+
+	/**
+	 * Mostra, a partir de uma gravação, a quantia de eventos e o tempo
+	 * médio, o percentil 99 e o máximo de cada fase da rodada do Ladrão.
+	 * 
+	 * @param recordingPath O arquivo da gravação.
+	 * @throws IOException Caso a gravação não possa ser lida.
+	 */
+	private static void printPhases(Path recordingPath) throws IOException {
+		// As durações de cada fase, em nanossegundos.
+		Map<String, List<Long>> phases = new TreeMap<>();
+		for (RecordedEvent event : RecordingFile.readAllEvents(recordingPath)) {
+			String name = event.getEventType().getName();
+			String phase;
+			if (name.equals("algoritmo.Acao")) {
+				phase = "acao";
+			} else if (name.equals("algoritmo.AcaoPhase")) {
+				phase = event.getString("phase");
+			} else if (name.equals("algoritmo.AStar")) {
+				phase = "Graph.AStar";
+			} else {
+				continue;
+			}
+			phases.computeIfAbsent(phase, key -> new ArrayList<>()).add(event.getDuration().toNanos());
+		}
+
+		System.out.printf("%n%-28s %10s %12s %12s %12s%n", "fase", "eventos", "média (µs)", "p99 (µs)",
+				"máximo (µs)");
+		for (Map.Entry<String, List<Long>> phase : phases.entrySet()) {
+			List<Long> durations = phase.getValue();
+			Collections.sort(durations);
+			long total = 0;
+			for (long duration : durations) {
+				total += duration;
+			}
+			System.out.printf("%-28s %10d %12.2f %12.2f %12.2f%n", phase.getKey(), durations.size(),
+					total / 1e3 / durations.size(), durations.get((int) (0.99 * (durations.size() - 1))) / 1e3,
+					durations.get(durations.size() - 1) / 1e3);
+		}
+		System.out.println("Gravação salva em " + recordingPath);
+	}
+}
@@ -0,0 +1,125 @@
+package aplicacao;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import algoritmo.Ladrao;
+import algoritmo.ReservationTable;
+import algoritmo.TeamMemory;
+import algoritmo.ThiefOptions;
+import simulacao.Maze;
+import simulacao.MatchResult;
+import simulacao.Tournament;
+
+/**
+ * Executa um torneio sem interface gráfica entre as variantes do Ladrão,
+ * em todos os Labirintos, com as partidas distribuídas entre os núcleos.
+ * 
+ * Uso: ExecutaTorneio [-sementes N] [-threads T] [labirinto...]
+ */
+public class ExecutaTorneio {
+
+	public static void main(String[] args) throws IOException {
+		int seeds = 10;
+		int threads = Runtime.getRuntime().availableProcessors();
+		List<String> mazes = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-sementes")) {
+				seeds = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-threads")) {
+				threads = Integer.parseInt(args[++i]);
+			} else {
+				mazes.add(args[i]);
+			}
+		}
+		if (mazes.isEmpty()) {
+			// Por padrão, todos os Labirintos da pasta "Labirintos".
+			File[] files = new File("Labirintos").listFiles((dir, name) -> name.endsWith(".txt"));
+			if (files != null) {
+				Arrays.sort(files);
+				for (File file : files) {
+					mazes.add(file.getPath());
+				}
+			}
+		}
+
+		Tournament tournament = new Tournament();
+		tournament.setSeeds(seeds);
+		for (String path : mazes) {
+			// Usa o Labirinto compilado por "CompilaLabirintos", caso exista.
+			File compiled = new File(path.replaceFirst("\\.txt$", ".lab"));
+			String loadedPath = path.endsWith(".txt") && compiled.isFile() ? compiled.getPath() : path;
+			tournament.addMaze(new File(path).getName(), Maze.load(loadedPath));
+		}
+		tournament.addVariant("distance-field", maze -> seed -> new Ladrao(seed, createOptions(maze)));
+		tournament.addVariant("dstar-lite", maze -> seed -> {
+			ThiefOptions options = createOptions(maze);
+			options.setPlanner(ThiefOptions.Planner.D_STAR_LITE);
+			return new Ladrao(seed, options);
+		});
+		tournament.addVariant("a-star", maze -> seed -> {
+			ThiefOptions options = createOptions(maze);
+			options.setPlanner(ThiefOptions.Planner.A_STAR);
+			return new Ladrao(seed, options);
+		});
+		tournament.addVariant("jump-point-search", maze -> seed -> {
+			ThiefOptions options = createOptions(maze);
+			options.setPlanner(ThiefOptions.Planner.JUMP_POINT_SEARCH);
+			return new Ladrao(seed, options);
+		});
+		tournament.addVariant("hpa-star", maze -> seed -> {
+			ThiefOptions options = createOptions(maze);
+			options.setPlanner(ThiefOptions.Planner.HIERARCHICAL);
+			return new Ladrao(seed, options);
+		});
+		tournament.addVariant("saver-beliefs", maze -> seed -> {
+			ThiefOptions options = createOptions(maze);
+			options.setSaverBeliefsEnabled(true);
+			return new Ladrao(seed, options);
+		});
+		tournament.addVariant("team-memory", maze -> {
+			// Uma memória por partida, compartilhada pelos quatro Ladrões.
+			TeamMemory teamMemory = new TeamMemory(maze.getWidth(), maze.getHeight());
+			return seed -> {
+				ThiefOptions options = createOptions(maze);
+				options.setTeamMemory(teamMemory);
+				return new Ladrao(seed, options);
+			};
+		});
+		tournament.addVariant("reservation-table", maze -> {
+			// Uma tabela por partida, com oito rodadas à frente.
+			ReservationTable reservationTable = new ReservationTable(4, 8);
+			return seed -> {
+				ThiefOptions options = createOptions(maze);
+				options.setReservationTable(reservationTable);
+				return new Ladrao(seed, options);
+			};
+		});
+
+		long start = System.nanoTime();
+		List<MatchResult> results = tournament.run(threads);
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		long agentTicks = 0;
+		for (MatchResult result : results) {
+			agentTicks += result.getAgentTicks();
+		}
+		System.out.print(Tournament.report(results));
+		System.out.printf("%d partidas em %.2f s com %d threads, %.0f rodadas de agente/s%n",
+				results.size(), seconds, threads, agentTicks / seconds);
+	}
+
+	/**
+	 * @param maze O Labirinto da partida.
+	 * @return As configurações padrão do Ladrão, com as dimensões do
+	 *         Labirinto.
+	 */
+	private static ThiefOptions createOptions(Maze maze) {
+		ThiefOptions options = new ThiefOptions();
+		options.setMazeSize(maze.getWidth(), maze.getHeight());
+		return options;
+	}
+}
@@ -0,0 +1,81 @@
+package aplicacao;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import simulacao.Maze;
+import simulacao.MazeGenerator;
+
+/**
+ * Gera um Labirinto aleatório no formato de texto de "Labirintos/", para
+ * medir o Ladrão em Labirintos maiores que os do jogo.
+ * 
+ * Uso: GeraLabirinto [-tamanho LxA] [-corredores D] [-ciclos C] [-moedas M] [-pastilhas P]
+ *             [-semente S] [-binario] labirinto.txt
+ * 
+ * "-corredores" é a fração das salas abertas pelos corredores (0 a 1) e
+ * "-ciclos", a fração das paredes entre salas abertas removidas depois
+ * (0 para um Labirinto sem ciclos). A mesma semente gera sempre o mesmo
+ * Labirinto. Com "-binario", também é salvo o "labirinto.lab", como por
+ * "CompilaLabirintos".
+ */
+public class GeraLabirinto {
+
+	public static void main(String[] args) throws IOException {
+		int width = 30;
+		int height = 30;
+		double corridorDensity = 1;
+		double loopRatio = 0.1;
+		int coins = 20;
+		int powerPellets = 2;
+		long seed = 1;
+		boolean binary = false;
+		Path output = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-tamanho")) {
+				String[] size = args[++i].split("x");
+				width = Integer.parseInt(size[0]);
+				height = Integer.parseInt(size[size.length - 1]);
+			} else if (args[i].equals("-corredores")) {
+				corridorDensity = Double.parseDouble(args[++i]);
+			} else if (args[i].equals("-ciclos")) {
+				loopRatio = Double.parseDouble(args[++i]);
+			} else if (args[i].equals("-moedas")) {
+				coins = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-pastilhas")) {
+				powerPellets = Integer.parseInt(args[++i]);
+			} else if (args[i].equals("-semente")) {
+				seed = Long.parseLong(args[++i]);
+			} else if (args[i].equals("-binario")) {
+				binary = true;
+			} else if (args[i].startsWith("-")) {
+				throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+			} else {
+				output = Paths.get(args[i]);
+			}
+		}
+		if (output == null) {
+			System.err.println("Uso: GeraLabirinto [-tamanho LxA] [-corredores D] [-ciclos C] [-moedas M] "
+					+ "[-pastilhas P] [-semente S] [-binario] labirinto.txt");
+			System.exit(2);
+		}
+
+		MazeGenerator generator = new MazeGenerator(width, height);
+		generator.setCorridorDensity(corridorDensity);
+		generator.setLoopRatio(loopRatio);
+		generator.setCoins(coins);
+		generator.setPowerPellets(powerPellets);
+		generator.setSeed(seed);
+
+		long start = System.nanoTime();
+		Maze maze = generator.generate();
+		double generationMillis = (System.nanoTime() - start) / 1e6;
+		maze.writeText(output);
+		if (binary) {
+			maze.writeBinary(output.resolveSibling(output.getFileName().toString().replaceFirst("\\.txt$", "")
+					+ ".lab"));
+		}
+		System.out.printf("%s (%dx%d) gerado em %.1f ms%n", output, width, height, generationMillis);
+	}
+}
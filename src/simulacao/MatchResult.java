@@ -0,0 +1,73 @@
+package simulacao;
+
+/**
+ * O resultado de uma partida de um torneio.
+ */
+public class MatchResult {
+    // O Labirinto, a variante dos Ladrões e a semente da partida.
+    private final String maze;
+    private final String variant;
+    private final long seed;
+
+    // As moedas em mãos dos Ladrões ao fim da partida.
+    private final int thiefCoins;
+
+    // A rodada do primeiro roubo com moedas (-1 caso não haja).
+    private final int firstTheftTick;
+
+    // A fração dos terrenos vistos por algum Ladrão.
+    private final double explorationCoverage;
+
+    // As rodadas de agente executadas.
+    private final long agentTicks;
+
+    /**
+     * Construtor do resultado de uma partida.
+     * 
+     * @param maze                O nome do Labirinto.
+     * @param variant             O nome da variante dos Ladrões.
+     * @param seed                A semente da partida.
+     * @param thiefCoins          As moedas em mãos dos Ladrões.
+     * @param firstTheftTick      A rodada do primeiro roubo, ou -1.
+     * @param explorationCoverage A fração dos terrenos vistos.
+     * @param agentTicks          As rodadas de agente executadas.
+     */
+    public MatchResult(String maze, String variant, long seed, int thiefCoins, int firstTheftTick,
+            double explorationCoverage, long agentTicks) {
+        this.maze = maze;
+        this.variant = variant;
+        this.seed = seed;
+        this.thiefCoins = thiefCoins;
+        this.firstTheftTick = firstTheftTick;
+        this.explorationCoverage = explorationCoverage;
+        this.agentTicks = agentTicks;
+    }
+
+    public String getMaze() {
+        return this.maze;
+    }
+
+    public String getVariant() {
+        return this.variant;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public int getThiefCoins() {
+        return this.thiefCoins;
+    }
+
+    public int getFirstTheftTick() {
+        return this.firstTheftTick;
+    }
+
+    public double getExplorationCoverage() {
+        return this.explorationCoverage;
+    }
+
+    public long getAgentTicks() {
+        return this.agentTicks;
+    }
+}
@@ -0,0 +1,342 @@
+package simulacao;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Representação imutável de um Labirinto, isto é, o conteúdo
+ * inicial de cada terreno (paredes, moedas, banco e a posição
+ * inicial dos agentes).
+ * 
+ * Os terrenos são guardados linha a linha, com o identificador
+ * "y * largura + x", o mesmo usado pelos grafos do Ladrão, um "byte" por
+ * terreno, seguidos da máscara das direções dos vizinhos que não são
+ * paredes, também um "byte" por terreno.
+ * 
+ * O Labirinto pode ser salvo em um formato binário com exatamente esse
+ * conteúdo ("writeBinary"), que é carregado mapeando o arquivo em memória,
+ * sem interpretar texto. Os terrenos são lidos somente por posições
+ * absolutas, então um mesmo Labirinto é compartilhado, sem cópias, pelas
+ * partidas executadas em paralelo.
+ */
+public class Maze {
+    // A assinatura ("LABR", que nunca inicia um arquivo de texto) e a
+    // versão do formato binário, e o tamanho do seu cabeçalho
+    // (assinatura, versão, largura e altura).
+    private static final int MAGIC = 0x4C414252;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    // O deslocamento de cada direção (1 cima, 2 baixo, 3 direita e
+    // 4 esquerda), com o bit "direção - 1" na máscara dos vizinhos.
+    private static final int[] DIRECTION_X = { 0, 0, 0, 1, -1 };
+    private static final int[] DIRECTION_Y = { 0, -1, 1, 0, 0 };
+
+    // O valor das paredes e do banco.
+    private static final int WALL = 1;
+    private static final int BANK = 3;
+
+    // As dimensões do Labirinto.
+    private final int width;
+    private final int height;
+
+    // O conteúdo inicial dos terrenos e a máscara dos vizinhos de cada um,
+    // somente para leitura.
+    private final ByteBuffer lands;
+    private final ByteBuffer neighborMasks;
+
+    /**
+     * Construtor base do Labirinto.
+     * 
+     * @param width  A largura do Labirinto.
+     * @param height A altura do Labirinto.
+     * @param lands  O conteúdo dos terrenos, linha a linha.
+     */
+    public Maze(int width, int height, int[] lands) {
+        if (width <= 0 || height <= 0 || lands.length != width * height) {
+            throw new IllegalArgumentException("Dimensões inválidas para o Labirinto: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 * lands.length);
+        for (int land = 0; land < lands.length; land++) {
+            if (lands[land] < 0 || lands[land] > 255) {
+                throw new IllegalArgumentException("Terreno inválido para o Labirinto: " + lands[land]);
+            }
+            buffer.put(land, (byte) lands[land]);
+        }
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int mask = 0;
+                for (int direction = 1; direction <= 4; direction++) {
+                    int neighborX = x + DIRECTION_X[direction];
+                    int neighborY = y + DIRECTION_Y[direction];
+                    if (0 <= neighborX && neighborX < width && 0 <= neighborY && neighborY < height
+                            && lands[neighborY * width + neighborX] != WALL) {
+                        mask |= 1 << (direction - 1);
+                    }
+                }
+                buffer.put(lands.length + y * width + x, (byte) mask);
+            }
+        }
+        this.lands = slice(buffer, 0, lands.length);
+        this.neighborMasks = slice(buffer, lands.length, lands.length);
+    }
+
+    /**
+     * Construtor de um Labirinto já codificado no formato binário.
+     * 
+     * @param width  A largura do Labirinto.
+     * @param height A altura do Labirinto.
+     * @param buffer Os terrenos e as máscaras dos vizinhos, a partir da
+     *               posição 0 (sem o cabeçalho).
+     */
+    private Maze(int width, int height, ByteBuffer buffer) {
+        this.width = width;
+        this.height = height;
+        this.lands = slice(buffer, 0, width * height);
+        this.neighborMasks = slice(buffer, width * height, width * height);
+    }
+
+    /**
+     * Pega um trecho de um "buffer", somente para leitura.
+     * 
+     * @param buffer O "buffer".
+     * @param offset O início do trecho.
+     * @param length O tamanho do trecho.
+     * @return O trecho, com a posição 0 no seu início.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.limit(offset + length);
+        return duplicate.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Carrega um Labirinto no formato dos arquivos de "Labirintos/",
+     * uma linha por "y", com os terrenos separados por espaços, ou no
+     * formato binário de "writeBinary".
+     * 
+     * @param path O caminho do arquivo.
+     * @return O Labirinto carregado.
+     * @throws IOException Caso o arquivo não possa ser lido.
+     */
+    public static Maze load(String path) throws IOException {
+        return load(Paths.get(path));
+    }
+
+    /**
+     * Carrega um Labirinto no formato dos arquivos de "Labirintos/" ou no
+     * formato binário, reconhecido pela assinatura no início do arquivo.
+     * 
+     * @param path O caminho do arquivo.
+     * @return O Labirinto carregado.
+     * @throws IOException Caso o arquivo não possa ser lido.
+     */
+    public static Maze load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) != -1) {
+                // Lê até os 4 "bytes" da assinatura, ou o fim do arquivo.
+            }
+            if (!magic.hasRemaining() && magic.getInt(0) == MAGIC) {
+                return loadBinary(path, channel);
+            }
+        }
+        return loadText(path);
+    }
+
+    /**
+     * Carrega um Labirinto no formato binário, mapeando o arquivo em
+     * memória. O mapeamento continua válido depois de o canal ser fechado.
+     * 
+     * @param path    O caminho do arquivo, para as mensagens de erro.
+     * @param channel O arquivo.
+     * @return O Labirinto carregado.
+     * @throws IOException Caso o arquivo não possa ser lido ou esteja
+     *                     incompleto.
+     */
+    private static Maze loadBinary(Path path, FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Labirinto binário incompleto: " + path);
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Versão do Labirinto binário não suportada: " + header.getInt(4) + " (" + path
+                    + ")");
+        }
+        int width = header.getInt(8);
+        int height = header.getInt(12);
+        long size = 2L * width * height;
+        if (width <= 0 || height <= 0 || channel.size() != HEADER_SIZE + size) {
+            throw new IOException("Labirinto binário incompleto: " + path);
+        }
+        return new Maze(width, height, channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size));
+    }
+
+    /**
+     * Carrega um Labirinto no formato de texto dos arquivos de "Labirintos/".
+     * 
+     * @param path O caminho do arquivo.
+     * @return O Labirinto carregado.
+     * @throws IOException Caso o arquivo não possa ser lido.
+     */
+    private static Maze loadText(Path path) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                // Ignora as linhas vazias (por exemplo, no fim do arquivo).
+                if (!line.isEmpty()) {
+                    rows.add(line.split("\\s+"));
+                }
+            }
+        }
+        if (rows.isEmpty()) {
+            throw new IOException("Labirinto vazio: " + path);
+        }
+
+        int width = rows.get(0).length;
+        int height = rows.size();
+        int[] lands = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            String[] row = rows.get(y);
+            if (row.length != width) {
+                throw new IOException("Linha " + (y + 1) + " com " + row.length + " terrenos, esperado " + width
+                        + ": " + path);
+            }
+            for (int x = 0; x < width; x++) {
+                try {
+                    lands[y * width + x] = Integer.parseInt(row[x]);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Terreno inválido na linha " + (y + 1) + ": " + row[x], e);
+                }
+            }
+        }
+        return new Maze(width, height, lands);
+    }
+
+    /**
+     * Salva o Labirinto no formato binário: o cabeçalho (assinatura,
+     * versão, largura e altura), os terrenos e as máscaras dos vizinhos.
+     * 
+     * @param path O caminho do arquivo (substituído, caso exista).
+     * @throws IOException Caso o arquivo não possa ser escrito.
+     */
+    public void writeBinary(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(this.width).putInt(this.height).flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (ByteBuffer buffer : new ByteBuffer[] { header, this.lands.duplicate(),
+                    this.neighborMasks.duplicate() }) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Salva o Labirinto no formato de texto dos arquivos de "Labirintos/",
+     * uma linha por linha do Labirinto, com os terrenos separados por
+     * espaços.
+     * 
+     * @param path O caminho do arquivo (substituído, caso exista).
+     * @throws IOException Caso o arquivo não possa ser escrito.
+     */
+    public void writeText(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            StringBuilder row = new StringBuilder(4 * this.width + 1);
+            for (int y = 0; y < this.height; y++) {
+                row.setLength(0);
+                for (int x = 0; x < this.width; x++) {
+                    row.append(this.getLand(x, y)).append(' ');
+                }
+                writer.append(row).append('\n');
+            }
+        }
+    }
+
+    /**
+     * @return A largura do Labirinto.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return A altura do Labirinto.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Calcula a impressão digital do terreno estático do Labirinto: as
+     * dimensões e a posição das paredes e do banco, sem os agentes, as
+     * moedas e as pastilhas, então dois Labirintos com as mesmas paredes
+     * e o mesmo banco têm a mesma impressão digital.
+     * 
+     * @return A impressão digital (FNV-1a de 64 bits).
+     */
+    public long getFingerprint() {
+        long hash = 0xCBF29CE484222325L;
+        hash = (hash ^ this.width) * 0x100000001B3L;
+        hash = (hash ^ this.height) * 0x100000001B3L;
+        for (int land = 0; land < this.width * this.height; land++) {
+            int value = this.lands.get(land) & 0xFF;
+            hash = (hash ^ (value == WALL || value == BANK ? value : 0)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Pega o conteúdo inicial de um terreno.
+     * 
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return O conteúdo do terreno.
+     */
+    public int getLand(int x, int y) {
+        return this.lands.get(y * this.width + x) & 0xFF;
+    }
+
+    /**
+     * Pega a máscara das direções dos vizinhos de um terreno que não são
+     * paredes (nem fora do Labirinto), com o bit "direção - 1" para cada
+     * uma das direções 1 (cima), 2 (baixo), 3 (direita) e 4 (esquerda).
+     * 
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return A máscara de 4 bits dos vizinhos.
+     */
+    public int getNeighborMask(int x, int y) {
+        return this.neighborMasks.get(y * this.width + x);
+    }
+
+    /**
+     * Copia o conteúdo inicial dos terrenos para um vetor,
+     * usado como estado de uma nova partida.
+     * 
+     * @param destiny O vetor que receberá os terrenos.
+     */
+    public void copyLands(int[] destiny) {
+        for (int land = 0; land < this.lands.capacity(); land++) {
+            destiny[land] = this.lands.get(land) & 0xFF;
+        }
+    }
+}
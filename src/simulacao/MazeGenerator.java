@@ -0,0 +1,410 @@
+package simulacao;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import controle.Constantes;
+
+/**
+ * Gera Labirintos aleatórios, de qualquer tamanho, com os mesmos valores
+ * dos arquivos de "Labirintos/" (parede, banco, moedas, pastilhas do
+ * poder e a posição inicial dos agentes), para medir o Ladrão em
+ * Labirintos maiores e mais difíceis que os do jogo.
+ * 
+ * Os terrenos de coordenadas pares são as salas, e os de coordenadas
+ * ímpares, as paredes entre elas. Uma busca em profundidade aleatória
+ * abre as paredes entre as salas, formando corredores longos sem ciclos,
+ * até abrir a fração das salas pedida pela densidade dos corredores;
+ * depois, uma fração das paredes restantes entre salas abertas é
+ * removida, formando ciclos. O banco, intransponível, fica num beco sem
+ * saída, e todos os terrenos livres ficam conectados, o que é conferido
+ * ao fim da geração.
+ * 
+ * A geração percorre cada terreno um número constante de vezes (salvo
+ * quando não há becos para o banco), sem recursão, e o mesmo conjunto de
+ * parâmetros e semente gera sempre o mesmo Labirinto.
+ */
+public class MazeGenerator {
+    // O deslocamento de cada direção (1 cima, 2 baixo, 3 direita e
+    // 4 esquerda).
+    private static final int[] DIRECTION_X = { 0, 0, 0, 1, -1 };
+    private static final int[] DIRECTION_Y = { 0, -1, 1, 0, 0 };
+
+    // Os valores dos terrenos, os mesmos do simulador.
+    private static final int FREE = Constantes.posicaoLivre;
+    private static final int WALL = Constantes.numeroParede;
+    private static final int BANK = Constantes.numeroBanco;
+    private static final int COIN = Constantes.numeroMoeda;
+    private static final int POWER_PELLET = Constantes.numeroPastinhaPoder;
+    private static final int[] AGENT_CODES = { Constantes.numeroPoupador01, Constantes.numeroPoupador02,
+            Constantes.numeroLadrao01, Constantes.numeroLadrao02, Constantes.numeroLadrao03,
+            Constantes.numeroLadrao04 };
+
+    // As dimensões do Labirinto.
+    private final int width;
+    private final int height;
+
+    // A fração das salas abertas pelos corredores (entre 0 e 1).
+    private double corridorDensity = 1;
+
+    // A fração das paredes entre salas abertas removidas depois dos
+    // corredores, formando ciclos (0 para um Labirinto sem ciclos).
+    private double loopRatio = 0.1;
+
+    // A quantia de moedas e de pastilhas do poder.
+    private int coins = 20;
+    private int powerPellets = 2;
+
+    // A semente do gerador.
+    private long seed = 1;
+
+    /**
+     * Construtor base do gerador.
+     * 
+     * @param width  A largura do Labirinto.
+     * @param height A altura do Labirinto.
+     */
+    public MazeGenerator(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Dimensões inválidas para o Labirinto: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param corridorDensity A fração das salas abertas pelos corredores,
+     *                        maior que 0 e até 1.
+     */
+    public void setCorridorDensity(double corridorDensity) {
+        if (!(corridorDensity > 0 && corridorDensity <= 1)) {
+            throw new IllegalArgumentException("Densidade dos corredores fora de (0, 1]: " + corridorDensity);
+        }
+        this.corridorDensity = corridorDensity;
+    }
+
+    /**
+     * @param loopRatio A fração das paredes entre salas abertas removidas,
+     *                  entre 0 e 1.
+     */
+    public void setLoopRatio(double loopRatio) {
+        if (!(loopRatio >= 0 && loopRatio <= 1)) {
+            throw new IllegalArgumentException("Fração dos ciclos fora de [0, 1]: " + loopRatio);
+        }
+        this.loopRatio = loopRatio;
+    }
+
+    /**
+     * @param coins A quantia de moedas espalhadas pelo Labirinto.
+     */
+    public void setCoins(int coins) {
+        if (coins < 0) {
+            throw new IllegalArgumentException("Quantia de moedas negativa: " + coins);
+        }
+        this.coins = coins;
+    }
+
+    /**
+     * @param powerPellets A quantia de pastilhas do poder espalhadas pelo
+     *                     Labirinto.
+     */
+    public void setPowerPellets(int powerPellets) {
+        if (powerPellets < 0) {
+            throw new IllegalArgumentException("Quantia de pastilhas negativa: " + powerPellets);
+        }
+        this.powerPellets = powerPellets;
+    }
+
+    /**
+     * @param seed A semente do gerador.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gera um Labirinto com os parâmetros atuais.
+     * 
+     * @return O Labirinto gerado.
+     * @throws IllegalArgumentException Caso os terrenos livres não
+     *                                  comportem o banco, os agentes, as
+     *                                  moedas e as pastilhas.
+     * @throws IllegalStateException    Caso algum terreno livre fique
+     *                                  isolado dos demais.
+     */
+    public Maze generate() {
+        Random random = new Random(this.seed);
+        int[] lands = new int[this.width * this.height];
+        Arrays.fill(lands, WALL);
+
+        this.carveCorridors(lands, random);
+        this.openLoops(lands, random);
+        this.placeItems(lands, random);
+        if (!this.isConnected(lands)) {
+            throw new IllegalStateException("O Labirinto gerado tem terrenos livres isolados");
+        }
+        return new Maze(this.width, this.height, lands);
+    }
+
+    /**
+     * Abre os corredores por uma busca em profundidade aleatória a partir
+     * da sala central, com uma pilha explícita.
+     * 
+     * @param lands  Os terrenos, todos paredes.
+     * @param random O gerador.
+     */
+    private void carveCorridors(int[] lands, Random random) {
+        int roomsX = (this.width + 1) / 2;
+        int roomsY = (this.height + 1) / 2;
+        long target = Math.max(1, Math.round(this.corridorDensity * roomsX * roomsY));
+
+        int[] stack = new int[roomsX * roomsY];
+        int[] candidates = new int[4];
+        int start = (this.height / 2 & ~1) * this.width + (this.width / 2 & ~1);
+        lands[start] = FREE;
+        stack[0] = start;
+        int stackSize = 1;
+        long opened = 1;
+        while (stackSize > 0 && opened < target) {
+            int room = stack[stackSize - 1];
+            int x = room % this.width;
+            int y = room / this.width;
+
+            // As salas vizinhas ainda fechadas.
+            int candidatesSize = 0;
+            for (int direction = 1; direction <= 4; direction++) {
+                int nextX = x + 2 * DIRECTION_X[direction];
+                int nextY = y + 2 * DIRECTION_Y[direction];
+                if (0 <= nextX && nextX < this.width && 0 <= nextY && nextY < this.height
+                        && lands[nextY * this.width + nextX] == WALL) {
+                    candidates[candidatesSize++] = direction;
+                }
+            }
+            if (candidatesSize == 0) {
+                stackSize--;
+                continue;
+            }
+
+            // Abre a parede até a sala sorteada e continua a partir dela.
+            int direction = candidates[random.nextInt(candidatesSize)];
+            lands[(y + DIRECTION_Y[direction]) * this.width + x + DIRECTION_X[direction]] = FREE;
+            int next = (y + 2 * DIRECTION_Y[direction]) * this.width + x + 2 * DIRECTION_X[direction];
+            lands[next] = FREE;
+            stack[stackSize++] = next;
+            opened++;
+        }
+    }
+
+    /**
+     * Remove uma fração das paredes que separam duas salas abertas.
+     * 
+     * @param lands  Os terrenos, com os corredores abertos.
+     * @param random O gerador.
+     */
+    private void openLoops(int[] lands, Random random) {
+        if (this.loopRatio == 0) {
+            return;
+        }
+        for (int y = 0; y < this.height; y++) {
+            // As paredes entre salas têm uma coordenada par e a outra ímpar.
+            for (int x = (y + 1) & 1; x < this.width; x += 2) {
+                int land = y * this.width + x;
+                if (lands[land] != WALL) {
+                    continue;
+                }
+                boolean separatesRooms = (y & 1) == 0
+                        ? x + 1 < this.width && lands[land - 1] != WALL && lands[land + 1] != WALL
+                        : y + 1 < this.height && lands[land - this.width] != WALL
+                                && lands[land + this.width] != WALL;
+                if (separatesRooms && random.nextDouble() < this.loopRatio) {
+                    lands[land] = FREE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Coloca o banco, os agentes, as moedas e as pastilhas em terrenos
+     * livres distintos. O banco fica perto da posição do banco no jogo,
+     * para a qual o Ladrão volta quando não tem outro objetivo, sem
+     * separar os terrenos livres (ver "chooseBank").
+     * 
+     * @param lands  Os terrenos, com os corredores e os ciclos abertos.
+     * @param random O gerador.
+     */
+    private void placeItems(int[] lands, Random random) {
+        int freeSize = 0;
+        for (int land : lands) {
+            if (land == FREE) {
+                freeSize++;
+            }
+        }
+        int required = 1 + AGENT_CODES.length + this.coins + this.powerPellets;
+        if (freeSize < required) {
+            throw new IllegalArgumentException("O Labirinto tem " + freeSize + " terrenos livres, mas precisa de "
+                    + required + " (banco, agentes, moedas e pastilhas)");
+        }
+
+        // Os terrenos livres, com o banco na primeira posição.
+        int[] free = new int[freeSize];
+        freeSize = 0;
+        for (int land = 0; land < lands.length; land++) {
+            if (lands[land] == FREE) {
+                free[freeSize++] = land;
+            }
+        }
+        int bank = this.chooseBank(lands, free);
+        int bankLand = free[bank];
+        free[bank] = free[0];
+        free[0] = bankLand;
+        lands[bankLand] = BANK;
+
+        // Sorteia os demais terrenos, embaralhando somente o início do vetor.
+        int next = 1;
+        for (int code : AGENT_CODES) {
+            lands[this.takeRandom(free, next++, random)] = code;
+        }
+        for (int coin = 0; coin < this.coins; coin++) {
+            lands[this.takeRandom(free, next++, random)] = COIN;
+        }
+        for (int pellet = 0; pellet < this.powerPellets; pellet++) {
+            lands[this.takeRandom(free, next++, random)] = POWER_PELLET;
+        }
+    }
+
+    /**
+     * Escolhe o terreno do banco. O banco é intransponível, então fica no
+     * beco sem saída (um terreno livre com um único vizinho livre) mais
+     * próximo da posição do banco no jogo, que nunca separa os demais
+     * terrenos livres. Sem becos (somente com muitos ciclos), fica no
+     * terreno livre mais próximo cuja remoção mantém os demais conectados.
+     * 
+     * @param lands Os terrenos, com os corredores e os ciclos abertos.
+     * @param free  Os terrenos livres.
+     * @return A posição do banco entre os terrenos livres.
+     */
+    private int chooseBank(int[] lands, int[] free) {
+        int bankX = Math.min(Constantes.posicaoBanco.x, this.width - 1);
+        int bankY = Math.min(Constantes.posicaoBanco.y, this.height - 1);
+        int deadEnd = -1;
+        int deadEndDistance = Integer.MAX_VALUE;
+        long[] candidates = new long[free.length];
+        for (int index = 0; index < free.length; index++) {
+            int land = free[index];
+            int distance = Math.abs(land % this.width - bankX) + Math.abs(land / this.width - bankY);
+            if (distance < deadEndDistance && this.countFreeNeighbors(lands, land) == 1) {
+                deadEndDistance = distance;
+                deadEnd = index;
+            }
+            candidates[index] = (long) distance << 32 | index;
+        }
+        if (deadEnd >= 0) {
+            return deadEnd;
+        }
+
+        // Confere os terrenos em ordem de distância, até um que não separe
+        // os demais.
+        Arrays.sort(candidates);
+        for (long candidate : candidates) {
+            int index = (int) candidate;
+            int land = free[index];
+            lands[land] = BANK;
+            boolean connected = this.isConnected(lands);
+            lands[land] = FREE;
+            if (connected) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("Nenhum terreno livre comporta o banco sem separar o Labirinto");
+    }
+
+    /**
+     * @param lands Os terrenos.
+     * @param land  O identificador de um terreno.
+     * @return A quantia de vizinhos do terreno que não são paredes nem o
+     *         banco.
+     */
+    private int countFreeNeighbors(int[] lands, int land) {
+        int x = land % this.width;
+        int y = land / this.width;
+        int count = 0;
+        for (int direction = 1; direction <= 4; direction++) {
+            int nextX = x + DIRECTION_X[direction];
+            int nextY = y + DIRECTION_Y[direction];
+            if (0 <= nextX && nextX < this.width && 0 <= nextY && nextY < this.height
+                    && isPassable(lands[nextY * this.width + nextX])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Confere, por uma busca em largura com uma fila explícita, se todos
+     * os terrenos transponíveis estão conectados.
+     * 
+     * @param lands Os terrenos.
+     * @return Um valor lógico referente à conexão dos terrenos.
+     */
+    private boolean isConnected(int[] lands) {
+        int[] queue = new int[lands.length];
+        boolean[] visited = new boolean[lands.length];
+        int total = 0;
+        int start = -1;
+        for (int land = 0; land < lands.length; land++) {
+            if (isPassable(lands[land])) {
+                total++;
+                start = land;
+            }
+        }
+        if (start < 0) {
+            return true;
+        }
+        visited[start] = true;
+        queue[0] = start;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int land = queue[head++];
+            int x = land % this.width;
+            int y = land / this.width;
+            for (int direction = 1; direction <= 4; direction++) {
+                int nextX = x + DIRECTION_X[direction];
+                int nextY = y + DIRECTION_Y[direction];
+                int next = nextY * this.width + nextX;
+                if (0 <= nextX && nextX < this.width && 0 <= nextY && nextY < this.height && !visited[next]
+                        && isPassable(lands[next])) {
+                    visited[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return tail == total;
+    }
+
+    /**
+     * @param land O valor de um terreno.
+     * @return Um valor lógico referente à passagem dos agentes pelo
+     *         terreno (tudo, menos as paredes e o banco).
+     */
+    private static boolean isPassable(int land) {
+        return land != WALL && land != BANK;
+    }
+
+    /**
+     * Sorteia um terreno entre os ainda não sorteados, movendo-o para a
+     * posição fornecida (um passo do embaralhamento de Fisher-Yates).
+     * 
+     * @param free   Os terrenos livres.
+     * @param index  A posição do sorteio; as anteriores já foram sorteadas.
+     * @param random O gerador.
+     * @return O terreno sorteado.
+     */
+    private int takeRandom(int[] free, int index, Random random) {
+        int chosen = index + random.nextInt(free.length - index);
+        int land = free[chosen];
+        free[chosen] = free[index];
+        free[index] = land;
+        return land;
+    }
+}
@@ -0,0 +1,49 @@
+package simulacao;
+
+import java.util.Random;
+
+import algoritmo.ProgramaPoupador;
+
+/**
+ * Um Poupador substituto, usado nas simulações sem interface gráfica.
+ * 
+ * Anda ao acaso entre os terrenos vizinhos que não são paredes nem
+ * estão fora do Labirinto, o que basta para dar aos Ladrões alvos em
+ * movimento.
+ */
+public class RandomSaver extends ProgramaPoupador {
+    // As posições da visão vizinhas ao Poupador, por direção
+    // (1 cima, 2 baixo, 3 direita e 4 esquerda).
+    private static final int[] NEIGHBOR_VISION = { -1, 7, 16, 12, 11 };
+
+    // Responsável pelas escolhas do Poupador.
+    private final Random random;
+
+    // As direções possíveis na rodada atual.
+    private final int[] directions = new int[5];
+
+    /**
+     * Construtor do Poupador substituto.
+     * 
+     * @param seed A semente do gerador de números aleatórios.
+     */
+    public RandomSaver(long seed) {
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public int acao() {
+        int[] vision = this.sensor.getVisaoIdentificacao();
+
+        // Ficar parado é sempre possível.
+        int count = 0;
+        this.directions[count++] = 0;
+        for (int direction = 1; direction <= 4; direction++) {
+            int land = vision[NEIGHBOR_VISION[direction]];
+            if (land != -1 && land != 1) {
+                this.directions[count++] = direction;
+            }
+        }
+        return this.directions[this.random.nextInt(count)];
+    }
+}
@@ -0,0 +1,739 @@
+package simulacao;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import algoritmo.ProgramaLadrao;
+import algoritmo.ProgramaPoupador;
+import algoritmo.SensoresLadrao;
+import algoritmo.SensoresPoupador;
+import controle.Constantes;
+
+/**
+ * Uma partida executada sem interface gráfica, o mais rápido possível.
+ * 
+ * Reproduz as regras de "algoritmo.Ambiente" e "algoritmo.Arquitetura":
+ * a ordem das jogadas (Ladrões 200 a 230 e depois Poupadores 100 e 110),
+ * a visão 5x5 com os terrenos encobertos por paredes, os cheiros, os
+ * roubos, as moedas, o banco, as pastilhas do poder e o decaimento dos
+ * feromônios. Diferente da "Arquitetura", os sensores de cada agente são
+ * criados uma única vez e reaproveitados a cada rodada.
+ * 
+ * Com um executor de agentes (ver "setAgentExecutor"), as jogadas de uma
+ * rodada são calculadas ao mesmo tempo: todos os sensores são preenchidos
+ * com o mesmo estado do Labirinto, os seis agentes decidem em paralelo e
+ * as jogadas são aplicadas depois, na ordem de sempre. As regras de cada
+ * jogada não mudam, mas um agente não vê mais as jogadas anteriores da
+ * mesma rodada, então as partidas diferem das sequenciais.
+ */
+public class Simulation {
+    // Os valores dos terrenos, copiados das constantes do jogo.
+    private static final int NO_SIGHT = Constantes.semVisao;
+    private static final int OUTSIDE = Constantes.foraAmbiene;
+    private static final int FREE = Constantes.posicaoLivre;
+    private static final int WALL = Constantes.numeroParede;
+    private static final int BANK = Constantes.numeroBanco;
+    private static final int COIN = Constantes.numeroMoeda;
+    private static final int POWER_PELLET = Constantes.numeroPastinhaPoder;
+    private static final int FIRST_SAVER = Constantes.numeroPoupador01;
+    private static final int FIRST_THIEF = Constantes.numeroLadrao01;
+
+    // Os números dos agentes, na ordem em que jogam.
+    private static final int[] THIEF_CODES = { 200, 210, 220, 230 };
+    private static final int[] SAVER_CODES = { 100, 110 };
+
+    // O deslocamento de cada posição da visão (5x5, sem o centro).
+    private static final int[] VISION_X = new int[24];
+    private static final int[] VISION_Y = new int[24];
+
+    // As posições internas da visão que, sendo paredes, encobrem cada
+    // posição externa (vazio para as posições sempre visíveis).
+    private static final int[][] VISION_BLOCKERS = {
+            { 6 }, { 6, 7 }, { 7 }, { 7, 8 }, { 8 },
+            { 6, 11 }, {}, {}, {}, { 8, 12 },
+            { 11 }, {}, {}, { 12 },
+            { 11, 15 }, {}, {}, {}, { 12, 17 },
+            { 15 }, { 15, 16 }, { 16 }, { 16, 17 }, { 17 }
+    };
+
+    // O deslocamento de cada posição do olfato (3x3, sem o centro).
+    private static final int[] SMELL_X = { -1, 0, 1, -1, 1, -1, 0, 1 };
+    private static final int[] SMELL_Y = { -1, -1, -1, 0, 0, 1, 1, 1 };
+
+    // O deslocamento de cada direção (0 parado, 1 cima, 2 baixo,
+    // 3 direita e 4 esquerda).
+    private static final int[] DIRECTION_X = { 0, 0, 0, 1, -1 };
+    private static final int[] DIRECTION_Y = { 0, -1, 1, 0, 0 };
+
+    static {
+        int index = 0;
+        for (int dy = -2; dy <= 2; dy++) {
+            for (int dx = -2; dx <= 2; dx++) {
+                if (dx != 0 || dy != 0) {
+                    VISION_X[index] = dx;
+                    VISION_Y[index] = dy;
+                    index++;
+                }
+            }
+        }
+    }
+
+    // As dimensões do Labirinto.
+    private final int width;
+    private final int height;
+
+    // O estado dos terrenos e dos cheiros, linha a linha.
+    private final int[] lands;
+    private final SmellLayer saverSmell;
+    private final SmellLayer thiefSmell;
+
+    // Os programas dos agentes.
+    private final ProgramaLadrao[] thieves;
+    private final ProgramaPoupador[] savers;
+
+    // Os sensores reaproveitados de cada agente.
+    private final SensoresLadrao[] thiefSensors;
+    private final SensoresPoupador[] saverSensors;
+
+    // O estado de cada agente: Ladrões primeiro, depois os Poupadores.
+    private final int[] agentCode;
+    private final int[] agentX;
+    private final int[] agentY;
+    private final int[] coins;
+    private final int[] bankCoins;
+    private final int[] immuneTicks;
+
+    // As rodadas restantes e as já executadas da partida.
+    private int remainingTicks;
+    private int elapsedTicks;
+
+    // A rodada do primeiro roubo com moedas (-1 enquanto não houver).
+    private int firstTheftTick = -1;
+
+    // Os terrenos que já apareceram na visão de algum Ladrão.
+    private final boolean[] isLandSeen;
+    private int seenLands;
+
+    // O executor das jogadas em paralelo (nulo para jogadas sequenciais),
+    // as jogadas de cada agente, na ordem da rodada, e as suas direções.
+    private ExecutorService agentExecutor;
+    private final List<Callable<Integer>> agentActions;
+    private final int[] directions;
+
+    /**
+     * Prepara uma partida com a duração padrão do jogo.
+     * 
+     * @param maze    O Labirinto da partida.
+     * @param thieves Os programas dos Ladrões 200, 210, 220 e 230.
+     * @param savers  Os programas dos Poupadores 100 e 110.
+     */
+    public Simulation(Maze maze, ProgramaLadrao[] thieves, ProgramaPoupador[] savers) {
+        this(maze, thieves, savers, Constantes.tempoInicialJogo);
+    }
+
+    /**
+     * Prepara uma partida.
+     * 
+     * @param maze    O Labirinto da partida.
+     * @param thieves Os programas dos Ladrões 200, 210, 220 e 230.
+     * @param savers  Os programas dos Poupadores 100 e 110.
+     * @param ticks   A quantidade de rodadas da partida.
+     */
+    public Simulation(Maze maze, ProgramaLadrao[] thieves, ProgramaPoupador[] savers, int ticks) {
+        if (thieves.length != THIEF_CODES.length || savers.length != SAVER_CODES.length) {
+            throw new IllegalArgumentException("A partida precisa de " + THIEF_CODES.length + " Ladrões e "
+                    + SAVER_CODES.length + " Poupadores");
+        }
+        this.width = maze.getWidth();
+        this.height = maze.getHeight();
+        this.lands = new int[this.width * this.height];
+        this.saverSmell = new SmellLayer(this.lands.length);
+        this.thiefSmell = new SmellLayer(this.lands.length);
+        this.isLandSeen = new boolean[this.lands.length];
+        maze.copyLands(this.lands);
+
+        this.thieves = thieves.clone();
+        this.savers = savers.clone();
+        this.thiefSensors = new SensoresLadrao[thieves.length];
+        this.saverSensors = new SensoresPoupador[savers.length];
+
+        int agents = thieves.length + savers.length;
+        this.agentCode = new int[agents];
+        this.agentX = new int[agents];
+        this.agentY = new int[agents];
+        this.coins = new int[agents];
+        this.bankCoins = new int[agents];
+        this.immuneTicks = new int[agents];
+        for (int agent = 0; agent < agents; agent++) {
+            this.agentCode[agent] = agent < thieves.length
+                    ? THIEF_CODES[agent]
+                    : SAVER_CODES[agent - thieves.length];
+            this.coins[agent] = Constantes.numeroInicialdeMoedas;
+            this.bankCoins[agent] = Constantes.numeroInicialdeMoedas;
+            this.findAgent(agent);
+        }
+
+        for (int thief = 0; thief < thieves.length; thief++) {
+            this.thiefSensors[thief] = this.createThiefSensor();
+        }
+        for (int saver = 0; saver < savers.length; saver++) {
+            this.saverSensors[saver] = this.createSaverSensor();
+        }
+
+        this.agentActions = new ArrayList<>(agents);
+        for (ProgramaLadrao thief : this.thieves) {
+            this.agentActions.add(thief::acao);
+        }
+        for (ProgramaPoupador saver : this.savers) {
+            this.agentActions.add(saver::acao);
+        }
+        this.directions = new int[agents];
+
+        this.remainingTicks = ticks;
+    }
+
+    /**
+     * Define o executor das jogadas de cada rodada. O tempo da rodada passa
+     * a ser o do agente mais lento, e não a soma de todos, desde que o
+     * executor tenha uma thread por agente.
+     * 
+     * Os agentes são executados em threads diferentes, então o estado que
+     * eles compartilham (por exemplo, a memória dos Ladrões) precisa
+     * suportar isso, e deixa de ser reproduzível entre as partidas.
+     * 
+     * @param agentExecutor O executor, ou nulo para executar os agentes um
+     *                      depois do outro, como o jogo.
+     */
+    public void setAgentExecutor(ExecutorService agentExecutor) {
+        this.agentExecutor = agentExecutor;
+    }
+
+    /**
+     * Procura a posição inicial de um agente no Labirinto.
+     * 
+     * @param agent O índice do agente.
+     */
+    private void findAgent(int agent) {
+        for (int land = 0; land < this.lands.length; land++) {
+            if (this.lands[land] == this.agentCode[agent]) {
+                this.agentX[agent] = land % this.width;
+                this.agentY[agent] = land / this.width;
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Não foi possível achar o agente de número " + this.agentCode[agent]);
+    }
+
+    /**
+     * @return Um sensor de Ladrão com os vetores já alocados.
+     */
+    private SensoresLadrao createThiefSensor() {
+        SensoresLadrao sensor = new SensoresLadrao();
+        sensor.setVisaoIdentificacao(new int[VISION_X.length]);
+        sensor.setAmbienteOlfatoLadrao(new int[SMELL_X.length]);
+        sensor.setAmbienteOlfatoPoupador(new int[SMELL_X.length]);
+        sensor.setPosicao(new Point());
+        return sensor;
+    }
+
+    /**
+     * @return Um sensor de Poupador com os vetores já alocados.
+     */
+    private SensoresPoupador createSaverSensor() {
+        SensoresPoupador sensor = new SensoresPoupador();
+        sensor.setVisaoIdentificacao(new int[VISION_X.length]);
+        sensor.setAmbienteOlfatoLadrao(new int[SMELL_X.length]);
+        sensor.setAmbienteOlfatoPoupador(new int[SMELL_X.length]);
+        sensor.setPosicao(new Point());
+        return sensor;
+    }
+
+    /**
+     * Executa uma rodada completa da partida, na mesma
+     * ordem de "Ambiente.executa()".
+     * 
+     * @return Um valor lógico indicando se a partida continua.
+     */
+    public boolean step() {
+        if (this.remainingTicks <= 0) {
+            return false;
+        }
+
+        // A imunidade dos Poupadores diminui no início da rodada.
+        for (int agent = this.thieves.length; agent < this.agentCode.length; agent++) {
+            if (this.immuneTicks[agent] > 0) {
+                this.immuneTicks[agent]--;
+            }
+        }
+
+        if (this.agentExecutor != null) {
+            this.stepInParallel();
+        } else {
+            for (int thief = 0; thief < this.thieves.length; thief++) {
+                this.perceiveThief(thief);
+                this.thieves[thief].sensor = this.thiefSensors[thief];
+                this.moveThief(thief, this.thieves[thief].acao());
+            }
+            for (int saver = 0; saver < this.savers.length; saver++) {
+                this.perceiveSaver(saver);
+                this.savers[saver].sensor = this.saverSensors[saver];
+                this.moveSaver(this.thieves.length + saver, this.savers[saver].acao());
+            }
+        }
+
+        this.saverSmell.decay();
+        this.thiefSmell.decay();
+
+        this.remainingTicks--;
+        this.elapsedTicks++;
+        return this.remainingTicks > 0;
+    }
+
+    /**
+     * Executa as jogadas de uma rodada em paralelo: preenche todos os
+     * sensores com o estado atual, espera a decisão de todos os agentes e
+     * só então aplica as jogadas, na ordem da rodada.
+     */
+    private void stepInParallel() {
+        for (int thief = 0; thief < this.thieves.length; thief++) {
+            this.perceiveThief(thief);
+            this.thieves[thief].sensor = this.thiefSensors[thief];
+        }
+        for (int saver = 0; saver < this.savers.length; saver++) {
+            this.perceiveSaver(saver);
+            this.savers[saver].sensor = this.saverSensors[saver];
+        }
+
+        try {
+            List<Future<Integer>> decisions = this.agentExecutor.invokeAll(this.agentActions);
+            for (int agent = 0; agent < this.directions.length; agent++) {
+                this.directions[agent] = decisions.get(agent).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rodada interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na jogada de um agente", e.getCause());
+        }
+
+        for (int thief = 0; thief < this.thieves.length; thief++) {
+            this.moveThief(thief, this.directions[thief]);
+        }
+        for (int saver = 0; saver < this.savers.length; saver++) {
+            this.moveSaver(this.thieves.length + saver, this.directions[this.thieves.length + saver]);
+        }
+    }
+
+    /**
+     * Executa as rodadas restantes da partida.
+     */
+    public void run() {
+        while (this.step()) {
+            // Nada a fazer, a rodada já foi executada.
+        }
+    }
+
+    /**
+     * Preenche o sensor de um Ladrão.
+     * 
+     * @param thief O índice do Ladrão.
+     */
+    private void perceiveThief(int thief) {
+        SensoresLadrao sensor = this.thiefSensors[thief];
+        this.fillVision(thief, sensor.getVisaoIdentificacao());
+        this.markSeenLands(thief, sensor.getVisaoIdentificacao());
+        sensor.getPosicao().setLocation(this.agentX[thief], this.agentY[thief]);
+        sensor.setNumeroDeMoedas(this.coins[thief]);
+        this.fillSmell(thief, this.thiefSmell.values, sensor.getAmbienteOlfatoLadrao());
+        this.fillSmell(thief, this.saverSmell.values, sensor.getAmbienteOlfatoPoupador());
+    }
+
+    /**
+     * Preenche o sensor de um Poupador.
+     * 
+     * @param saver O índice do Poupador, entre os Poupadores.
+     */
+    private void perceiveSaver(int saver) {
+        int agent = this.thieves.length + saver;
+        SensoresPoupador sensor = this.saverSensors[saver];
+        this.fillVision(agent, sensor.getVisaoIdentificacao());
+        sensor.getPosicao().setLocation(this.agentX[agent], this.agentY[agent]);
+        sensor.setNumeroDeMoedas(this.coins[agent]);
+        sensor.setNumeroDeMoedasBanco(this.bankCoins[agent]);
+        sensor.setNumeroJogadasImunes(this.immuneTicks[agent]);
+        this.fillSmell(agent, this.saverSmell.values, sensor.getAmbienteOlfatoPoupador());
+        this.fillSmell(agent, this.thiefSmell.values, sensor.getAmbienteOlfatoLadrao());
+    }
+
+    /**
+     * Preenche a visão 5x5 de um agente. As posições externas
+     * encobertas por paredes ficam sem visão.
+     * 
+     * @param agent  O índice do agente.
+     * @param vision O vetor da visão.
+     */
+    private void fillVision(int agent, int[] vision) {
+        int x = this.agentX[agent];
+        int y = this.agentY[agent];
+
+        // Primeiro o anel interno, do qual dependem os encobrimentos.
+        for (int index = 0; index < vision.length; index++) {
+            if (VISION_BLOCKERS[index].length == 0) {
+                vision[index] = this.getLand(x + VISION_X[index], y + VISION_Y[index]);
+            }
+        }
+        for (int index = 0; index < vision.length; index++) {
+            int[] blockers = VISION_BLOCKERS[index];
+            if (blockers.length == 0) {
+                continue;
+            }
+            boolean isBlocked = true;
+            for (int blocker : blockers) {
+                isBlocked &= vision[blocker] == WALL;
+            }
+            vision[index] = isBlocked ? NO_SIGHT : this.getLand(x + VISION_X[index], y + VISION_Y[index]);
+        }
+    }
+
+    /**
+     * Marca como vistos o terreno do Ladrão e os terrenos
+     * visíveis da sua visão.
+     * 
+     * @param thief  O índice do Ladrão.
+     * @param vision O vetor da visão, já preenchido.
+     */
+    private void markSeenLands(int thief, int[] vision) {
+        int x = this.agentX[thief];
+        int y = this.agentY[thief];
+        this.markSeenLand(y * this.width + x);
+        for (int index = 0; index < vision.length; index++) {
+            if (vision[index] != NO_SIGHT && vision[index] != OUTSIDE) {
+                this.markSeenLand((y + VISION_Y[index]) * this.width + x + VISION_X[index]);
+            }
+        }
+    }
+
+    /**
+     * Marca um terreno como visto.
+     * 
+     * @param land O identificador do terreno.
+     */
+    private void markSeenLand(int land) {
+        if (!this.isLandSeen[land]) {
+            this.isLandSeen[land] = true;
+            this.seenLands++;
+        }
+    }
+
+    /**
+     * Preenche o olfato 3x3 de um agente.
+     * 
+     * @param agent O índice do agente.
+     * @param smell Os cheiros do Labirinto.
+     * @param sense O vetor do olfato.
+     */
+    private void fillSmell(int agent, int[] smell, int[] sense) {
+        int x = this.agentX[agent];
+        int y = this.agentY[agent];
+        for (int index = 0; index < sense.length; index++) {
+            int smellX = x + SMELL_X[index];
+            int smellY = y + SMELL_Y[index];
+            sense[index] = this.isInside(smellX, smellY) ? smell[smellY * this.width + smellX] : OUTSIDE;
+        }
+    }
+
+    /**
+     * Pega o conteúdo de um terreno, ou "fora do ambiente".
+     * 
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return O conteúdo do terreno.
+     */
+    private int getLand(int x, int y) {
+        return this.isInside(x, y) ? this.lands[y * this.width + x] : OUTSIDE;
+    }
+
+    /**
+     * Verifica se as coordenadas estão dentro do Labirinto.
+     * 
+     * @param x A coordenada "x".
+     * @param y A coordenada "y".
+     * @return Um valor lógico referente à validade das coordenadas.
+     */
+    private boolean isInside(int x, int y) {
+        return 0 <= x && x < this.width && 0 <= y && y < this.height;
+    }
+
+    /**
+     * Move um Ladrão. Caso o terreno não esteja livre, o Ladrão
+     * fica parado e rouba o Poupador que estiver nele.
+     * 
+     * @param thief     O índice do Ladrão.
+     * @param direction A direção escolhida pelo Ladrão.
+     */
+    private void moveThief(int thief, int direction) {
+        if (direction < 1 || direction > 4) {
+            return;
+        }
+        int x = this.agentX[thief];
+        int y = this.agentY[thief];
+        int targetX = x + DIRECTION_X[direction];
+        int targetY = y + DIRECTION_Y[direction];
+        if (!this.isInside(targetX, targetY)) {
+            return;
+        }
+
+        this.thiefSmell.mark(y * this.width + x);
+        int target = this.lands[targetY * this.width + targetX];
+        if (target == FREE) {
+            this.moveAgent(thief, targetX, targetY);
+        } else if (FIRST_SAVER <= target && target < FIRST_THIEF) {
+            int saver = this.getAgentAt(targetX, targetY);
+            if (this.immuneTicks[saver] <= 0) {
+                this.steal(thief, saver);
+            }
+        }
+    }
+
+    /**
+     * Move um Poupador. Caso o terreno não esteja livre, o Poupador
+     * pode ser roubado, pegar uma moeda, depositar no banco ou
+     * comprar uma pastilha do poder.
+     * 
+     * @param saver     O índice do Poupador, entre todos os agentes.
+     * @param direction A direção escolhida pelo Poupador.
+     */
+    private void moveSaver(int saver, int direction) {
+        if (direction < 1 || direction > 4) {
+            return;
+        }
+        int x = this.agentX[saver];
+        int y = this.agentY[saver];
+        int targetX = x + DIRECTION_X[direction];
+        int targetY = y + DIRECTION_Y[direction];
+        if (!this.isInside(targetX, targetY)) {
+            return;
+        }
+
+        int target = this.lands[targetY * this.width + targetX];
+        if (target == FREE) {
+            this.saverSmell.mark(y * this.width + x);
+            this.moveAgent(saver, targetX, targetY);
+            return;
+        }
+
+        // Assim como na "Arquitetura", o Poupador barrado à direita
+        // deixa o cheiro no terreno de destino, e não no seu.
+        if (direction == 3) {
+            this.saverSmell.mark(targetY * this.width + targetX);
+        } else {
+            this.saverSmell.mark(y * this.width + x);
+        }
+        if (target >= FIRST_THIEF) {
+            // Esbarrar em um Ladrão entrega as moedas a ele.
+            if (this.immuneTicks[saver] <= 0) {
+                this.steal(this.getAgentAt(targetX, targetY), saver);
+            }
+        } else if (target == COIN) {
+            this.coins[saver] += Constantes.valorGanhoMoedas;
+            this.moveAgent(saver, targetX, targetY);
+        } else if (target == BANK) {
+            this.bankCoins[saver] += this.coins[saver];
+            this.coins[saver] = 0;
+        } else if (target == POWER_PELLET && this.coins[saver] >= Constantes.custoPastinha) {
+            this.coins[saver] -= Constantes.custoPastinha;
+            this.immuneTicks[saver] = Constantes.numeroTICsImunes;
+            this.moveAgent(saver, targetX, targetY);
+        }
+    }
+
+    /**
+     * Passa todas as moedas de um Poupador para um Ladrão.
+     * 
+     * @param thief O índice do Ladrão.
+     * @param saver O índice do Poupador.
+     */
+    private void steal(int thief, int saver) {
+        if (this.coins[saver] > 0 && this.firstTheftTick == -1) {
+            this.firstTheftTick = this.elapsedTicks + 1;
+        }
+        this.coins[thief] += this.coins[saver];
+        this.coins[saver] = 0;
+    }
+
+    /**
+     * Move um agente para um terreno, liberando o terreno anterior.
+     * 
+     * @param agent   O índice do agente.
+     * @param targetX A coordenada "x" do destino.
+     * @param targetY A coordenada "y" do destino.
+     */
+    private void moveAgent(int agent, int targetX, int targetY) {
+        this.lands[this.agentY[agent] * this.width + this.agentX[agent]] = FREE;
+        this.lands[targetY * this.width + targetX] = this.agentCode[agent];
+        this.agentX[agent] = targetX;
+        this.agentY[agent] = targetY;
+    }
+
+    /**
+     * Procura o agente que está em um terreno.
+     * 
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return O índice do agente.
+     */
+    private int getAgentAt(int x, int y) {
+        for (int agent = 0; agent < this.agentCode.length; agent++) {
+            if (this.agentX[agent] == x && this.agentY[agent] == y) {
+                return agent;
+            }
+        }
+        throw new IllegalStateException("Nenhum agente em (" + x + ", " + y + ")");
+    }
+
+    /**
+     * @return As rodadas restantes da partida.
+     */
+    public int getRemainingTicks() {
+        return this.remainingTicks;
+    }
+
+    /**
+     * @return As rodadas já executadas da partida.
+     */
+    public int getElapsedTicks() {
+        return this.elapsedTicks;
+    }
+
+    /**
+     * @return A rodada do primeiro roubo com moedas, ou -1 caso
+     *         nenhum Poupador tenha sido roubado.
+     */
+    public int getFirstTheftTick() {
+        return this.firstTheftTick;
+    }
+
+    /**
+     * @return A fração dos terrenos do Labirinto que já apareceram
+     *         na visão de algum Ladrão.
+     */
+    public double getExplorationCoverage() {
+        return (double) this.seenLands / this.lands.length;
+    }
+
+    /**
+     * @return Um valor lógico indicando o fim da partida.
+     */
+    public boolean isOver() {
+        return this.remainingTicks <= 0;
+    }
+
+    /**
+     * Pega as moedas em mãos de um Ladrão.
+     * 
+     * @param thief O índice do Ladrão (0 a 3).
+     * @return As moedas do Ladrão.
+     */
+    public int getThiefCoins(int thief) {
+        return this.coins[thief];
+    }
+
+    /**
+     * Pega as moedas em mãos de um Poupador.
+     * 
+     * @param saver O índice do Poupador (0 ou 1).
+     * @return As moedas do Poupador.
+     */
+    public int getSaverCoins(int saver) {
+        return this.coins[this.thieves.length + saver];
+    }
+
+    /**
+     * Pega as moedas depositadas por um Poupador.
+     * 
+     * @param saver O índice do Poupador (0 ou 1).
+     * @return As moedas no banco.
+     */
+    public int getSaverBankCoins(int saver) {
+        return this.bankCoins[this.thieves.length + saver];
+    }
+
+    /**
+     * @return O total de moedas em mãos dos Ladrões.
+     */
+    public int getTotalThiefCoins() {
+        int total = 0;
+        for (int thief = 0; thief < this.thieves.length; thief++) {
+            total += this.coins[thief];
+        }
+        return total;
+    }
+
+    /**
+     * Pega o conteúdo atual de um terreno.
+     * 
+     * @param x A coordenada "x" do terreno.
+     * @param y A coordenada "y" do terreno.
+     * @return O conteúdo do terreno.
+     */
+    public int getCurrentLand(int x, int y) {
+        return this.lands[y * this.width + x];
+    }
+
+    /**
+     * Os cheiros deixados por um tipo de agente, junto da lista dos
+     * terrenos com cheiro, para que o envelhecimento percorra somente
+     * eles, e não o Labirinto inteiro.
+     */
+    private static final class SmellLayer {
+        // O cheiro de cada terreno (0 para nenhum), linha a linha.
+        final int[] values;
+
+        // Os terrenos com cheiro, em qualquer ordem, e a sua quantia.
+        private final int[] lands;
+        private int size;
+
+        /**
+         * @param size A quantia de terrenos do Labirinto.
+         */
+        SmellLayer(int size) {
+            this.values = new int[size];
+            this.lands = new int[size];
+        }
+
+        /**
+         * Deixa uma marca recente (-1) em um terreno.
+         * 
+         * @param land O identificador do terreno.
+         */
+        void mark(int land) {
+            if (this.values[land] == 0) {
+                this.lands[this.size++] = land;
+            }
+            this.values[land] = -1;
+        }
+
+        /**
+         * Envelhece os feromônios: a marca recente (-1) passa a 1, as
+         * demais aumentam até sumirem ao chegar em 5.
+         */
+        void decay() {
+            int kept = 0;
+            for (int i = 0; i < this.size; i++) {
+                int land = this.lands[i];
+                int value = this.values[land];
+                value = value == -1 ? 1 : value >= 5 ? 0 : value + 1;
+                this.values[land] = value;
+                if (value != 0) {
+                    this.lands[kept++] = land;
+                }
+            }
+            this.size = kept;
+        }
+    }
+}
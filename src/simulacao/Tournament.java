@@ -0,0 +1,200 @@
+package simulacao;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import algoritmo.ProgramaLadrao;
+import algoritmo.ProgramaPoupador;
+
+/**
+ * Um torneio sem interface gráfica: todos os Labirintos contra todas as
+ * variantes dos Ladrões, com várias sementes, em paralelo.
+ * 
+ * Cada partida cria o seu próprio Simulation e os seus próprios
+ * programas, então nenhuma partida compartilha estado com outra.
+ */
+public class Tournament {
+    // Os Labirintos do torneio, pelo nome.
+    private final Map<String, Maze> mazes = new LinkedHashMap<>();
+
+    // As variantes dos Ladrões: o nome e, para cada partida, a fábrica
+    // dos programas a partir do Labirinto e da semente de cada Ladrão.
+    private final Map<String, Function<Maze, LongFunction<ProgramaLadrao>>> variants = new LinkedHashMap<>();
+
+    // A quantidade de sementes (partidas) por Labirinto e variante.
+    private int seeds = 10;
+
+    // A primeira semente usada.
+    private long firstSeed = 1;
+
+    /**
+     * Adiciona um Labirinto ao torneio.
+     * 
+     * @param name O nome do Labirinto no relatório.
+     * @param maze O Labirinto.
+     */
+    public void addMaze(String name, Maze maze) {
+        this.mazes.put(name, maze);
+    }
+
+    /**
+     * Adiciona uma variante dos Ladrões ao torneio.
+     * 
+     * A fábrica é criada uma vez por partida, para o Labirinto da
+     * partida, então os Ladrões podem ser dimensionados por ele e os
+     * Ladrões de uma mesma partida podem compartilhar estado (por
+     * exemplo, uma memória em comum).
+     * 
+     * @param name    O nome da variante no relatório.
+     * @param factory Cria, a partir do Labirinto, a fábrica dos Ladrões
+     *                da partida, que cria cada Ladrão pela sua semente.
+     */
+    public void addVariant(String name, Function<Maze, LongFunction<ProgramaLadrao>> factory) {
+        this.variants.put(name, factory);
+    }
+
+    /**
+     * @param seeds A quantidade de partidas por Labirinto e variante.
+     */
+    public void setSeeds(int seeds) {
+        this.seeds = seeds;
+    }
+
+    /**
+     * @param firstSeed A primeira semente usada.
+     */
+    public void setFirstSeed(long firstSeed) {
+        this.firstSeed = firstSeed;
+    }
+
+    /**
+     * Executa todas as partidas do torneio.
+     * 
+     * @param parallelism A quantidade de partidas executadas ao mesmo tempo.
+     * @return Os resultados, na ordem Labirinto, variante e semente.
+     */
+    public List<MatchResult> run(int parallelism) {
+        List<Callable<MatchResult>> matches = new ArrayList<>();
+        for (Map.Entry<String, Maze> maze : this.mazes.entrySet()) {
+            for (Map.Entry<String, Function<Maze, LongFunction<ProgramaLadrao>>> variant
+                    : this.variants.entrySet()) {
+                for (long seed = this.firstSeed; seed < this.firstSeed + this.seeds; seed++) {
+                    final long matchSeed = seed;
+                    matches.add(() -> play(maze.getKey(), maze.getValue(), variant.getKey(),
+                            variant.getValue().apply(maze.getValue()), matchSeed));
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<MatchResult> results = new ArrayList<>(matches.size());
+            for (Future<MatchResult> result : pool.invokeAll(matches)) {
+                results.add(result.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Torneio interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em uma partida do torneio", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Executa uma partida do torneio.
+     * 
+     * @param mazeName    O nome do Labirinto.
+     * @param maze        O Labirinto.
+     * @param variantName O nome da variante dos Ladrões.
+     * @param factory     A fábrica dos Ladrões.
+     * @param seed        A semente da partida.
+     * @return O resultado da partida.
+     */
+    public static MatchResult play(String mazeName, Maze maze, String variantName,
+            LongFunction<ProgramaLadrao> factory, long seed) {
+        return play(mazeName, maze, variantName, factory, seed, null);
+    }
+
+    /**
+     * Executa uma partida do torneio, com as jogadas de cada rodada
+     * calculadas em paralelo (ver "Simulation.setAgentExecutor").
+     * 
+     * @param mazeName      O nome do Labirinto.
+     * @param maze          O Labirinto.
+     * @param variantName   O nome da variante dos Ladrões.
+     * @param factory       A fábrica dos Ladrões.
+     * @param seed          A semente da partida.
+     * @param agentExecutor O executor das jogadas, ou nulo para jogadas
+     *                      sequenciais.
+     * @return O resultado da partida.
+     */
+    public static MatchResult play(String mazeName, Maze maze, String variantName,
+            LongFunction<ProgramaLadrao> factory, long seed, ExecutorService agentExecutor) {
+        ProgramaLadrao[] thieves = new ProgramaLadrao[4];
+        for (int thief = 0; thief < thieves.length; thief++) {
+            thieves[thief] = factory.apply(seed * 31 + thief);
+        }
+        ProgramaPoupador[] savers = new ProgramaPoupador[2];
+        for (int saver = 0; saver < savers.length; saver++) {
+            savers[saver] = new RandomSaver(seed * 37 + saver);
+        }
+
+        Simulation simulation = new Simulation(maze, thieves, savers);
+        simulation.setAgentExecutor(agentExecutor);
+        simulation.run();
+        return new MatchResult(mazeName, variantName, seed, simulation.getTotalThiefCoins(),
+                simulation.getFirstTheftTick(), simulation.getExplorationCoverage(),
+                (long) simulation.getElapsedTicks() * (thieves.length + savers.length));
+    }
+
+    /**
+     * Agrupa os resultados por Labirinto e variante, em uma tabela
+     * com as médias de moedas roubadas, da rodada do primeiro roubo
+     * (entre as partidas com roubo) e da exploração.
+     * 
+     * @param results Os resultados das partidas.
+     * @return O relatório do torneio.
+     */
+    public static String report(List<MatchResult> results) {
+        // Acumula os resultados de cada grupo, na ordem em que aparecem.
+        Map<String, double[]> groups = new LinkedHashMap<>();
+        for (MatchResult result : results) {
+            // 0: partidas, 1: moedas, 2: partidas com roubo,
+            // 3: soma das rodadas do primeiro roubo, 4: exploração.
+            double[] group = groups.computeIfAbsent(result.getMaze() + "\t" + result.getVariant(),
+                    key -> new double[5]);
+            group[0]++;
+            group[1] += result.getThiefCoins();
+            if (result.getFirstTheftTick() != -1) {
+                group[2]++;
+                group[3] += result.getFirstTheftTick();
+            }
+            group[4] += result.getExplorationCoverage();
+        }
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-24s %-18s %8s %10s %12s %10s%n", "labirinto", "variante", "partidas",
+                "moedas", "1º roubo", "exploração"));
+        for (Map.Entry<String, double[]> entry : groups.entrySet()) {
+            String[] key = entry.getKey().split("\t");
+            double[] group = entry.getValue();
+            report.append(String.format("%-24s %-18s %8d %10.1f %12s %9.1f%%%n", key[0], key[1], (int) group[0],
+                    group[1] / group[0],
+                    group[2] == 0 ? "-" : String.format("%.0f (%d)", group[3] / group[2], (int) group[2]),
+                    100 * group[4] / group[0]));
+        }
+        return report.toString();
+    }
+}